@@ -0,0 +1,67 @@
+package com.zengent.demo.benchmarks.stress;
+
+import com.zengent.demo.benchmarks.BenchmarkContext;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.InventoryService;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZI_Result;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Two orders for the same two products, with lines in opposite order, race for the last
+ * unit of each: one order gets both units and the other none, without deadlocking.
+ */
+@JCStressTest
+@Description("reserveStockBySku reserves every line of an order or none")
+@Outcome(id = "true, false, 0", expect = ACCEPTABLE, desc = "First order reserved")
+@Outcome(id = "false, true, 0", expect = ACCEPTABLE, desc = "Second order reserved")
+@Outcome(expect = FORBIDDEN, desc = "Oversold, partially reserved or deadlocked")
+@State
+public class ReserveStockBySkuAllOrNoneTest {
+    
+    private static final ConfigurableApplicationContext CONTEXT = BenchmarkContext.shared();
+    private static final InventoryService INVENTORY = CONTEXT.getBean(InventoryService.class);
+    private static final ProductRepository PRODUCTS = CONTEXT.getBean(ProductRepository.class);
+    
+    private final Product a = BenchmarkContext.createProduct(PRODUCTS, "ALL-OR-NONE", 1);
+    private final Product b = BenchmarkContext.createProduct(PRODUCTS, "ALL-OR-NONE", 1);
+    
+    @Actor
+    public void first(ZZI_Result r) {
+        r.r1 = reserve(a, b);
+    }
+    
+    @Actor
+    public void second(ZZI_Result r) {
+        r.r2 = reserve(b, a);
+    }
+    
+    @Arbiter
+    public void stock(ZZI_Result r) {
+        r.r3 = PRODUCTS.findStockQuantityById(a.getId()) + PRODUCTS.findStockQuantityById(b.getId());
+    }
+    
+    private static boolean reserve(Product firstLine, Product secondLine) {
+        Map<String, Integer> order = new LinkedHashMap<>();
+        order.put(firstLine.getSku(), 1);
+        order.put(secondLine.getSku(), 1);
+        try {
+            INVENTORY.reserveStockBySku(order);
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.zengent.demo.benchmarks.stress;
+
+import com.zengent.demo.benchmarks.BenchmarkContext;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.InventoryService;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZI_Result;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Two reservations race for the last unit of a product: exactly one may win, and the
+ * stock ends at zero.
+ */
+@JCStressTest
+@Description("reserveStock never sells the same last unit twice")
+@Outcome(id = "true, false, 0", expect = ACCEPTABLE, desc = "First reservation won")
+@Outcome(id = "false, true, 0", expect = ACCEPTABLE, desc = "Second reservation won")
+@Outcome(expect = FORBIDDEN, desc = "Oversold, or stock does not match the reservations")
+@State
+public class ReserveStockOversellTest {
+    
+    private static final ConfigurableApplicationContext CONTEXT = BenchmarkContext.shared();
+    private static final InventoryService INVENTORY = CONTEXT.getBean(InventoryService.class);
+    private static final ProductRepository PRODUCTS = CONTEXT.getBean(ProductRepository.class);
+    
+    private final Product product = BenchmarkContext.createProduct(PRODUCTS, "OVERSELL", 1);
+    
+    @Actor
+    public void first(ZZI_Result r) {
+        r.r1 = INVENTORY.reserveStock(BenchmarkContext.copyOf(product), 1);
+    }
+    
+    @Actor
+    public void second(ZZI_Result r) {
+        r.r2 = INVENTORY.reserveStock(BenchmarkContext.copyOf(product), 1);
+    }
+    
+    @Arbiter
+    public void stock(ZZI_Result r) {
+        r.r3 = PRODUCTS.findStockQuantityById(product.getId());
+    }
+}
@@ -0,0 +1,51 @@
+package com.zengent.demo.benchmarks.stress;
+
+import com.zengent.demo.benchmarks.BenchmarkContext;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.InventoryService;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.I_Result;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * A restock and a removal of the same product race: both must land, whatever the order.
+ */
+@JCStressTest
+@Description("updateProductStock never loses a concurrent change")
+@Outcome(id = "9", expect = ACCEPTABLE, desc = "Both changes applied")
+@Outcome(id = "12", expect = FORBIDDEN, desc = "Removal lost")
+@Outcome(id = "7", expect = FORBIDDEN, desc = "Restock lost")
+@Outcome(expect = FORBIDDEN, desc = "Stock corrupted")
+@State
+public class UpdateStockLostUpdateTest {
+    
+    private static final ConfigurableApplicationContext CONTEXT = BenchmarkContext.shared();
+    private static final InventoryService INVENTORY = CONTEXT.getBean(InventoryService.class);
+    private static final ProductRepository PRODUCTS = CONTEXT.getBean(ProductRepository.class);
+    
+    private final Product product = BenchmarkContext.createProduct(PRODUCTS, "LOST-UPDATE", 10);
+    
+    @Actor
+    public void restock() {
+        INVENTORY.updateProductStock(BenchmarkContext.copyOf(product), 2);
+    }
+    
+    @Actor
+    public void remove() {
+        INVENTORY.updateProductStock(BenchmarkContext.copyOf(product), -3);
+    }
+    
+    @Arbiter
+    public void stock(I_Result r) {
+        r.r1 = PRODUCTS.findStockQuantityById(product.getId());
+    }
+}
@@ -0,0 +1,81 @@
+package com.zengent.demo.benchmarks;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Checkout throughput: orders of 1, 10 or 100 distinct lines reserved with one
+ * {@link InventoryService#reserveStockBySku} call each, by 16 threads at once.
+ * <p>
+ * Lines are drawn Zipfian from the catalog, so concurrent orders keep meeting on the
+ * popular products and wait for each other's row locks. Scores are orders per second;
+ * multiply by the line count for lines per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CheckoutBenchmark {
+    
+    private static final int PRODUCTS = 1000;
+    private static final int INITIAL_STOCK = 1_000_000_000;
+    
+    @Param({"1", "10", "100"})
+    public int lines;
+    
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private String[] skus;
+    private IntSupplier sampler;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        inventoryService = context.getBean(InventoryService.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        skus = new String[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = BenchmarkContext.createProduct(productRepository, "CHECKOUT", INITIAL_STOCK);
+            skus[i] = product.getSku();
+        }
+        sampler = Distribution.ZIPFIAN.sampler(PRODUCTS);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public void reserveOrder() {
+        Map<String, Integer> order = new HashMap<>();
+        while (order.size() < lines) {
+            order.putIfAbsent(skus[sampler.getAsInt()], 1);
+        }
+        inventoryService.reserveStockBySku(order);
+    }
+}
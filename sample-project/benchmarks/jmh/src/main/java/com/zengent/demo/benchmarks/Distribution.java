@@ -0,0 +1,59 @@
+package com.zengent.demo.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntSupplier;
+
+/**
+ * How benchmark operations are spread over a set of products.
+ */
+public enum Distribution {
+    
+    /** Every operation hits the same product. */
+    HOT {
+        @Override
+        public IntSupplier sampler(int products) {
+            return () -> 0;
+        }
+    },
+    
+    /** Every product is equally likely. */
+    UNIFORM {
+        @Override
+        public IntSupplier sampler(int products) {
+            return () -> ThreadLocalRandom.current().nextInt(products);
+        }
+    },
+    
+    /** Zipfian with exponent 1: a few products take most of the traffic. */
+    ZIPFIAN {
+        @Override
+        public IntSupplier sampler(int products) {
+            double[] cumulative = new double[products];
+            double sum = 0;
+            for (int i = 0; i < products; i++) {
+                sum += 1.0 / (i + 1);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < products; i++) {
+                cumulative[i] /= sum;
+            }
+            return () -> {
+                int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+                return Math.min(index >= 0 ? index : -index - 1, products - 1);
+            };
+        }
+    };
+    
+    /**
+     * Source of product indexes in [0, products), safe to share between threads.
+     */
+    public abstract IntSupplier sampler(int products);
+    
+    /**
+     * Parse a JMH parameter value such as {@code zipfian}.
+     */
+    public static Distribution of(String name) {
+        return valueOf(name.toUpperCase());
+    }
+}
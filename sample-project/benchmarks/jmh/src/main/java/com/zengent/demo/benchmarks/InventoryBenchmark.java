@@ -0,0 +1,110 @@
+package com.zengent.demo.benchmarks;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Throughput of the stock mutation paths under contention, with the products each
+ * operation touches drawn from a {@link Distribution}: one hot product, uniform, or Zipfian.
+ * <p>
+ * Stock is seeded far above what a run can consume, so every operation takes the
+ * success path. Correctness under the same contention is covered by the jcstress tests
+ * in the {@code stress} package.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class InventoryBenchmark {
+    
+    private static final int PRODUCTS = 64;
+    private static final int INITIAL_STOCK = 1_000_000_000;
+    private static final int ORDER_LINES = 3;
+    
+    @Param({"hot", "uniform", "zipfian"})
+    public String distribution;
+    
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private Product[] products;
+    private IntSupplier sampler;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        inventoryService = context.getBean(InventoryService.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        products = new Product[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            products[i] = BenchmarkContext.createProduct(productRepository, "BENCH", INITIAL_STOCK);
+        }
+        sampler = Distribution.of(distribution).sampler(PRODUCTS);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    /** Each thread works on its own detached copies of the products. */
+    @State(Scope.Thread)
+    public static class ThreadProducts {
+        
+        private Product[] copies;
+        
+        @Setup(Level.Trial)
+        public void setUp(InventoryBenchmark benchmark) {
+            copies = new Product[PRODUCTS];
+            for (int i = 0; i < PRODUCTS; i++) {
+                copies[i] = BenchmarkContext.copyOf(benchmark.products[i]);
+            }
+        }
+    }
+    
+    @Benchmark
+    public void updateProductStock(ThreadProducts thread) {
+        // Restocks and removals in equal measure, so stock stays near its seed
+        int quantity = ThreadLocalRandom.current().nextBoolean() ? 1 : -1;
+        inventoryService.updateProductStock(thread.copies[sampler.getAsInt()], quantity);
+    }
+    
+    @Benchmark
+    public boolean reserveStock(ThreadProducts thread) {
+        return inventoryService.reserveStock(thread.copies[sampler.getAsInt()], 1);
+    }
+    
+    @Benchmark
+    public void reserveStockBySku() {
+        // Lines drawn from the distribution; repeated products merge into one line
+        Map<String, Integer> order = new HashMap<>();
+        for (int i = 0; i < ORDER_LINES; i++) {
+            order.merge(products[sampler.getAsInt()].getSku(), 1, Integer::sum);
+        }
+        inventoryService.reserveStockBySku(order);
+    }
+}
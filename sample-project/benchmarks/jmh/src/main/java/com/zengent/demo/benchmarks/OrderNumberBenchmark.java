@@ -0,0 +1,62 @@
+package com.zengent.demo.benchmarks;
+
+import com.zengent.demo.service.SnowflakeOrderNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order number generation: the Snowflake-style generator against the UUID-based numbers
+ * it replaced, on one thread and with eight threads sharing one generator.
+ * <p>
+ * No application context is needed; the generator is created directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OrderNumberBenchmark {
+    
+    private final SnowflakeOrderNumberGenerator snowflake = new SnowflakeOrderNumberGenerator(1);
+    
+    @Benchmark
+    public String snowflake() {
+        return snowflake.nextOrderNumber();
+    }
+    
+    @Benchmark
+    public String uuid() {
+        return uuidOrderNumber();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String snowflakeContended() {
+        return snowflake.nextOrderNumber();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String uuidContended() {
+        return uuidOrderNumber();
+    }
+    
+    /** The order number OrderService generated before SnowflakeOrderNumberGenerator. */
+    private static String uuidOrderNumber() {
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return "ORD-" + timestamp + "-" + uuid;
+    }
+}
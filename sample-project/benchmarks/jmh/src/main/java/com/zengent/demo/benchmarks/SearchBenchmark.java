@@ -0,0 +1,156 @@
+package com.zengent.demo.benchmarks;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.ProductService;
+import com.zengent.demo.service.search.InvertedIndex;
+import com.zengent.demo.service.search.ProductSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Product search over a large catalog: the in-memory inverted index against the
+ * {@code LIKE} query it replaced ({@link ProductRepository#findBySearchTerm}).
+ * <p>
+ * The catalog (one million products by default) is inserted with JDBC batches, with
+ * names and descriptions made of words drawn Zipfian from a small vocabulary, and the
+ * index is then loaded as at startup. Queries hit a common word, a rare word, or two
+ * words; LIKE matches two words only as one substring, so it finds fewer rows there.
+ * {@code productService} measures what API callers see: index hits plus loading the page
+ * of products. Use {@code -p products=...} for a quicker run on a smaller catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class SearchBenchmark {
+    
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ne", "ru", "ta", "vo", "zi", "pe", "sa",
+            "do", "fi", "gu", "ho", "ja", "be", "co", "xu", "we", "yo"};
+    private static final int VOCABULARY = SYLLABLES.length * SYLLABLES.length;
+    private static final int NAME_WORDS = 3;
+    private static final int DESCRIPTION_WORDS = 8;
+    private static final int INSERT_BATCH = 10_000;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+    
+    @Param({"1000000"})
+    public int products;
+    
+    @Param({"common", "rare", "two-words"})
+    public String query;
+    
+    private ConfigurableApplicationContext context;
+    private ProductSearchService productSearchService;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private String searchTerm;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        productSearchService = context.getBean(ProductSearchService.class);
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        
+        seed(context.getBean(JdbcTemplate.class));
+        productSearchService.load();
+        if (productSearchService.size() != products) {
+            throw new IllegalStateException("Indexed " + productSearchService.size() + " of " + products + " products");
+        }
+        
+        switch (query) {
+            case "common":
+                searchTerm = word(0);
+                break;
+            case "rare":
+                searchTerm = word(VOCABULARY - 1);
+                break;
+            case "two-words":
+                searchTerm = word(3) + " " + word(40);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown query: " + query);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Optional<InvertedIndex.SearchHits> index() {
+        return productSearchService.search(searchTerm, 0, FIRST_PAGE.getPageSize());
+    }
+    
+    @Benchmark
+    public Page<Product> productService() {
+        return productService.searchProducts(searchTerm, FIRST_PAGE);
+    }
+    
+    @Benchmark
+    public Page<Product> like() {
+        return productRepository.findBySearchTerm(searchTerm, FIRST_PAGE);
+    }
+    
+    // Private helper methods
+    
+    private void seed(JdbcTemplate jdbcTemplate) {
+        IntSupplier words = Distribution.ZIPFIAN.sampler(VOCABULARY);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < products; i++) {
+            batch.add(new Object[] {text(words, NAME_WORDS), text(words, DESCRIPTION_WORDS),
+                    BigDecimal.valueOf(100 + i % 10_000, 2), 100, "SEARCH-" + i, true, now, now});
+            if (batch.size() == INSERT_BATCH || i == products - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO products (name, description, price, stock_quantity, sku, "
+                        + "is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+    
+    private static String text(IntSupplier words, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(word(words.getAsInt()));
+        }
+        return text.toString();
+    }
+    
+    /** Vocabulary word by rank; lower ranks are drawn more often. */
+    private static String word(int rank) {
+        return SYLLABLES[rank % SYLLABLES.length] + SYLLABLES[rank / SYLLABLES.length] + "n";
+    }
+}
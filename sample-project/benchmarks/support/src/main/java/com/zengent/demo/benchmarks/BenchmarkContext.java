@@ -0,0 +1,106 @@
+package com.zengent.demo.benchmarks;
+
+import com.zengent.demo.SampleApplication;
+import com.zengent.demo.mapper.CategoryMapper;
+import com.zengent.demo.mapper.ProductMapper;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Starts the application without a web server on an in-memory H2 database in MySQL mode
+ * for benchmarks and stress tests, with the settings of application-benchmark.properties.
+ * <p>
+ * As in the integration tests, the MapStruct mappers (not generated in this build) and
+ * the password encoder are replaced with stand-ins; none of the measured paths use them.
+ */
+public final class BenchmarkContext {
+    
+    private static ConfigurableApplicationContext shared;
+    
+    private BenchmarkContext() {
+    }
+    
+    /**
+     * Start a new application context. Each call gets its own database.
+     */
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(SampleApplication.class, StandIns.class)
+                .web(WebApplicationType.NONE)
+                .profiles("benchmark")
+                .properties("spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                        + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000")
+                .run();
+    }
+    
+    /**
+     * Application context shared by every test in the JVM, started on first use.
+     * For jcstress, which creates many short-lived test states per run.
+     */
+    public static synchronized ConfigurableApplicationContext shared() {
+        if (shared == null) {
+            shared = start();
+        }
+        return shared;
+    }
+    
+    /**
+     * Save a product with a unique SKU and the given stock.
+     */
+    public static Product createProduct(ProductRepository productRepository, String prefix, int stock) {
+        Product product = new Product(prefix + " product", new BigDecimal("4.99"), prefix + "-" + UUID.randomUUID());
+        product.setStockQuantity(stock);
+        return productRepository.save(product);
+    }
+    
+    /**
+     * Detached copy carrying only what the stock paths read, so concurrent callers do not
+     * share one entity instance.
+     */
+    public static Product copyOf(Product product) {
+        Product copy = new Product(product.getName(), product.getPrice(), product.getSku());
+        copy.setId(product.getId());
+        return copy;
+    }
+    
+    @Configuration(proxyBeanMethods = false)
+    static class StandIns {
+        
+        @Bean
+        ProductMapper productMapper() {
+            return unsupported(ProductMapper.class);
+        }
+        
+        @Bean
+        CategoryMapper categoryMapper() {
+            return unsupported(CategoryMapper.class);
+        }
+        
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return NoOpPasswordEncoder.getInstance();
+        }
+        
+        private static <T> T unsupported(Class<T> type) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                    (proxy, method, args) -> {
+                        if (method.getDeclaringClass() == Object.class) {
+                            return method.getName().equals("toString") ? type.getSimpleName() + " stand-in"
+                                    : method.getName().equals("hashCode") ? System.identityHashCode(proxy)
+                                    : proxy == args[0];
+                        }
+                        throw new UnsupportedOperationException(type.getSimpleName() + " is not available in benchmarks");
+                    }));
+        }
+    }
+}
@@ -1,25 +1,39 @@
 package com.zengent.demo.controller;
 
+import com.zengent.demo.dto.BulkTransitionResult;
+import com.zengent.demo.dto.CursorPage;
+import com.zengent.demo.dto.OrderIngestResult;
+import com.zengent.demo.dto.SalesReport;
 import com.zengent.demo.model.Order;
 import com.zengent.demo.model.OrderItem;
 import com.zengent.demo.model.User;
 import com.zengent.demo.service.OrderService;
+import com.zengent.demo.service.SalesRollupService;
+import com.zengent.demo.service.archive.OrderArchiveService;
+import com.zengent.demo.service.export.OrderExportFormat;
+import com.zengent.demo.service.export.OrderExportJob;
+import com.zengent.demo.service.export.OrderExportJobService;
+import com.zengent.demo.service.export.OrderExportService;
 import com.zengent.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * REST Controller for Order management operations.
@@ -32,11 +46,23 @@ public class OrderController {
     
     private final OrderService orderService;
     private final UserService userService;
+    private final SalesRollupService salesRollupService;
+    private final OrderExportService orderExportService;
+    private final OrderExportJobService orderExportJobService;
+    private final OrderArchiveService orderArchiveService;
     
     @Autowired
-    public OrderController(OrderService orderService, UserService userService) {
+    public OrderController(OrderService orderService, UserService userService,
+                           SalesRollupService salesRollupService,
+                           OrderExportService orderExportService,
+                           OrderExportJobService orderExportJobService,
+                           OrderArchiveService orderArchiveService) {
         this.orderService = orderService;
         this.userService = userService;
+        this.salesRollupService = salesRollupService;
+        this.orderExportService = orderExportService;
+        this.orderExportJobService = orderExportJobService;
+        this.orderArchiveService = orderArchiveService;
     }
     
     /**
@@ -56,6 +82,30 @@ public class OrderController {
             return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            // Not enough stock for at least one item; nothing was reserved
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Internal server error", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
+    /**
+     * Create orders in bulk, e.g. from marketplace feeds.
+     * @param orderRequests Order creation requests
+     * @return ResponseEntity with a per-order success/failure result for every request
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createOrdersBulk(@Valid @RequestBody List<OrderCreateRequest> orderRequests) {
+        if (orderRequests == null || orderRequests.isEmpty()) {
+            return new ResponseEntity<>("Request must contain at least one order", HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<Order> drafts = orderRequests.stream()
+                    .map(this::toDraftOrder)
+                    .collect(Collectors.toList());
+            List<OrderIngestResult> results = orderService.createOrders(drafts);
+            return new ResponseEntity<>(results, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>("Internal server error", HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -107,6 +157,36 @@ public class OrderController {
         }
     }
     
+    /**
+     * Get orders for a user with cursor-based (keyset) pagination, newest first.
+     * @param userId User ID
+     * @param cursor Continuation token from the previous response; omit for the first page
+     * @param size Page size
+     * @return ResponseEntity with the page of orders and the next cursor
+     */
+    @GetMapping("/user/{userId}/seek")
+    public ResponseEntity<?> getUserOrdersByCursor(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        if (size < 1) {
+            return new ResponseEntity<>("Page size must be at least 1", HttpStatus.BAD_REQUEST);
+        }
+        try {
+            // This would typically validate user exists and authorization
+            User user = new User(); // Placeholder - would fetch actual user
+            user.setId(userId);
+            
+            CursorPage<Order> orders = orderService.getOrdersByUser(user, cursor, size);
+            return new ResponseEntity<>(orders, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error fetching orders", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
     /**
      * Get orders by status.
      * @param status Order status
@@ -138,6 +218,96 @@ public class OrderController {
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
     
+    /**
+     * Stream all orders within a date range as NDJSON or CSV.
+     * Rows are written as they are read, so heap use does not depend on the range.
+     * @param startDate Start date
+     * @param endDate End date
+     * @param format Output format (ndjson or csv)
+     * @param gzip Whether to gzip-compress the response
+     * @return ResponseEntity streaming the export as a file attachment
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        
+        OrderExportFormat exportFormat;
+        try {
+            exportFormat = OrderExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        
+        StreamingResponseBody body = out ->
+                orderExportService.exportOrders(startDate, endDate, exportFormat, gzip, out);
+        String fileName = "orders." + exportFormat.getFileExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+    
+    /**
+     * Start a background export of orders within a date range to a local file.
+     * @param startDate Start date
+     * @param endDate End date
+     * @param format Output format (ndjson or csv)
+     * @param gzip Whether to gzip-compress the file
+     * @return ResponseEntity with the queued export job
+     */
+    @PostMapping("/export/jobs")
+    public ResponseEntity<?> startExportJob(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        try {
+            OrderExportJob job = orderExportJobService.submit(
+                    startDate, endDate, OrderExportFormat.fromParameter(format), gzip);
+            return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * Get the status of a background export.
+     * @param jobId Export job ID
+     * @return ResponseEntity with the job or 404
+     */
+    @GetMapping("/export/jobs/{jobId}")
+    public ResponseEntity<OrderExportJob> getExportJob(@PathVariable String jobId) {
+        return orderExportJobService.findJob(jobId)
+                .map(job -> new ResponseEntity<>(job, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+    
+    /**
+     * Download the file produced by a completed background export.
+     * @param jobId Export job ID
+     * @return ResponseEntity with the file, 409 if the job has not completed, or 404
+     */
+    @GetMapping("/export/jobs/{jobId}/download")
+    public ResponseEntity<?> downloadExport(@PathVariable String jobId) {
+        Optional<OrderExportJob> jobOpt = orderExportJobService.findJob(jobId);
+        if (!jobOpt.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        OrderExportJob job = jobOpt.get();
+        if (job.getStatus() != OrderExportJob.Status.COMPLETED) {
+            return new ResponseEntity<>("Export is " + job.getStatus(), HttpStatus.CONFLICT);
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.getFileName() + "\"")
+                .contentType(job.isGzip() ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(job.getFormat().getContentType()))
+                .body(new FileSystemResource(job.getFile()));
+    }
+    
     /**
      * Confirm an order.
      * @param orderId Order ID
@@ -183,6 +353,31 @@ public class OrderController {
         }
     }
     
+    /**
+     * Move many orders from one status to another.
+     * @param transitionRequest Order IDs with the expected and target status
+     * @return ResponseEntity with how many orders were transitioned
+     */
+    @PutMapping("/status/bulk")
+    public ResponseEntity<?> transitionOrders(@RequestBody BulkTransitionRequest transitionRequest) {
+        if (transitionRequest.getOrderIds() == null || transitionRequest.getOrderIds().isEmpty()) {
+            return new ResponseEntity<>("Request must contain at least one order ID", HttpStatus.BAD_REQUEST);
+        }
+        if (transitionRequest.getFromStatus() == null || transitionRequest.getToStatus() == null) {
+            return new ResponseEntity<>("Both fromStatus and toStatus are required", HttpStatus.BAD_REQUEST);
+        }
+        try {
+            Order.OrderStatus fromStatus = Order.OrderStatus.valueOf(transitionRequest.getFromStatus().toUpperCase());
+            Order.OrderStatus toStatus = Order.OrderStatus.valueOf(transitionRequest.getToStatus().toUpperCase());
+            BulkTransitionResult result = orderService.transitionOrders(
+                    transitionRequest.getOrderIds(), fromStatus, toStatus);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>("Invalid status transition: " + transitionRequest.getFromStatus()
+                    + " -> " + transitionRequest.getToStatus(), HttpStatus.BAD_REQUEST);
+        }
+    }
+    
     /**
      * Get sales report for a time period.
      * @param startDate Start date
@@ -194,21 +389,34 @@ public class OrderController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
-        BigDecimal totalSales = orderService.calculateTotalSales(startDate, endDate);
-        List<Order> orders = orderService.getOrdersByDateRange(startDate, endDate);
-        
-        SalesReport report = new SalesReport();
-        report.setStartDate(startDate);
-        report.setEndDate(endDate);
-        report.setTotalSales(totalSales);
-        report.setOrderCount(orders.size());
-        report.setAverageOrderValue(
-                orders.size() > 0 ? totalSales.divide(BigDecimal.valueOf(orders.size())) : BigDecimal.ZERO
-        );
-        
+        SalesReport report = orderService.getSalesReport(startDate, endDate);
         return new ResponseEntity<>(report, HttpStatus.OK);
     }
     
+    /**
+     * Rebuild the daily sales rollup from historical orders.
+     * @return ResponseEntity with the number of days rebuilt
+     */
+    @PostMapping("/sales-rollup/rebuild")
+    public ResponseEntity<String> rebuildSalesRollup() {
+        int days = salesRollupService.rebuild();
+        return new ResponseEntity<>("Sales rollup rebuilt for " + days + " days", HttpStatus.OK);
+    }
+    
+    /**
+     * Move historical orders in a final status to the archive tables.
+     * @return ResponseEntity with the number of orders archived
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<String> archiveOrders() {
+        try {
+            long archived = orderArchiveService.archiveOrders();
+            return new ResponseEntity<>("Archived " + archived + " orders", HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        }
+    }
+    
     /**
      * Get orders needing attention.
      * @param hoursThreshold Hours threshold for pending orders
@@ -241,6 +449,18 @@ public class OrderController {
         return new ResponseEntity<>(recentOrders, HttpStatus.OK);
     }
     
+    private Order toDraftOrder(OrderCreateRequest orderRequest) {
+        User user = new User(); // Placeholder - only the ID is used for lookup
+        user.setId(orderRequest.getUserId());
+        
+        Order draft = new Order();
+        draft.setUser(user);
+        draft.setOrderItems(orderRequest.getOrderItems());
+        draft.setShippingAddress(orderRequest.getShippingAddress());
+        draft.setBillingAddress(orderRequest.getBillingAddress());
+        return draft;
+    }
+    
     // Inner classes for request/response DTOs
     
     public static class OrderCreateRequest {
@@ -263,27 +483,19 @@ public class OrderController {
         public void setBillingAddress(String billingAddress) { this.billingAddress = billingAddress; }
     }
     
-    public static class SalesReport {
-        private LocalDateTime startDate;
-        private LocalDateTime endDate;
-        private BigDecimal totalSales;
-        private int orderCount;
-        private BigDecimal averageOrderValue;
+    public static class BulkTransitionRequest {
+        private List<Long> orderIds;
+        private String fromStatus;
+        private String toStatus;
         
         // Getters and setters
-        public LocalDateTime getStartDate() { return startDate; }
-        public void setStartDate(LocalDateTime startDate) { this.startDate = startDate; }
-        
-        public LocalDateTime getEndDate() { return endDate; }
-        public void setEndDate(LocalDateTime endDate) { this.endDate = endDate; }
-        
-        public BigDecimal getTotalSales() { return totalSales; }
-        public void setTotalSales(BigDecimal totalSales) { this.totalSales = totalSales; }
+        public List<Long> getOrderIds() { return orderIds; }
+        public void setOrderIds(List<Long> orderIds) { this.orderIds = orderIds; }
         
-        public int getOrderCount() { return orderCount; }
-        public void setOrderCount(int orderCount) { this.orderCount = orderCount; }
+        public String getFromStatus() { return fromStatus; }
+        public void setFromStatus(String fromStatus) { this.fromStatus = fromStatus; }
         
-        public BigDecimal getAverageOrderValue() { return averageOrderValue; }
-        public void setAverageOrderValue(BigDecimal averageOrderValue) { this.averageOrderValue = averageOrderValue; }
+        public String getToStatus() { return toStatus; }
+        public void setToStatus(String toStatus) { this.toStatus = toStatus; }
     }
 }
\ No newline at end of file
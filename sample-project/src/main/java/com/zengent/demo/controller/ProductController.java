@@ -2,8 +2,13 @@ package com.zengent.demo.controller;
 
 import com.zengent.demo.model.Product;
 import com.zengent.demo.model.Category;
+import com.zengent.demo.model.StockHold;
 import com.zengent.demo.service.ProductService;
+import com.zengent.demo.dto.BulkStockResult;
 import com.zengent.demo.dto.ProductDto;
+import com.zengent.demo.dto.ProductSearchResponse;
+import com.zengent.demo.dto.ProductSuggestion;
+import com.zengent.demo.dto.StockAdjustment;
 import com.zengent.demo.mapper.ProductMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,8 +24,11 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST Controller for Product management operations.
@@ -85,12 +93,25 @@ public class ProductController {
     
     @Operation(summary = "Search products", description = "Search products by name, description, or SKU")
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductDto>> searchProducts(
+    public ResponseEntity<?> searchProducts(
             @Parameter(description = "Search term") @RequestParam String q,
+            @Parameter(description = "Also match terms with small typos") @RequestParam(defaultValue = "false") boolean fuzzy,
+            @Parameter(description = "Also count all matches by category, price, stock and rating") @RequestParam(defaultValue = "false") boolean facets,
             @PageableDefault(size = 20) Pageable pageable) {
-        Page<Product> products = productService.searchProducts(q, pageable);
+        Page<Product> products = productService.searchProducts(q, fuzzy, pageable);
         Page<ProductDto> productDtos = products.map(productMapper::toDto);
-        return ResponseEntity.ok(productDtos);
+        if (!facets) {
+            return ResponseEntity.ok(productDtos);
+        }
+        return ResponseEntity.ok(new ProductSearchResponse(productDtos, productService.countSearchFacets(q, fuzzy)));
+    }
+    
+    @Operation(summary = "Suggest products", description = "Autocomplete product names and SKUs by prefix, most popular first")
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @Parameter(description = "Typed prefix") @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions") @RequestParam(defaultValue = "10") @Min(1) int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(q, limit));
     }
     
     @Operation(summary = "Get products by category", description = "Retrieve products belonging to a specific category")
@@ -114,6 +135,26 @@ public class ProductController {
         return ResponseEntity.ok(productDtos);
     }
     
+    @Operation(summary = "Get cheapest products", description = "Retrieve the lowest-priced active products")
+    @GetMapping("/cheapest")
+    public ResponseEntity<List<ProductDto>> getCheapestProducts(
+            @Parameter(description = "Number of products") @RequestParam(defaultValue = "5") @Min(1) int limit) {
+        List<ProductDto> productDtos = productService.getCheapestProducts(limit).stream()
+                .map(productMapper::toDto)
+                .toList();
+        return ResponseEntity.ok(productDtos);
+    }
+    
+    @Operation(summary = "Get most expensive products", description = "Retrieve the highest-priced active products")
+    @GetMapping("/most-expensive")
+    public ResponseEntity<List<ProductDto>> getMostExpensiveProducts(
+            @Parameter(description = "Number of products") @RequestParam(defaultValue = "5") @Min(1) int limit) {
+        List<ProductDto> productDtos = productService.getMostExpensiveProducts(limit).stream()
+                .map(productMapper::toDto)
+                .toList();
+        return ResponseEntity.ok(productDtos);
+    }
+    
     @Operation(summary = "Update product stock", description = "Update the stock quantity of a product")
     @PatchMapping("/{id}/stock")
     public ResponseEntity<Void> updateStock(
@@ -123,6 +164,70 @@ public class ProductController {
         return ResponseEntity.ok().build();
     }
     
+    @Operation(summary = "Bulk adjust stock", description = "Apply stock deltas for many products in one request")
+    @PatchMapping("/stock")
+    public ResponseEntity<BulkStockResult> adjustStock(
+            @Valid @RequestBody @NotEmpty List<@Valid StockAdjustment> adjustments) {
+        try {
+            return ResponseEntity.ok(productService.adjustStock(adjustments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @Operation(summary = "Get available stock", description = "Get a product's stock, including unflushed hot-mode shards")
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<Long> getAvailableStock(
+            @Parameter(description = "Product ID") @PathVariable @Min(1) Long id) {
+        return ResponseEntity.ok(productService.getAvailableStock(id));
+    }
+    
+    @Operation(summary = "Enable hot stock mode", description = "Spread a product's stock updates over counter shards")
+    @PutMapping("/{id}/hot-stock")
+    public ResponseEntity<Void> enableHotStock(
+            @Parameter(description = "Product ID") @PathVariable @Min(1) Long id,
+            @Parameter(description = "Number of counter shards") @RequestParam(defaultValue = "8") int shards) {
+        productService.enableHotStock(id, shards);
+        return ResponseEntity.ok().build();
+    }
+    
+    @Operation(summary = "Disable hot stock mode", description = "Fold a product's counter shards back into its stock")
+    @DeleteMapping("/{id}/hot-stock")
+    public ResponseEntity<Void> disableHotStock(
+            @Parameter(description = "Product ID") @PathVariable @Min(1) Long id) {
+        productService.disableHotStock(id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @Operation(summary = "Place stock hold", description = "Hold stock for a checkout until it is confirmed, released or expires")
+    @PostMapping("/{id}/holds")
+    public ResponseEntity<StockHold> placeStockHold(
+            @Parameter(description = "Product ID") @PathVariable @Min(1) Long id,
+            @Parameter(description = "Quantity to hold") @RequestParam @Min(1) int quantity,
+            @Parameter(description = "Hold duration in seconds") @RequestParam(required = false) @Min(1) Long ttlSeconds) {
+        Duration ttl = ttlSeconds != null ? Duration.ofSeconds(ttlSeconds) : null;
+        StockHold hold = productService.placeStockHold(id, quantity, ttl);
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+    
+    @Operation(summary = "Confirm stock hold", description = "Keep the held stock taken")
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<Void> confirmStockHold(
+            @Parameter(description = "Hold ID") @PathVariable @Min(1) Long holdId) {
+        return productService.confirmStockHold(holdId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+    
+    @Operation(summary = "Release stock hold", description = "Return the held stock to the product")
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseStockHold(
+            @Parameter(description = "Hold ID") @PathVariable @Min(1) Long holdId) {
+        return productService.releaseStockHold(holdId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+    
     @Operation(summary = "Get featured products", description = "Retrieve featured products for homepage display")
     @GetMapping("/featured")
     public ResponseEntity<List<ProductDto>> getFeaturedProducts() {
@@ -158,4 +263,10 @@ public class ProductController {
         BigDecimal value = productService.calculateTotalInventoryValue();
         return ResponseEntity.ok(value);
     }
+    
+    @Operation(summary = "Get inventory value by category", description = "Inventory value per category ID (0 for uncategorized)")
+    @GetMapping("/inventory-value/categories")
+    public ResponseEntity<Map<Long, BigDecimal>> getInventoryValueByCategory() {
+        return ResponseEntity.ok(productService.getInventoryValueByCategory());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.zengent.demo.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk stock adjustment.
+ * Deltas for the same product are summed first; a product is rejected if it does not
+ * exist or its net delta would take its stock below zero.
+ */
+public class BulkStockResult {
+    
+    private int requested;
+    private int products;
+    private int updated;
+    private List<Long> rejectedProductIds;
+    
+    // Constructors
+    public BulkStockResult() {}
+    
+    public BulkStockResult(int requested, int products, int updated, List<Long> rejectedProductIds) {
+        this.requested = requested;
+        this.products = products;
+        this.updated = updated;
+        this.rejectedProductIds = rejectedProductIds;
+    }
+    
+    // Getters and Setters
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+    
+    public int getProducts() { return products; }
+    public void setProducts(int products) { this.products = products; }
+    
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+    
+    public List<Long> getRejectedProductIds() { return rejectedProductIds; }
+    public void setRejectedProductIds(List<Long> rejectedProductIds) { this.rejectedProductIds = rejectedProductIds; }
+}
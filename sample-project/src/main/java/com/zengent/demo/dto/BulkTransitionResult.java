@@ -0,0 +1,41 @@
+package com.zengent.demo.dto;
+
+import com.zengent.demo.model.Order;
+
+/**
+ * Outcome of a bulk order status transition.
+ * Orders not in the expected status are skipped rather than failing the request.
+ */
+public class BulkTransitionResult {
+    
+    private Order.OrderStatus fromStatus;
+    private Order.OrderStatus toStatus;
+    private int requested;
+    private int transitioned;
+    
+    // Constructors
+    public BulkTransitionResult() {}
+    
+    public BulkTransitionResult(Order.OrderStatus fromStatus, Order.OrderStatus toStatus,
+                                int requested, int transitioned) {
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.requested = requested;
+        this.transitioned = transitioned;
+    }
+    
+    // Getters and Setters
+    public Order.OrderStatus getFromStatus() { return fromStatus; }
+    public void setFromStatus(Order.OrderStatus fromStatus) { this.fromStatus = fromStatus; }
+    
+    public Order.OrderStatus getToStatus() { return toStatus; }
+    public void setToStatus(Order.OrderStatus toStatus) { this.toStatus = toStatus; }
+    
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+    
+    public int getTransitioned() { return transitioned; }
+    public void setTransitioned(int transitioned) { this.transitioned = transitioned; }
+    
+    public int getSkipped() { return requested - transitioned; }
+}
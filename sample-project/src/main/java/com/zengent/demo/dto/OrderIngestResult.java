@@ -0,0 +1,50 @@
+package com.zengent.demo.dto;
+
+/**
+ * Outcome of a single order within a bulk ingest request.
+ * Demonstrates per-item result reporting for batch APIs.
+ */
+public class OrderIngestResult {
+    
+    private int index;
+    private boolean success;
+    private Long orderId;
+    private String orderNumber;
+    private String error;
+    
+    // Constructors
+    public OrderIngestResult() {}
+    
+    public static OrderIngestResult succeeded(int index, Long orderId, String orderNumber) {
+        OrderIngestResult result = new OrderIngestResult();
+        result.index = index;
+        result.success = true;
+        result.orderId = orderId;
+        result.orderNumber = orderNumber;
+        return result;
+    }
+    
+    public static OrderIngestResult failed(int index, String error) {
+        OrderIngestResult result = new OrderIngestResult();
+        result.index = index;
+        result.success = false;
+        result.error = error;
+        return result;
+    }
+    
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+    
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,30 @@
+package com.zengent.demo.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+/**
+ * A page of product search results with the facet counts of all matching products.
+ * Facets map a facet name (category, price, inStock, rating) to counts per value.
+ */
+public class ProductSearchResponse {
+    
+    private Page<ProductDto> results;
+    private Map<String, Map<String, Long>> facets;
+    
+    // Constructors
+    public ProductSearchResponse() {}
+    
+    public ProductSearchResponse(Page<ProductDto> results, Map<String, Map<String, Long>> facets) {
+        this.results = results;
+        this.facets = facets;
+    }
+    
+    // Getters and Setters
+    public Page<ProductDto> getResults() { return results; }
+    public void setResults(Page<ProductDto> results) { this.results = results; }
+    
+    public Map<String, Map<String, Long>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Long>> facets) { this.facets = facets; }
+}
@@ -0,0 +1,25 @@
+package com.zengent.demo.dto;
+
+/**
+ * One autocomplete suggestion: the product and the name or SKU that matched.
+ */
+public class ProductSuggestion {
+    
+    private Long productId;
+    private String text;
+    
+    // Constructors
+    public ProductSuggestion() {}
+    
+    public ProductSuggestion(Long productId, String text) {
+        this.productId = productId;
+        this.text = text;
+    }
+    
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+}
@@ -0,0 +1,70 @@
+package com.zengent.demo.dto;
+
+import com.zengent.demo.model.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Aggregated sales figures for a time period.
+ * Demonstrates report DTOs built from aggregate queries rather than entities.
+ */
+public class SalesReport {
+    
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private BigDecimal totalSales;
+    private long orderCount;
+    private BigDecimal averageOrderValue;
+    private BigDecimal minOrderValue;
+    private BigDecimal maxOrderValue;
+    private Map<Order.OrderStatus, StatusSales> statusBreakdown = new EnumMap<>(Order.OrderStatus.class);
+    
+    // Getters and setters
+    public LocalDateTime getStartDate() { return startDate; }
+    public void setStartDate(LocalDateTime startDate) { this.startDate = startDate; }
+    
+    public LocalDateTime getEndDate() { return endDate; }
+    public void setEndDate(LocalDateTime endDate) { this.endDate = endDate; }
+    
+    public BigDecimal getTotalSales() { return totalSales; }
+    public void setTotalSales(BigDecimal totalSales) { this.totalSales = totalSales; }
+    
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+    
+    public BigDecimal getAverageOrderValue() { return averageOrderValue; }
+    public void setAverageOrderValue(BigDecimal averageOrderValue) { this.averageOrderValue = averageOrderValue; }
+    
+    public BigDecimal getMinOrderValue() { return minOrderValue; }
+    public void setMinOrderValue(BigDecimal minOrderValue) { this.minOrderValue = minOrderValue; }
+    
+    public BigDecimal getMaxOrderValue() { return maxOrderValue; }
+    public void setMaxOrderValue(BigDecimal maxOrderValue) { this.maxOrderValue = maxOrderValue; }
+    
+    public Map<Order.OrderStatus, StatusSales> getStatusBreakdown() { return statusBreakdown; }
+    public void setStatusBreakdown(Map<Order.OrderStatus, StatusSales> statusBreakdown) { this.statusBreakdown = statusBreakdown; }
+    
+    /**
+     * Order count and sales total for a single order status.
+     */
+    public static class StatusSales {
+        private long orderCount;
+        private BigDecimal totalSales;
+        
+        public StatusSales() {}
+        
+        public StatusSales(long orderCount, BigDecimal totalSales) {
+            this.orderCount = orderCount;
+            this.totalSales = totalSales;
+        }
+        
+        public long getOrderCount() { return orderCount; }
+        public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+        
+        public BigDecimal getTotalSales() { return totalSales; }
+        public void setTotalSales(BigDecimal totalSales) { this.totalSales = totalSales; }
+    }
+}
@@ -0,0 +1,31 @@
+package com.zengent.demo.dto;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+/**
+ * One stock delta of a bulk stock adjustment.
+ */
+public class StockAdjustment {
+    
+    @NotNull
+    @Positive
+    private Long productId;
+    
+    private int quantity;
+    
+    // Constructors
+    public StockAdjustment() {}
+    
+    public StockAdjustment(Long productId, int quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+    
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+}
@@ -0,0 +1,103 @@
+package com.zengent.demo.model;
+
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only view of an order moved to the archive table.
+ * Only orders in a final status are archived, so rows never change once written;
+ * they keep the ID and order number they had in the orders table.
+ */
+@Entity
+@Immutable
+@Table(name = "orders_archive", indexes = {
+    @Index(name = "idx_orders_archive_user_date_id", columnList = "user_id, order_date, id"),
+    @Index(name = "idx_orders_archive_order_date", columnList = "order_date")
+})
+public class ArchivedOrder {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "order_number", unique = true, nullable = false)
+    private String orderNumber;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount;
+    
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+    
+    @Enumerated(EnumType.STRING)
+    private Order.OrderStatus status;
+    
+    @Column(name = "shipping_address")
+    private String shippingAddress;
+    
+    @Column(name = "billing_address")
+    private String billingAddress;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    @OneToMany(mappedBy = "order", fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    private List<ArchivedOrderItem> orderItems;
+    
+    // Constructors
+    protected ArchivedOrder() {}
+    
+    /**
+     * Copy this archived order into a detached {@link Order}, so callers can treat
+     * archived and active orders alike.
+     */
+    public Order toOrder() {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderNumber(orderNumber);
+        order.setUser(user);
+        order.setTotalAmount(totalAmount);
+        order.setOrderDate(orderDate);
+        order.setStatus(status);
+        order.setShippingAddress(shippingAddress);
+        order.setBillingAddress(billingAddress);
+        
+        List<OrderItem> items = new ArrayList<>(orderItems.size());
+        for (ArchivedOrderItem archivedItem : orderItems) {
+            items.add(archivedItem.toOrderItem(order));
+        }
+        order.setOrderItems(items);
+        return order;
+    }
+    
+    // Getters
+    public Long getId() { return id; }
+    
+    public String getOrderNumber() { return orderNumber; }
+    
+    public User getUser() { return user; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    
+    public LocalDateTime getOrderDate() { return orderDate; }
+    
+    public Order.OrderStatus getStatus() { return status; }
+    
+    public String getShippingAddress() { return shippingAddress; }
+    
+    public String getBillingAddress() { return billingAddress; }
+    
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    
+    public List<ArchivedOrderItem> getOrderItems() { return orderItems; }
+}
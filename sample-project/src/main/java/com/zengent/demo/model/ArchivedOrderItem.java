@@ -0,0 +1,79 @@
+package com.zengent.demo.model;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Read-only view of an order item moved to the archive table with its order.
+ */
+@Entity
+@Immutable
+@Table(name = "order_items_archive", indexes = {
+    @Index(name = "idx_order_items_archive_order", columnList = "order_id")
+})
+public class ArchivedOrderItem {
+    
+    @Id
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private ArchivedOrder order;
+    
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+    
+    @Column(name = "product_code")
+    private String productCode;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Column(name = "unit_price", nullable = false)
+    private BigDecimal unitPrice;
+    
+    @Column(name = "total_price", nullable = false)
+    private BigDecimal totalPrice;
+    
+    @Column(name = "discount_amount")
+    private BigDecimal discountAmount;
+    
+    // Constructors
+    protected ArchivedOrderItem() {}
+    
+    /**
+     * Copy this archived item into a detached {@link OrderItem} of the given order.
+     */
+    public OrderItem toOrderItem(Order order) {
+        OrderItem item = new OrderItem();
+        item.setId(id);
+        item.setOrder(order);
+        item.setProductName(productName);
+        item.setProductCode(productCode);
+        item.setDiscountAmount(discountAmount);
+        item.setQuantity(quantity);
+        item.setUnitPrice(unitPrice);
+        // Keep the stored total rather than recalculating it
+        item.setTotalPrice(totalPrice);
+        return item;
+    }
+    
+    // Getters
+    public Long getId() { return id; }
+    
+    public ArchivedOrder getOrder() { return order; }
+    
+    public String getProductName() { return productName; }
+    
+    public String getProductCode() { return productCode; }
+    
+    public Integer getQuantity() { return quantity; }
+    
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    
+    public BigDecimal getTotalPrice() { return totalPrice; }
+    
+    public BigDecimal getDiscountAmount() { return discountAmount; }
+}
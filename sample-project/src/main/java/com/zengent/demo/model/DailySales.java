@@ -0,0 +1,54 @@
+package com.zengent.demo.model;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-day sales totals, maintained incrementally as orders are created.
+ * Order amounts and dates never change after creation, so once a day has
+ * ended its row is final and can be cached indefinitely.
+ */
+@Entity
+@Table(name = "daily_sales")
+public class DailySales {
+    
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+    
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+    
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    
+    @Column(name = "min_amount")
+    private BigDecimal minAmount;
+    
+    @Column(name = "max_amount")
+    private BigDecimal maxAmount;
+    
+    // Constructors
+    public DailySales() {}
+    
+    public DailySales(LocalDate salesDate) {
+        this.salesDate = salesDate;
+    }
+    
+    // Getters and Setters
+    public LocalDate getSalesDate() { return salesDate; }
+    public void setSalesDate(LocalDate salesDate) { this.salesDate = salesDate; }
+    
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    
+    public BigDecimal getMinAmount() { return minAmount; }
+    public void setMinAmount(BigDecimal minAmount) { this.minAmount = minAmount; }
+    
+    public BigDecimal getMaxAmount() { return maxAmount; }
+    public void setMaxAmount(BigDecimal maxAmount) { this.maxAmount = maxAmount; }
+}
@@ -0,0 +1,78 @@
+package com.zengent.demo.model;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Per-day, per-status order count and sales total.
+ * Updated in the same transaction as order creation and every status transition,
+ * moving an order's amount from its old status bucket to the new one.
+ */
+@Entity
+@Table(name = "daily_status_sales")
+@IdClass(DailyStatusSales.Key.class)
+public class DailyStatusSales {
+    
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Order.OrderStatus status;
+    
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+    
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    
+    // Constructors
+    public DailyStatusSales() {}
+    
+    // Getters and Setters
+    public LocalDate getSalesDate() { return salesDate; }
+    public void setSalesDate(LocalDate salesDate) { this.salesDate = salesDate; }
+    
+    public Order.OrderStatus getStatus() { return status; }
+    public void setStatus(Order.OrderStatus status) { this.status = status; }
+    
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    
+    /**
+     * Composite primary key of (salesDate, status).
+     */
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private LocalDate salesDate;
+        private Order.OrderStatus status;
+        
+        public Key() {}
+        
+        public Key(LocalDate salesDate, Order.OrderStatus status) {
+            this.salesDate = salesDate;
+            this.status = status;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(salesDate, key.salesDate) && status == key.status;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(salesDate, status);
+        }
+    }
+}
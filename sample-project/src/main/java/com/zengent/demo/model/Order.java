@@ -3,18 +3,27 @@ package com.zengent.demo.model;
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Order entity representing customer orders.
  * Demonstrates complex entity relationships and business logic.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_user_date_id", columnList = "user_id, order_date, id"),
+    @Index(name = "idx_orders_order_date", columnList = "order_date"),
+    @Index(name = "idx_orders_status_date", columnList = "status, order_date")
+})
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "order_number", unique = true, nullable = false)
@@ -42,10 +51,48 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems;
     
+    // Set when the order's stock was reserved; cleared once that stock is released
+    @Column(name = "stock_reserved", nullable = false)
+    private boolean stockReserved;
+    
     public enum OrderStatus {
         PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED, RETURNED
     }
     
+    /**
+     * Allowed status transitions, each with its target and the statuses it may start from.
+     */
+    public enum StatusTransition {
+        CONFIRM(OrderStatus.CONFIRMED, EnumSet.of(OrderStatus.PENDING)),
+        SHIP(OrderStatus.SHIPPED, EnumSet.of(OrderStatus.CONFIRMED)),
+        DELIVER(OrderStatus.DELIVERED, EnumSet.of(OrderStatus.SHIPPED)),
+        CANCEL(OrderStatus.CANCELLED, EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED)),
+        RETURN(OrderStatus.RETURNED, EnumSet.of(OrderStatus.DELIVERED));
+        
+        private final OrderStatus target;
+        private final Set<OrderStatus> allowedFrom;
+        
+        StatusTransition(OrderStatus target, Set<OrderStatus> allowedFrom) {
+            this.target = target;
+            this.allowedFrom = Collections.unmodifiableSet(allowedFrom);
+        }
+        
+        public OrderStatus getTarget() { return target; }
+        public Set<OrderStatus> getAllowedFrom() { return allowedFrom; }
+        
+        /**
+         * Find the transition that moves an order from one status to another.
+         */
+        public static Optional<StatusTransition> between(OrderStatus from, OrderStatus to) {
+            for (StatusTransition transition : values()) {
+                if (transition.target == to && transition.allowedFrom.contains(from)) {
+                    return Optional.of(transition);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+    
     // Constructors
     public Order() {}
     
@@ -71,7 +118,7 @@ public class Order {
     }
     
     public boolean canBeCancelled() {
-        return this.status == OrderStatus.PENDING || this.status == OrderStatus.CONFIRMED;
+        return StatusTransition.CANCEL.getAllowedFrom().contains(this.status);
     }
     
     // Getters and Setters
@@ -101,4 +148,7 @@ public class Order {
     
     public List<OrderItem> getOrderItems() { return orderItems; }
     public void setOrderItems(List<OrderItem> orderItems) { this.orderItems = orderItems; }
+    
+    public boolean isStockReserved() { return stockReserved; }
+    public void setStockReserved(boolean stockReserved) { this.stockReserved = stockReserved; }
 }
\ No newline at end of file
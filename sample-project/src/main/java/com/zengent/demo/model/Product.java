@@ -3,6 +3,7 @@ package com.zengent.demo.model;
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,7 +14,9 @@ import java.util.List;
  */
 @Entity
 @Table(name = "products")
-public class Product {
+public class Product implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -41,7 +44,10 @@ public class Product {
     @JoinColumn(name = "category_id")
     private Category category;
     
-    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
+    // Order items reference products by SKU, not by a foreign key; joining on a non-key
+    // column is why Hibernate needs Product to be Serializable
+    @OneToMany
+    @JoinColumn(name = "product_code", referencedColumnName = "sku", insertable = false, updatable = false)
     private List<OrderItem> orderItems;
     
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
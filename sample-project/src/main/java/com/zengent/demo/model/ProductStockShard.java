@@ -0,0 +1,75 @@
+package com.zengent.demo.model;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One of N counter rows holding not-yet-flushed stock additions for a hot product.
+ * A product's available stock is {@code products.stock_quantity} plus the sum of its
+ * shard deltas; deltas are never negative and are periodically folded into the product.
+ */
+@Entity
+@Table(name = "product_stock_shards")
+@IdClass(ProductStockShard.Key.class)
+public class ProductStockShard {
+    
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+    
+    @Id
+    @Column(name = "shard_no")
+    private int shardNo;
+    
+    @Column(nullable = false)
+    private long delta;
+    
+    // Constructors
+    public ProductStockShard() {}
+    
+    public ProductStockShard(Long productId, int shardNo) {
+        this.productId = productId;
+        this.shardNo = shardNo;
+    }
+    
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public int getShardNo() { return shardNo; }
+    public void setShardNo(int shardNo) { this.shardNo = shardNo; }
+    
+    public long getDelta() { return delta; }
+    public void setDelta(long delta) { this.delta = delta; }
+    
+    /**
+     * Composite primary key of (productId, shardNo).
+     */
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private Long productId;
+        private int shardNo;
+        
+        public Key() {}
+        
+        public Key(Long productId, int shardNo) {
+            this.productId = productId;
+            this.shardNo = shardNo;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(productId, key.productId) && shardNo == key.shardNo;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(productId, shardNo);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.zengent.demo.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Stock taken out of a product for a checkout in progress, returned automatically
+ * if the hold is neither confirmed nor released before it expires.
+ */
+@Entity
+@Table(name = "stock_holds", indexes = {
+    @Index(name = "idx_stock_holds_expires_at", columnList = "expires_at")
+})
+public class StockHold {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_hold_seq")
+    @SequenceGenerator(name = "stock_hold_seq", sequenceName = "stock_hold_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(nullable = false)
+    private int quantity;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public StockHold() {}
+    
+    public StockHold(Long productId, int quantity, LocalDateTime expiresAt) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,134 @@
+package com.zengent.demo.repository;
+
+import com.zengent.demo.model.ArchivedOrder;
+import com.zengent.demo.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for archived orders, and for moving orders into the archive tables.
+ * Queries mirror the date-based queries of {@link OrderRepository}.
+ */
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    
+    /**
+     * Find archived order by order number.
+     * @param orderNumber The order number to search for
+     * @return Optional containing the archived order if found
+     */
+    Optional<ArchivedOrder> findByOrderNumber(String orderNumber);
+    
+    /**
+     * Find archived orders within a date range.
+     * @param startDate Start date
+     * @param endDate End date
+     * @return List of archived orders within the date range
+     */
+    List<ArchivedOrder> findByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    /**
+     * Find archived orders of a user placed on or after a date, newest first.
+     * @param user The user
+     * @param since Earliest order date
+     * @return List of archived orders
+     */
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.user = :user AND o.orderDate >= :since ORDER BY o.orderDate DESC")
+    List<ArchivedOrder> findRecentOrdersByUser(@Param("user") User user, @Param("since") LocalDateTime since);
+    
+    /**
+     * Find the newest archived orders of a user for keyset pagination.
+     * @param user The user whose orders to find
+     * @param pageable Limit only; the sort is fixed to orderDate, id descending
+     * @return Archived orders for the user, newest first
+     */
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.user = :user ORDER BY o.orderDate DESC, o.id DESC")
+    List<ArchivedOrder> findFirstSeekPageByUser(@Param("user") User user, Pageable pageable);
+    
+    /**
+     * Find a user's archived orders strictly older than the given (orderDate, id) position.
+     * @param user The user whose orders to find
+     * @param orderDate Order date of the last order already returned
+     * @param id ID of the last order already returned
+     * @param pageable Limit only; the sort is fixed to orderDate, id descending
+     * @return Archived orders for the user after the position, newest first
+     */
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.user = :user AND " +
+           "(o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<ArchivedOrder> findSeekPageByUserAfter(@Param("user") User user,
+                                                @Param("orderDate") LocalDateTime orderDate,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+    
+    /**
+     * Aggregate archived sales for a time period, grouped by order status.
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Count, total, minimum and maximum order amount per status
+     */
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount, SUM(o.totalAmount) AS totalAmount, " +
+           "MIN(o.totalAmount) AS minAmount, MAX(o.totalAmount) AS maxAmount " +
+           "FROM ArchivedOrder o WHERE o.orderDate BETWEEN :startDate AND :endDate GROUP BY o.status")
+    List<OrderRepository.StatusSalesSummary> summarizeSalesByStatus(@Param("startDate") LocalDateTime startDate,
+                                                                    @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Same as summarizeSalesByStatus, for the half-open range [startDate, endDate).
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (exclusive)
+     * @return Count, total, minimum and maximum order amount per status
+     */
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount, SUM(o.totalAmount) AS totalAmount, " +
+           "MIN(o.totalAmount) AS minAmount, MAX(o.totalAmount) AS maxAmount " +
+           "FROM ArchivedOrder o WHERE o.orderDate >= :startDate AND o.orderDate < :endDate GROUP BY o.status")
+    List<OrderRepository.StatusSalesSummary> summarizeSalesByStatusBefore(@Param("startDate") LocalDateTime startDate,
+                                                                          @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Lock a batch of active orders eligible for archiving.
+     * Uses the (status, order_date) index on the orders table.
+     * @param statuses Final statuses that may be archived
+     * @param cutoff Only orders placed before this date are eligible
+     * @param limit Maximum number of orders to lock
+     * @return IDs of the locked orders
+     */
+    @Query(value = "SELECT o.id FROM orders o WHERE o.status IN (:statuses) AND o.order_date < :cutoff " +
+                   "LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Number> lockArchivableOrderIds(@Param("statuses") Collection<String> statuses,
+                                        @Param("cutoff") LocalDateTime cutoff,
+                                        @Param("limit") int limit);
+    
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (id, order_number, user_id, total_amount, order_date, status, " +
+                   "shipping_address, billing_address, archived_at) " +
+                   "SELECT o.id, o.order_number, o.user_id, o.total_amount, o.order_date, o.status, " +
+                   "o.shipping_address, o.billing_address, CURRENT_TIMESTAMP FROM orders o WHERE o.id IN (:ids)",
+           nativeQuery = true)
+    int copyOrdersToArchive(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive (id, order_id, product_name, product_code, quantity, " +
+                   "unit_price, total_price, discount_amount) " +
+                   "SELECT i.id, i.order_id, i.product_name, i.product_code, i.quantity, " +
+                   "i.unit_price, i.total_price, i.discount_amount FROM order_items i WHERE i.order_id IN (:ids)",
+           nativeQuery = true)
+    int copyOrderItemsToArchive(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteActiveOrderItems(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteActiveOrders(@Param("ids") Collection<Long> ids);
+}
@@ -1,18 +1,25 @@
 package com.zengent.demo.repository;
 
 import com.zengent.demo.model.Order;
+import com.zengent.demo.model.OrderItem;
 import com.zengent.demo.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Order entity operations.
@@ -43,6 +50,31 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Page<Order> findByUser(User user, Pageable pageable);
     
+    /**
+     * Find the newest orders of a user for keyset pagination; no count query is run.
+     * @param user The user whose orders to find
+     * @param pageable Limit only; the sort is fixed to orderDate, id descending
+     * @return Orders for the user, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE o.user = :user ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findFirstSeekPageByUser(@Param("user") User user, Pageable pageable);
+    
+    /**
+     * Find a user's orders strictly older than the given (orderDate, id) position.
+     * @param user The user whose orders to find
+     * @param orderDate Order date of the last order already returned
+     * @param id ID of the last order already returned
+     * @param pageable Limit only; the sort is fixed to orderDate, id descending
+     * @return Orders for the user after the position, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE o.user = :user AND " +
+           "(o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findSeekPageByUserAfter(@Param("user") User user,
+                                        @Param("orderDate") LocalDateTime orderDate,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+    
     /**
      * Find orders by status.
      * @param status The order status to filter by
@@ -58,6 +90,23 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     List<Order> findByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     
+    /**
+     * Stream orders within a date range with their items fetch-joined.
+     * Rows are read through a forward-only cursor in batches of the fetch size;
+     * the caller must consume the stream inside a transaction and close it.
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Stream of orders ordered by ID
+     */
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems " +
+           "WHERE o.orderDate BETWEEN :startDate AND :endDate ORDER BY o.id")
+    Stream<Order> streamByOrderDateBetween(@Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate);
+    
     /**
      * Find orders with total amount greater than specified value.
      * @param amount Minimum total amount
@@ -84,6 +133,31 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     BigDecimal calculateTotalSales(@Param("startDate") LocalDateTime startDate, 
                                   @Param("endDate") LocalDateTime endDate);
     
+    /**
+     * Aggregate sales for a time period in one pass, grouped by order status.
+     * Returns at most one row per status, so memory use does not depend on the range.
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Count, total, minimum and maximum order amount per status
+     */
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount, SUM(o.totalAmount) AS totalAmount, " +
+           "MIN(o.totalAmount) AS minAmount, MAX(o.totalAmount) AS maxAmount " +
+           "FROM Order o WHERE o.orderDate BETWEEN :startDate AND :endDate GROUP BY o.status")
+    List<StatusSalesSummary> summarizeSalesByStatus(@Param("startDate") LocalDateTime startDate,
+                                                    @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Same as summarizeSalesByStatus, for the half-open range [startDate, endDate).
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (exclusive)
+     * @return Count, total, minimum and maximum order amount per status
+     */
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount, SUM(o.totalAmount) AS totalAmount, " +
+           "MIN(o.totalAmount) AS minAmount, MAX(o.totalAmount) AS maxAmount " +
+           "FROM Order o WHERE o.orderDate >= :startDate AND o.orderDate < :endDate GROUP BY o.status")
+    List<StatusSalesSummary> summarizeSalesByStatusBefore(@Param("startDate") LocalDateTime startDate,
+                                                          @Param("endDate") LocalDateTime endDate);
+    
     /**
      * Find top customers by order count.
      * @param limit Number of top customers to return
@@ -101,6 +175,31 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.status = 'PENDING' AND o.orderDate < :threshold")
     List<Order> findOrdersNeedingAttention(@Param("threshold") LocalDateTime threshold);
     
+    /**
+     * Move orders to a new status only if they are currently in the expected status.
+     * The status check and the write happen in one statement, so concurrent
+     * transitions cannot overwrite each other.
+     * @param ids Order IDs
+     * @param expectedStatus Status the orders must currently have
+     * @param newStatus Status to set
+     * @return Number of orders that were transitioned
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus WHERE o.id IN :ids AND o.status = :expectedStatus")
+    int compareAndSetStatus(@Param("ids") Collection<Long> ids,
+                            @Param("expectedStatus") Order.OrderStatus expectedStatus,
+                            @Param("newStatus") Order.OrderStatus newStatus);
+    
+    /**
+     * Lock the orders among the given IDs that are in the given status.
+     * @param ids Order IDs
+     * @param status Status to match
+     * @return Rows of [id, order_date, total_amount]
+     */
+    @Query(value = "SELECT o.id, o.order_date, o.total_amount FROM orders o " +
+                   "WHERE o.id IN (:ids) AND o.status = :status FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") String status);
+    
     /**
      * Count orders by status.
      * @param status The order status
@@ -114,4 +213,82 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @return True if user has orders
      */
     boolean existsByUser(User user);
-}
\ No newline at end of file
+    
+    /**
+     * Check if an order currently has the given status.
+     * @param id The order ID
+     * @param status The status to check for
+     * @return True if the order exists and has that status
+     */
+    boolean existsByIdAndStatus(Long id, Order.OrderStatus status);
+    
+    /**
+     * Find the ID and order date of every order with a status, without loading the orders.
+     * Served by the (status, order_date) index.
+     * @param status The order status
+     * @return ID and order date of each matching order
+     */
+    @Query("SELECT o.id AS id, o.orderDate AS orderDate FROM Order o WHERE o.status = :status")
+    List<OrderTimestamp> findTimestampsByStatus(@Param("status") Order.OrderStatus status);
+    
+    /**
+     * Find the items of an order without loading the order itself.
+     * @param orderId The order ID
+     * @return Items of the order
+     */
+    @Query("SELECT i FROM OrderItem i WHERE i.order.id = :orderId")
+    List<OrderItem> findItemsByOrderId(@Param("orderId") Long orderId);
+    
+    /**
+     * Find the items of several orders without loading the orders themselves.
+     * @param orderIds The order IDs
+     * @return Items of the orders
+     */
+    @Query("SELECT i FROM OrderItem i WHERE i.order.id IN :orderIds")
+    List<OrderItem> findItemsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+    
+    /**
+     * Find the items of those of the given orders that still hold reserved stock.
+     * @param orderIds The order IDs
+     * @return Items of the orders whose stock is reserved
+     */
+    @Query("SELECT i FROM OrderItem i WHERE i.order.id IN :orderIds AND i.order.stockReserved = true")
+    List<OrderItem> findReservedItemsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+    
+    /**
+     * Mark orders as no longer holding reserved stock.
+     * @param orderIds The order IDs
+     * @return Number of orders that were marked as reserved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.stockReserved = false WHERE o.id IN :orderIds AND o.stockReserved = true")
+    int clearStockReserved(@Param("orderIds") Collection<Long> orderIds);
+    
+    /**
+     * Total quantity ordered per product code, over orders that were neither cancelled nor returned.
+     * @return Rows of [productCode, quantity]
+     */
+    @Query("SELECT i.productCode, SUM(i.quantity) FROM OrderItem i " +
+           "WHERE i.productCode IS NOT NULL AND i.order.status NOT IN ('CANCELLED', 'RETURNED') " +
+           "GROUP BY i.productCode")
+    List<Object[]> sumQuantityByProductCode();
+    
+    /**
+     * Projection of per-status sales aggregates.
+     */
+    interface StatusSalesSummary {
+        Order.OrderStatus getStatus();
+        Long getOrderCount();
+        BigDecimal getTotalAmount();
+        BigDecimal getMinAmount();
+        BigDecimal getMaxAmount();
+    }
+    
+    /**
+     * Projection of an order's ID and order date.
+     */
+    interface OrderTimestamp {
+        Long getId();
+        LocalDateTime getOrderDate();
+    }
+}
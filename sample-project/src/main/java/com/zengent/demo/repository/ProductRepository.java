@@ -5,12 +5,18 @@ import com.zengent.demo.model.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Product entity operations.
@@ -22,8 +28,13 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Basic finder methods
     boolean existsBySku(String sku);
     
+    @Query("SELECT p.id, p.sku FROM Product p WHERE p.sku IS NOT NULL AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSkusAfter(@Param("afterId") long afterId, Pageable pageable);
+    
     List<Product> findByIsActiveTrue();
     
+    Page<Product> findByIsActiveTrue(Pageable pageable);
+    
     Page<Product> findByCategoryAndIsActiveTrue(Category category, Pageable pageable);
     
     // Search methods
@@ -37,11 +48,55 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     List<Product> findByPriceLessThanAndIsActiveTrue(BigDecimal price);
     
+    @Query("SELECT p.id, p.price FROM Product p WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findActivePricesAfter(@Param("afterId") long afterId, Pageable pageable);
+    
     // Stock management
     List<Product> findByStockQuantityLessThanAndIsActiveTrue(int threshold);
     
     List<Product> findByStockQuantityGreaterThanAndIsActiveTrue(int threshold);
     
+    /**
+     * Stock of active products at or below a level, including stock not yet flushed from their shards.
+     * @return Rows of [productId, stock]
+     */
+    @Query(value = "SELECT p.id, p.stock_quantity + COALESCE(s.delta, 0) " +
+                   "FROM products p LEFT JOIN (SELECT product_id, SUM(delta) AS delta FROM product_stock_shards " +
+                   "GROUP BY product_id) s ON s.product_id = p.id " +
+                   "WHERE p.is_active = TRUE AND p.stock_quantity + COALESCE(s.delta, 0) <= :maxStock",
+           nativeQuery = true)
+    List<Object[]> findActiveStockLevelsUpTo(@Param("maxStock") int maxStock);
+    
+    /**
+     * Active products with stock below a threshold, including stock not yet flushed from their shards.
+     */
+    @Query(value = "SELECT p.* FROM products p LEFT JOIN (SELECT product_id, SUM(delta) AS delta " +
+                   "FROM product_stock_shards GROUP BY product_id) s ON s.product_id = p.id " +
+                   "WHERE p.is_active = TRUE AND p.stock_quantity + COALESCE(s.delta, 0) < :threshold",
+           nativeQuery = true)
+    List<Product> findActiveWithAvailableStockBelow(@Param("threshold") int threshold);
+    
+    // Atomic stock updates; the availability check and the write happen in one statement
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity " +
+           "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = COALESCE(p.stockQuantity, 0) + :quantity WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Integer findStockQuantityById(@Param("id") Long id);
+    
+    @Query("SELECT p.sku, p.id FROM Product p WHERE p.sku IN :skus")
+    List<Object[]> findIdsBySkuIn(@Param("skus") Collection<String> skus);
+    
+    // Locks the rows in primary key order so concurrent multi-product updates cannot deadlock
+    @Query(value = "SELECT id, stock_quantity FROM products WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+           nativeQuery = true)
+    List<Object[]> lockStockByIdIn(@Param("ids") Collection<Long> ids);
+    
     // Featured and popular products
     List<Product> findTop10ByIsActiveTrueOrderByCreatedAtDesc();
     
@@ -57,9 +112,47 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
            "(p.name LIKE %:searchTerm% OR p.description LIKE %:searchTerm% OR p.sku LIKE %:searchTerm%)")
     Page<Product> findBySearchTerm(@Param("searchTerm") String searchTerm, Pageable pageable);
     
+    @Query("SELECT p.id FROM Product p WHERE p.isActive = true AND " +
+           "(p.name LIKE %:searchTerm% OR p.description LIKE %:searchTerm% OR p.sku LIKE %:searchTerm%)")
+    List<Long> findIdsBySearchTerm(@Param("searchTerm") String searchTerm);
+    
+    // Searchable fields of active products in ID order, for building in-memory search structures
+    @Query("SELECT p.id, p.name, p.description, p.sku FROM Product p " +
+           "WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSearchFieldsAfter(@Param("afterId") long afterId, Pageable pageable);
+    
     @Query("SELECT SUM(p.price * p.stockQuantity) FROM Product p WHERE p.isActive = true")
     BigDecimal calculateTotalInventoryValue();
     
+    /**
+     * Full-scan inventory value of active products per category, including stock held in
+     * hot-mode shards. Used to reconcile the running valuation.
+     * @return Rows of [categoryId or null, value]
+     */
+    @Query(value = "SELECT p.category_id, SUM(p.price * (COALESCE(p.stock_quantity, 0) + COALESCE(s.delta, 0))) " +
+                   "FROM products p LEFT JOIN (SELECT product_id, SUM(delta) AS delta FROM product_stock_shards " +
+                   "GROUP BY product_id) s ON s.product_id = p.id " +
+                   "WHERE p.is_active = true GROUP BY p.category_id", nativeQuery = true)
+    List<Object[]> sumInventoryValueByCategory();
+    
+    /**
+     * Stock of every product, including stock not yet flushed from its shards.
+     * @return Rows of [productId, stock]
+     */
+    @Query(value = "SELECT p.id, COALESCE(p.stock_quantity, 0) + COALESCE(s.delta, 0) " +
+                   "FROM products p LEFT JOIN (SELECT product_id, SUM(delta) AS delta FROM product_stock_shards " +
+                   "GROUP BY product_id) s ON s.product_id = p.id", nativeQuery = true)
+    List<Object[]> findAllStockLevels();
+    
+    /**
+     * Read the stored price, stock, category and active flag of a product, ignoring
+     * unflushed changes to the product in the current persistence context.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT p.price AS price, p.stockQuantity AS stockQuantity, c.id AS categoryId, p.isActive AS isActive " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.id = :id")
+    Optional<StoredState> findStoredStateById(@Param("id") Long id);
+    
     @Query("SELECT COUNT(p) FROM Product p WHERE p.category = :category AND p.isActive = true")
     long countActiveProductsByCategory(@Param("category") Category category);
     
@@ -67,8 +160,25 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
            "GROUP BY p HAVING AVG(r.rating) >= :minRating ORDER BY AVG(r.rating) DESC")
     List<Product> findHighRatedProducts(@Param("minRating") double minRating);
     
+    @Query("SELECT p.id, c.id, p.price, p.stockQuantity FROM Product p LEFT JOIN p.category c " +
+           "WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findActiveFacetFieldsAfter(@Param("afterId") long afterId, Pageable pageable);
+    
+    @Query("SELECT r.product.id, AVG(r.rating) FROM ProductReview r WHERE r.isApproved = true GROUP BY r.product.id")
+    List<Object[]> findAverageApprovedRatings();
+    
     // Native query example
     @Query(value = "SELECT * FROM products p WHERE p.is_active = true AND " +
                    "p.created_at >= DATE_SUB(NOW(), INTERVAL :days DAY)", nativeQuery = true)
     List<Product> findRecentProducts(@Param("days") int days);
-}
\ No newline at end of file
+    
+    /**
+     * Projection of the product fields that determine its inventory value.
+     */
+    interface StoredState {
+        BigDecimal getPrice();
+        Integer getStockQuantity();
+        Long getCategoryId();
+        Boolean getIsActive();
+    }
+}
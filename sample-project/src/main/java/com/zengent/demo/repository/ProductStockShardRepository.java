@@ -0,0 +1,75 @@
+package com.zengent.demo.repository;
+
+import com.zengent.demo.model.ProductStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+/**
+ * Repository for the stock counter shards of hot products.
+ */
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, ProductStockShard.Key> {
+    
+    /**
+     * Add to one shard of a product; only that shard row is locked.
+     * @return 1 if the shard exists, 0 if the product is not in hot mode
+     */
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.delta = s.delta + :quantity " +
+           "WHERE s.productId = :productId AND s.shardNo = :shardNo")
+    int addToShard(@Param("productId") Long productId, @Param("shardNo") int shardNo,
+                   @Param("quantity") long quantity);
+    
+    /**
+     * Take from one shard of a product if that shard holds enough.
+     * @return 1 if the quantity was taken, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.delta = s.delta - :quantity " +
+           "WHERE s.productId = :productId AND s.shardNo = :shardNo AND s.delta >= :quantity")
+    int takeFromShard(@Param("productId") Long productId, @Param("shardNo") int shardNo,
+                      @Param("quantity") long quantity);
+    
+    /**
+     * Shards of a product holding at least the quantity, in shard order. Does not lock.
+     */
+    @Query("SELECT s.shardNo FROM ProductStockShard s " +
+           "WHERE s.productId = :productId AND s.delta >= :quantity ORDER BY s.shardNo")
+    List<Integer> findShardNosWithAtLeast(@Param("productId") Long productId, @Param("quantity") long quantity);
+    
+    /**
+     * Lock all shards of a product, in shard order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductStockShard s WHERE s.productId = :productId ORDER BY s.shardNo")
+    List<ProductStockShard> lockByProductId(@Param("productId") Long productId);
+    
+    /**
+     * Lock the shards of a product from the given shard on, in shard order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductStockShard s WHERE s.productId = :productId AND s.shardNo >= :shardNo " +
+           "ORDER BY s.shardNo")
+    List<ProductStockShard> lockByProductIdFrom(@Param("productId") Long productId, @Param("shardNo") int shardNo);
+    
+    @Query("SELECT COALESCE(SUM(s.delta), 0) FROM ProductStockShard s WHERE s.productId = :productId")
+    long sumDeltaByProductId(@Param("productId") Long productId);
+    
+    /**
+     * Shard count of every product in hot mode.
+     * @return Rows of [productId, shard count]
+     */
+    @Query("SELECT s.productId, COUNT(s) FROM ProductStockShard s GROUP BY s.productId")
+    List<Object[]> countShardsByProduct();
+    
+    @Modifying
+    @Query("DELETE FROM ProductStockShard s WHERE s.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
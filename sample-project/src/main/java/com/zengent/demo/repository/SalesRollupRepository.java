@@ -0,0 +1,133 @@
+package com.zengent.demo.repository;
+
+import com.zengent.demo.model.DailySales;
+import com.zengent.demo.model.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for the daily sales rollup tables.
+ * Writes are atomic MySQL upserts so concurrent order transactions never lose an increment.
+ */
+@Repository
+public interface SalesRollupRepository extends JpaRepository<DailySales, LocalDate> {
+    
+    /**
+     * Find the day rows within a date range.
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @return Day rows that have at least one order
+     */
+    List<DailySales> findBySalesDateBetween(LocalDate startDate, LocalDate endDate);
+    
+    /**
+     * Sum the per-status rollup over a date range.
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @return Order count and total per status
+     */
+    @Query("SELECT s.status AS status, SUM(s.orderCount) AS orderCount, SUM(s.totalAmount) AS totalAmount " +
+           "FROM DailyStatusSales s WHERE s.salesDate BETWEEN :startDate AND :endDate GROUP BY s.status")
+    List<StatusTotals> sumByStatus(@Param("startDate") LocalDate startDate,
+                                   @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Add newly created orders to a day's totals.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales (sales_date, order_count, total_amount, min_amount, max_amount) " +
+                   "VALUES (:salesDate, :orderCount, :totalAmount, :minAmount, :maxAmount) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+                   "total_amount = total_amount + VALUES(total_amount), " +
+                   "min_amount = LEAST(COALESCE(min_amount, VALUES(min_amount)), VALUES(min_amount)), " +
+                   "max_amount = GREATEST(COALESCE(max_amount, VALUES(max_amount)), VALUES(max_amount))",
+           nativeQuery = true)
+    void addToDay(@Param("salesDate") LocalDate salesDate,
+                  @Param("orderCount") long orderCount,
+                  @Param("totalAmount") BigDecimal totalAmount,
+                  @Param("minAmount") BigDecimal minAmount,
+                  @Param("maxAmount") BigDecimal maxAmount);
+    
+    /**
+     * Add a (possibly negative) delta to a day's per-status totals.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_status_sales (sales_date, status, order_count, total_amount) " +
+                   "VALUES (:salesDate, :status, :orderCount, :totalAmount) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+                   "total_amount = total_amount + VALUES(total_amount)",
+           nativeQuery = true)
+    void addToDayStatus(@Param("salesDate") LocalDate salesDate,
+                        @Param("status") String status,
+                        @Param("orderCount") long orderCount,
+                        @Param("totalAmount") BigDecimal totalAmount);
+    
+    /**
+     * Add (sign = 1) or remove (sign = -1) a single order's amount to/from a status bucket,
+     * reading its date and amount directly from the orders table.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_status_sales (sales_date, status, order_count, total_amount) " +
+                   "SELECT DATE(o.order_date), :status, :sign, :sign * o.total_amount FROM orders o " +
+                   "WHERE o.id = :orderId " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+                   "total_amount = total_amount + VALUES(total_amount)",
+           nativeQuery = true)
+    void addOrderToDayStatus(@Param("orderId") Long orderId,
+                             @Param("status") String status,
+                             @Param("sign") int sign);
+    
+    /**
+     * Delete every per-status rollup row, ahead of {@link #rebuildDayStatus()}.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM daily_status_sales", nativeQuery = true)
+    void deleteAllDayStatus();
+    
+    /**
+     * Delete every day rollup row, ahead of {@link #rebuildDays()}.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM daily_sales", nativeQuery = true)
+    void deleteAllDays();
+    
+    /**
+     * Recompute the day rollup from the active and archived orders.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales (sales_date, order_count, total_amount, min_amount, max_amount) " +
+                   "SELECT DATE(o.order_date), COUNT(*), SUM(o.total_amount), MIN(o.total_amount), MAX(o.total_amount) " +
+                   "FROM (SELECT order_date, total_amount FROM orders " +
+                   "UNION ALL SELECT order_date, total_amount FROM orders_archive) o " +
+                   "GROUP BY DATE(o.order_date)",
+           nativeQuery = true)
+    int rebuildDays();
+    
+    /**
+     * Recompute the per-status rollup from the active and archived orders.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_status_sales (sales_date, status, order_count, total_amount) " +
+                   "SELECT DATE(o.order_date), o.status, COUNT(*), SUM(o.total_amount) " +
+                   "FROM (SELECT order_date, status, total_amount FROM orders " +
+                   "UNION ALL SELECT order_date, status, total_amount FROM orders_archive) o " +
+                   "WHERE o.status IS NOT NULL GROUP BY DATE(o.order_date), o.status",
+           nativeQuery = true)
+    int rebuildDayStatus();
+    
+    /**
+     * Projection of per-status rollup sums.
+     */
+    interface StatusTotals {
+        Order.OrderStatus getStatus();
+        Long getOrderCount();
+        BigDecimal getTotalAmount();
+    }
+}
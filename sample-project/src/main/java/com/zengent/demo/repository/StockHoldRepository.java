@@ -0,0 +1,65 @@
+package com.zengent.demo.repository;
+
+import com.zengent.demo.model.StockHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for stock holds.
+ */
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+    
+    /**
+     * Lock the oldest expired holds, skipping holds locked by another transaction.
+     * Reads the {@code expires_at} index in order, so only due rows are visited.
+     * @param now Holds expiring at or before this time are due
+     * @param limit Maximum number of holds to lock
+     * @return IDs of the locked holds
+     */
+    @Query(value = "SELECT h.id FROM stock_holds h WHERE h.expires_at <= :now " +
+                   "ORDER BY h.expires_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Number> lockExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    /**
+     * Total held quantity per product for the given holds.
+     * @param ids Hold IDs
+     * @return Rows of [productId, quantity]
+     */
+    @Query("SELECT h.productId, SUM(h.quantity) FROM StockHold h WHERE h.id IN :ids GROUP BY h.productId")
+    List<Object[]> sumQuantityByProduct(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Return the quantity of the given holds to their products with one set-based update.
+     * @param ids Locked hold IDs
+     * @return Number of product rows updated
+     */
+    @Modifying
+    @Query(value = "UPDATE products p JOIN (SELECT h.product_id, SUM(h.quantity) AS quantity " +
+                   "FROM stock_holds h WHERE h.id IN (:ids) GROUP BY h.product_id) r ON p.id = r.product_id " +
+                   "SET p.stock_quantity = COALESCE(p.stock_quantity, 0) + r.quantity",
+           nativeQuery = true)
+    int returnHeldStock(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query(value = "DELETE FROM stock_holds WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Delete a hold that has not expired yet.
+     * @param id Hold ID
+     * @param now Current time
+     * @return 1 if the hold was live and is now deleted, 0 otherwise
+     */
+    @Modifying
+    @Query("DELETE FROM StockHold h WHERE h.id = :id AND h.expiresAt > :now")
+    int deleteLiveHold(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
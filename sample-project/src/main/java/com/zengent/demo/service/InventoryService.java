@@ -1,54 +1,272 @@
 package com.zengent.demo.service;
 
 import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher;
+import com.zengent.demo.service.events.StockChangeReason;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
 /**
  * Service for complex inventory management operations.
  * Demonstrates service composition and business logic encapsulation.
+ * <p>
+ * Stock is changed with single conditional UPDATE statements rather than by
+ * modifying a loaded entity, so concurrent reservations cannot oversell or
+ * overwrite each other. The passed-in product is refreshed afterwards.
+ * Products in hot mode keep part of their stock in counter shards, see
+ * {@link StockShardService}.
  */
 @Service
 @Transactional
 public class InventoryService {
     
+    private final ProductRepository productRepository;
+    private final StockShardService stockShardService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductEventPublisher eventPublisher;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    public InventoryService(ProductRepository productRepository, StockShardService stockShardService,
+                            JdbcTemplate jdbcTemplate, ProductEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.stockShardService = stockShardService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+    
     /**
      * Update product stock with business rules validation.
+     * Low-stock alerts are raised from the resulting stock event, see LowStockAlertService.
      */
     public void updateProductStock(Product product, int quantity) {
-        if (quantity < 0 && Math.abs(quantity) > product.getStockQuantity()) {
-            throw new IllegalStateException("Cannot reduce stock below zero");
-        }
-        
-        product.updateStock(quantity);
-        
-        // Additional business logic for stock management
-        if (product.getStockQuantity() <= 5) {
-            // Trigger low stock notification
-            notifyLowStock(product);
+        if (quantity < 0) {
+            if (!decrement(product.getId(), -quantity)) {
+                throw new IllegalStateException("Cannot reduce stock below zero");
+            }
+        } else {
+            increment(product.getId(), quantity);
         }
+        syncStock(product);
     }
     
     /**
      * Reserve stock for pending orders.
+     * Succeeds only if enough stock is left at the moment of the update.
      */
     public boolean reserveStock(Product product, int quantity) {
-        if (product.getStockQuantity() >= quantity) {
-            product.reduceStock(quantity);
-            return true;
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity to reserve must be positive");
+        }
+        if (!decrement(product.getId(), quantity)) {
+            return false;
         }
-        return false;
+        syncStock(product);
+        eventPublisher.publishStockUpdated(product, -quantity, StockChangeReason.RESERVATION);
+        return true;
     }
     
     /**
      * Release reserved stock for cancelled orders.
      */
     public void releaseReservedStock(Product product, int quantity) {
-        product.updateStock(quantity);
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity to release must be positive");
+        }
+        increment(product.getId(), quantity);
+        syncStock(product);
+        eventPublisher.publishStockUpdated(product, quantity, StockChangeReason.RELEASE);
     }
     
-    private void notifyLowStock(Product product) {
-        // Low stock notification logic
-        System.out.println("Low stock alert for product: " + product.getName());
+    /**
+     * Reserve stock for several products at once, e.g. all lines of an order.
+     * Products are locked in ID order and every quantity is checked before the stock of all
+     * of them is reduced with a single UPDATE, so either every product is reserved or none is.
+     * @param quantitiesBySku Quantity to reserve per product SKU
+     * @throws IllegalArgumentException if a SKU does not exist or a quantity is not positive
+     * @throws IllegalStateException if any product has too little stock
+     */
+    public void reserveStockBySku(Map<String, Integer> quantitiesBySku) {
+        Map<String, Long> productIds = resolveProductIds(quantitiesBySku, true);
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> deltas = new TreeMap<>();
+        productIds.forEach((sku, productId) -> deltas.put(productId, -quantitiesBySku.get(sku)));
+        Map<Long, Integer> stock = lockStock(deltas.keySet());
+        
+        List<String> shortages = new ArrayList<>();
+        productIds.forEach((sku, productId) -> {
+            int available = stock.get(productId);
+            int requested = quantitiesBySku.get(sku);
+            if (available < requested) {
+                shortages.add(sku + " (requested " + requested + ", available " + available + ")");
+            }
+        });
+        if (!shortages.isEmpty()) {
+            throw new IllegalStateException("Insufficient stock for " + String.join(", ", shortages));
+        }
+        applyLockedDeltas(deltas, stock);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Return stock of several products at once, e.g. all lines of a cancelled order.
+     * Products are locked in ID order and updated with a single UPDATE; unknown SKUs are skipped.
+     * @param quantitiesBySku Quantity to release per product SKU
+     */
+    public void releaseStockBySku(Map<String, Integer> quantitiesBySku) {
+        Map<String, Long> productIds = resolveProductIds(quantitiesBySku, false);
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> deltas = new TreeMap<>();
+        productIds.forEach((sku, productId) -> deltas.put(productId, quantitiesBySku.get(sku)));
+        applyLockedDeltas(deltas, lockStock(deltas.keySet()));
+    }
+    
+    /**
+     * Apply many stock deltas with a single UPDATE.
+     * The products are locked in ID order first; a delta is skipped if the product does not
+     * exist or the stock would go below zero or beyond {@link Integer#MAX_VALUE}.
+     * Runs in the caller's transaction; the persistence context is not updated.
+     * @param deltas Net stock delta per product ID
+     * @return IDs of the products whose stock was updated, in ID order
+     */
+    public List<Long> applyStockDeltas(Map<Long, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> stock = lockStock(deltas.keySet());
+        // Decided on the locked rows, so the applied set is exact whatever the driver reports
+        Map<Long, Integer> applicable = new TreeMap<>();
+        deltas.forEach((productId, delta) -> {
+            Integer current = stock.get(productId);
+            long updated = current != null ? (long) current + delta : -1;
+            if (updated >= 0 && updated <= Integer.MAX_VALUE) {
+                applicable.put(productId, delta);
+            }
+        });
+        if (!applicable.isEmpty()) {
+            addToStock(applicable);
+        }
+        return new ArrayList<>(applicable.keySet());
+    }
+    
+    /**
+     * Get the stock available for a product, including stock not yet flushed from its shards.
+     */
+    @Transactional(readOnly = true)
+    public long getAvailableStock(Product product) {
+        Integer stock = product.getStockQuantity();
+        return (stock != null ? stock : 0) + stockShardService.getPendingStock(product.getId());
+    }
+    
+    private void increment(Long productId, int quantity) {
+        if (!stockShardService.tryAdd(productId, quantity)) {
+            productRepository.incrementStock(productId, quantity);
+        }
+    }
+    
+    private boolean decrement(Long productId, int quantity) {
+        // Hot products: take from a shard, or fold the shards so the product row holds the
+        // whole stock; either way no shard is locked after the product row
+        return stockShardService.takeOrFold(productId, quantity)
+                || productRepository.decrementStockIfAvailable(productId, quantity) > 0;
+    }
+    
+    private Map<String, Long> resolveProductIds(Map<String, Integer> quantitiesBySku, boolean required) {
+        quantitiesBySku.forEach((sku, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity for SKU " + sku + " must be positive");
+            }
+        });
+        if (quantitiesBySku.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> productIds = new HashMap<>();
+        for (Object[] row : productRepository.findIdsBySkuIn(quantitiesBySku.keySet())) {
+            productIds.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        if (required && productIds.size() < quantitiesBySku.size()) {
+            for (String sku : quantitiesBySku.keySet()) {
+                if (!productIds.containsKey(sku)) {
+                    throw new IllegalArgumentException("Product not found with SKU: " + sku);
+                }
+            }
+        }
+        return productIds;
+    }
+    
+    private Map<Long, Integer> lockStock(Collection<Long> productIds) {
+        // Write pending changes first, and fold hot products' shards (shard locks are always
+        // taken before product locks) so the locked rows hold the whole stock
+        entityManager.flush();
+        for (Long productId : new TreeSet<>(productIds)) {
+            if (stockShardService.isHot(productId)) {
+                stockShardService.fold(productId);
+            }
+        }
+        Map<Long, Integer> stock = new HashMap<>();
+        for (Object[] row : productRepository.lockStockByIdIn(productIds)) {
+            stock.put(((Number) row[0]).longValue(), row[1] != null ? ((Number) row[1]).intValue() : 0);
+        }
+        return stock;
+    }
+    
+    private void applyLockedDeltas(Map<Long, Integer> deltas, Map<Long, Integer> lockedStock) {
+        addToStock(deltas);
+        for (Product product : productRepository.findAllById(deltas.keySet())) {
+            Integer expected = lockedStock.get(product.getId()) + deltas.get(product.getId());
+            if (!expected.equals(product.getStockQuantity())) {
+                // Already in the persistence context with an older stock
+                entityManager.refresh(product);
+            }
+            int delta = deltas.get(product.getId());
+            eventPublisher.publishStockUpdated(product, delta,
+                    delta < 0 ? StockChangeReason.RESERVATION : StockChangeReason.RELEASE);
+        }
+    }
+    
+    private void addToStock(Map<Long, Integer> deltas) {
+        // One statement for all products: stock = stock + CASE id WHEN ? THEN ? ... END
+        StringBuilder sql = new StringBuilder(
+                "UPDATE products SET stock_quantity = COALESCE(stock_quantity, 0) + CASE id");
+        List<Object> args = new ArrayList<>(deltas.size() * 3);
+        deltas.forEach((productId, delta) -> {
+            sql.append(" WHEN ? THEN ?");
+            args.add(productId);
+            args.add(delta);
+        });
+        sql.append(" END WHERE id IN (");
+        sql.append(String.join(", ", Collections.nCopies(deltas.size(), "?")));
+        sql.append(')');
+        args.addAll(deltas.keySet());
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+    
+    private void syncStock(Product product) {
+        // Bulk updates bypass the persistence context; reload the stock without dirtying the entity
+        if (entityManager.contains(product)) {
+            entityManager.refresh(product);
+        } else {
+            product.setStockQuantity(productRepository.findStockQuantityById(product.getId()));
+        }
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductCreatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductDeactivatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductUpdatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.StockUpdatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service keeping a running inventory value (price times stock of active products),
+ * in total and per category, so reads do not scan the catalog.
+ * <p>
+ * Values are held in cents, and stock includes stock not yet flushed from the shards of
+ * hot products. They are loaded with one grouped scan at startup and then moved by the
+ * value delta of every committed product event: stock updates, product updates (price,
+ * stock, category or active flag) and deactivations. A scheduled reconciliation compares
+ * them with a full scan, reports any drift and resets them to the scanned values; deltas
+ * applied while a scan runs are applied again after the reset, since the scan may have
+ * missed them. A change committing just as the scan starts can thus be counted twice,
+ * which the next reconciliation reports and corrects. Products without a category are
+ * kept under category ID {@value #UNCATEGORIZED}.
+ */
+@Service
+public class InventoryValuationService {
+    
+    public static final long UNCATEGORIZED = 0L;
+    
+    private static final Logger log = LoggerFactory.getLogger(InventoryValuationService.class);
+    
+    private final ProductRepository productRepository;
+    private final StockShardService stockShardService;
+    private final AtomicLong totalCents = new AtomicLong();
+    private final Map<Long, AtomicLong> categoryCents = new ConcurrentHashMap<>();
+    private final AtomicLong lastDriftCents = new AtomicLong();
+    /** Deltas applied while a load or reconciliation scans, replayed after its reset; null otherwise. */
+    private List<Runnable> pending;
+    
+    @Autowired
+    public InventoryValuationService(ProductRepository productRepository, StockShardService stockShardService,
+                                     MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.stockShardService = stockShardService;
+        meterRegistry.gauge("inventory.valuation.total", totalCents, cents -> cents.get() / 100.0);
+        meterRegistry.gauge("inventory.valuation.drift", lastDriftCents, cents -> cents.get() / 100.0);
+    }
+    
+    /**
+     * Total inventory value of active products.
+     */
+    public BigDecimal getTotalValue() {
+        return BigDecimal.valueOf(totalCents.get(), 2);
+    }
+    
+    /**
+     * Inventory value of the active products of one category.
+     */
+    public BigDecimal getCategoryValue(Long categoryId) {
+        AtomicLong cents = categoryCents.get(categoryId != null ? categoryId : UNCATEGORIZED);
+        return BigDecimal.valueOf(cents != null ? cents.get() : 0, 2);
+    }
+    
+    /**
+     * Inventory value per category ID.
+     */
+    public Map<Long, BigDecimal> getValueByCategory() {
+        Map<Long, BigDecimal> values = new HashMap<>();
+        categoryCents.forEach((categoryId, cents) -> values.put(categoryId, BigDecimal.valueOf(cents.get(), 2)));
+        return values;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!startRecording()) {
+            return;
+        }
+        try {
+            resetAndReplay(scan());
+        } finally {
+            stopRecording();
+        }
+        log.info("Inventory valuation loaded: {}", getTotalValue());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductCreated(ProductCreatedEvent event) {
+        Product product = event.getProduct();
+        if (isActive(product.getIsActive())) {
+            add(categoryId(product), valueCents(product.getPrice(), product.getStockQuantity()));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockUpdated(StockUpdatedEvent event) {
+        Product product = event.getProduct();
+        if (isActive(product.getIsActive())) {
+            add(categoryId(product), valueCents(product.getPrice(), event.getQuantity()));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        Product product = event.getProduct();
+        // An update does not touch the shards, so the same pending stock applies before and after
+        long pendingStock = stockShardService.getPendingStock(product.getId());
+        if (event.isPreviouslyActive()) {
+            Long previousCategoryId = event.getPreviousCategoryId() != null ? event.getPreviousCategoryId() : UNCATEGORIZED;
+            add(previousCategoryId, -valueCents(event.getPreviousPrice(), event.getPreviousStockQuantity(), pendingStock));
+        }
+        if (isActive(product.getIsActive())) {
+            add(categoryId(product), valueCents(product.getPrice(), product.getStockQuantity(), pendingStock));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeactivated(ProductDeactivatedEvent event) {
+        Product product = event.getProduct();
+        add(categoryId(product), -valueCents(product.getPrice(), product.getStockQuantity(),
+                stockShardService.getPendingStock(product.getId())));
+    }
+    
+    /**
+     * Compare the running values with a full scan and report drift.
+     * @return Total drift in cents (running minus scanned)
+     */
+    @Scheduled(fixedDelayString = "${inventory.valuation.reconcile-interval:PT1H}",
+               initialDelayString = "${inventory.valuation.reconcile-interval:PT1H}")
+    @Transactional(readOnly = true)
+    public long reconcile() {
+        if (!startRecording()) {
+            return lastDriftCents.get();
+        }
+        try {
+            return correct(scan());
+        } finally {
+            stopRecording();
+        }
+    }
+    
+    // Private helper methods
+    
+    /**
+     * Reset the running values to a scan and report how far they had drifted from it.
+     * Deltas recorded during the scan are on both sides, so they do not count as drift.
+     */
+    private long correct(Map<Long, Long> scanned) {
+        Map<Long, Long> running = new HashMap<>();
+        long runningTotal;
+        long correctedTotal;
+        synchronized (this) {
+            categoryCents.forEach((categoryId, cents) -> running.put(categoryId, cents.get()));
+            runningTotal = totalCents.get();
+            resetAndReplay(scanned);
+            correctedTotal = totalCents.get();
+            categoryCents.forEach((categoryId, cents) -> running.merge(categoryId, -cents.get(), Long::sum));
+        }
+        
+        long drift = runningTotal - correctedTotal;
+        lastDriftCents.set(drift);
+        running.forEach((categoryId, categoryDrift) -> {
+            if (categoryDrift != 0) {
+                log.warn("Inventory valuation drift in category {}: {}", categoryId,
+                        BigDecimal.valueOf(categoryDrift, 2));
+            }
+        });
+        if (drift != 0) {
+            log.warn("Inventory valuation drift: running {} vs scanned {}",
+                    BigDecimal.valueOf(runningTotal, 2), BigDecimal.valueOf(correctedTotal, 2));
+        }
+        return drift;
+    }
+    
+    private Map<Long, Long> scan() {
+        Map<Long, Long> values = new HashMap<>();
+        List<Object[]> rows = productRepository.sumInventoryValueByCategory();
+        for (Object[] row : rows) {
+            Long categoryId = row[0] != null ? ((Number) row[0]).longValue() : UNCATEGORIZED;
+            BigDecimal value = row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO;
+            values.put(categoryId, toCents(value));
+        }
+        return values;
+    }
+    
+    /**
+     * Start recording deltas for a scan.
+     * @return False if another load or reconciliation is already scanning
+     */
+    private synchronized boolean startRecording() {
+        if (pending != null) {
+            return false;
+        }
+        pending = new ArrayList<>();
+        return true;
+    }
+    
+    private synchronized void stopRecording() {
+        pending = null;
+    }
+    
+    /**
+     * Reset the values to a scan, then apply again the deltas recorded while it ran.
+     * Holds the lock that add() takes, so no delta slips in between.
+     */
+    private synchronized void resetAndReplay(Map<Long, Long> values) {
+        categoryCents.keySet().retainAll(values.keySet());
+        values.forEach((categoryId, cents) ->
+                categoryCents.computeIfAbsent(categoryId, id -> new AtomicLong()).set(cents));
+        totalCents.set(values.values().stream().mapToLong(Long::longValue).sum());
+        pending.forEach(Runnable::run);
+    }
+    
+    private synchronized void add(Long categoryId, long deltaCents) {
+        if (deltaCents == 0) {
+            return;
+        }
+        Runnable change = () -> {
+            categoryCents.computeIfAbsent(categoryId, id -> new AtomicLong()).addAndGet(deltaCents);
+            totalCents.addAndGet(deltaCents);
+        };
+        change.run();
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+    
+    private static Long categoryId(Product product) {
+        // The category is a lazy proxy; reading its ID does not initialize it
+        return product.getCategory() != null && product.getCategory().getId() != null
+                ? product.getCategory().getId() : UNCATEGORIZED;
+    }
+    
+    private static boolean isActive(Boolean active) {
+        return Boolean.TRUE.equals(active);
+    }
+    
+    private static long valueCents(BigDecimal price, Integer quantity) {
+        return valueCents(price, quantity, 0);
+    }
+    
+    private static long valueCents(BigDecimal price, Integer quantity, long pendingStock) {
+        if (price == null) {
+            return 0;
+        }
+        return toCents(price.multiply(BigDecimal.valueOf((quantity != null ? quantity : 0) + pendingStock)));
+    }
+    
+    private static long toCents(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,171 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductCreatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductDeactivatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductUpdatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.StockUpdatedEvent;
+import com.zengent.demo.util.SortedLongIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory index of active products by stock level, answering low-stock threshold
+ * queries without a table scan. Stock levels include stock not yet flushed from the
+ * shards of hot products.
+ * <p>
+ * Only products at or below {@code inventory.low-stock-index.max-stock} are indexed, which
+ * keeps the index small; thresholds above that level are not answered and callers fall
+ * back to the database, as they do until the index is loaded at startup. The index follows
+ * committed product events and is rebuilt periodically to pick up set-based stock changes
+ * that publish no event; changes committed while a load or rebuild scans are applied
+ * again to its result.
+ */
+@Service
+public class LowStockIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(LowStockIndex.class);
+    
+    private final ProductRepository productRepository;
+    private final StockShardService stockShardService;
+    private final int maxStock;
+    private final SortedLongIndex index = new SortedLongIndex();
+    private volatile boolean loaded;
+    /** Changes applied while a load or rebuild scans, replayed onto its result; null otherwise. */
+    private List<Runnable> pending;
+    
+    @Autowired
+    public LowStockIndex(ProductRepository productRepository, StockShardService stockShardService,
+                         @Value("${inventory.low-stock-index.max-stock:100}") int maxStock) {
+        this.productRepository = productRepository;
+        this.stockShardService = stockShardService;
+        this.maxStock = maxStock;
+    }
+    
+    /**
+     * IDs of active products with stock below the threshold, lowest stock first.
+     * @param threshold Exclusive stock threshold
+     * @return The product IDs, or empty if the index cannot answer and the database must be queried
+     */
+    public Optional<long[]> findProductIdsBelow(int threshold) {
+        if (!loaded || threshold - 1 > maxStock) {
+            return Optional.empty();
+        }
+        return Optional.of(index.idsInRange(Long.MIN_VALUE, threshold, Integer.MAX_VALUE));
+    }
+    
+    public int size() {
+        return index.size();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (reload()) {
+            log.info("Low-stock index loaded: {} products at or below stock {}", index.size(), maxStock);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.low-stock-index.rebuild-interval:PT5M}",
+               initialDelayString = "${inventory.low-stock-index.rebuild-interval:PT5M}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        reload();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductCreated(ProductCreatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockUpdated(StockUpdatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeactivated(ProductDeactivatedEvent event) {
+        long productId = event.getProduct().getId();
+        change(() -> index.remove(productId));
+    }
+    
+    // Private helper methods
+    
+    /**
+     * Scan the stock levels and replace the index, then apply again the changes that
+     * committed during the scan, since the scan may have missed them.
+     * @return False if another load or rebuild was already running
+     */
+    private boolean reload() {
+        synchronized (this) {
+            if (pending != null) {
+                return false;
+            }
+            pending = new ArrayList<>();
+        }
+        try {
+            long[][] entries = scan();
+            synchronized (this) {
+                index.replaceAll(entries[0], entries[1]);
+                pending.forEach(Runnable::run);
+                loaded = true;
+            }
+            return true;
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+    }
+    
+    private void apply(Product product) {
+        long productId = product.getId();
+        Integer stock = product.getStockQuantity();
+        if (!Boolean.TRUE.equals(product.getIsActive()) || stock == null) {
+            change(() -> index.remove(productId));
+            return;
+        }
+        long available = stock + stockShardService.getPendingStock(productId);
+        if (available <= maxStock) {
+            change(() -> index.put(productId, available));
+        } else {
+            change(() -> index.remove(productId));
+        }
+    }
+    
+    private synchronized void change(Runnable change) {
+        change.run();
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+    
+    private long[][] scan() {
+        List<Object[]> rows = productRepository.findActiveStockLevelsUpTo(maxStock);
+        long[] ids = new long[rows.size()];
+        long[] stocks = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ids[i] = ((Number) rows.get(i)[0]).longValue();
+            stocks[i] = ((Number) rows.get(i)[1]).longValue();
+        }
+        return new long[][] {ids, stocks};
+    }
+}
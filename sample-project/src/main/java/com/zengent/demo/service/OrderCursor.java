@@ -0,0 +1,56 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.model.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a user's order history, keyed on (orderDate, id).
+ * Encoded as an opaque URL-safe token so clients cannot depend on its contents.
+ */
+public final class OrderCursor {
+    
+    private final LocalDateTime orderDate;
+    private final long id;
+    
+    public OrderCursor(LocalDateTime orderDate, long id) {
+        this.orderDate = orderDate;
+        this.id = id;
+    }
+    
+    /**
+     * Cursor pointing just past the given order.
+     */
+    public static OrderCursor after(Order order) {
+        return new OrderCursor(order.getOrderDate(), order.getId());
+    }
+    
+    /**
+     * Decode a token produced by {@link #encode()}.
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    public String encode() {
+        String raw = orderDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public long getId() { return id; }
+}
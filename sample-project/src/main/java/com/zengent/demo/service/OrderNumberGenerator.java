@@ -0,0 +1,44 @@
+package com.zengent.demo.service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Strategy for generating customer-facing order numbers.
+ * Demonstrates a pluggable component behind a small interface.
+ */
+public interface OrderNumberGenerator {
+    
+    /**
+     * Generate the next order number.
+     * @return A new, unique order number
+     */
+    String nextOrderNumber();
+    
+    /**
+     * Decode the routing information embedded in an order number.
+     * @param orderNumber The order number to decode
+     * @return The decoded parts, or empty if the number was not produced by this generator
+     */
+    Optional<DecodedOrderNumber> decode(String orderNumber);
+    
+    /**
+     * Routing information recovered from an order number.
+     */
+    final class DecodedOrderNumber {
+        private final long timestampMillis;
+        private final int nodeId;
+        private final int sequence;
+        
+        public DecodedOrderNumber(long timestampMillis, int nodeId, int sequence) {
+            this.timestampMillis = timestampMillis;
+            this.nodeId = nodeId;
+            this.sequence = sequence;
+        }
+        
+        public long getTimestampMillis() { return timestampMillis; }
+        public Instant getTimestamp() { return Instant.ofEpochMilli(timestampMillis); }
+        public int getNodeId() { return nodeId; }
+        public int getSequence() { return sequence; }
+    }
+}
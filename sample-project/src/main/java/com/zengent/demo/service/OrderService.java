@@ -1,20 +1,45 @@
 package com.zengent.demo.service;
 
+import com.zengent.demo.dto.BulkTransitionResult;
+import com.zengent.demo.dto.CursorPage;
+import com.zengent.demo.dto.OrderIngestResult;
+import com.zengent.demo.dto.SalesReport;
 import com.zengent.demo.model.Order;
 import com.zengent.demo.model.OrderItem;
 import com.zengent.demo.model.User;
 import com.zengent.demo.repository.OrderRepository;
+import com.zengent.demo.service.archive.OrderArchiveService;
+import com.zengent.demo.service.events.OrderEventPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for Order-related business operations.
@@ -24,23 +49,56 @@ import java.util.UUID;
 @Transactional
 public class OrderService {
     
+    /** Order used by keyset pages: order date, then ID, both descending. */
+    private static final Comparator<Order> NEWEST_FIRST =
+            Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId).reversed();
+    
     private final OrderRepository orderRepository;
     private final UserService userService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final SalesRollupService salesRollupService;
+    private final OrderArchiveService orderArchiveService;
+    private final InventoryService inventoryService;
+    private final OrderEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int bulkChunkSize;
+    private final int transitionChunkSize;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
     
     @Autowired
-    public OrderService(OrderRepository orderRepository, UserService userService) {
+    public OrderService(OrderRepository orderRepository, UserService userService,
+                        OrderNumberGenerator orderNumberGenerator,
+                        SalesRollupService salesRollupService,
+                        OrderArchiveService orderArchiveService,
+                        InventoryService inventoryService,
+                        OrderEventPublisher eventPublisher,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${orders.bulk.chunk-size:500}") int bulkChunkSize,
+                        @Value("${orders.bulk.transition-chunk-size:1000}") int transitionChunkSize) {
         this.orderRepository = orderRepository;
         this.userService = userService;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.salesRollupService = salesRollupService;
+        this.orderArchiveService = orderArchiveService;
+        this.inventoryService = inventoryService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bulkChunkSize = bulkChunkSize;
+        this.transitionChunkSize = transitionChunkSize;
     }
     
     /**
-     * Create a new order for a user.
+     * Create a new order for a user, reserving stock for all of its items.
+     * If any item is short of stock, nothing is reserved and no order is created.
      * @param userId The user ID
      * @param orderItems List of order items
      * @param shippingAddress Shipping address
      * @param billingAddress Billing address
      * @return The created order
-     * @throws IllegalArgumentException if user not found or order items empty
+     * @throws IllegalArgumentException if user not found, order items empty or a product code is unknown
+     * @throws IllegalStateException if any item has too little stock
      */
     public Order createOrder(Long userId, List<OrderItem> orderItems, 
                            String shippingAddress, String billingAddress) {
@@ -55,38 +113,53 @@ public class OrderService {
             throw new IllegalArgumentException("Order must contain at least one item");
         }
         
-        User user = userOpt.get();
-        
-        // Generate unique order number
-        String orderNumber = generateOrderNumber();
-        
-        // Calculate total amount
-        BigDecimal totalAmount = calculateTotalAmount(orderItems);
-        
-        // Create order
-        Order order = new Order(orderNumber, user, totalAmount);
-        order.setShippingAddress(shippingAddress);
-        order.setBillingAddress(billingAddress);
-        
-        // Set order reference for all items and recalculate totals
-        for (OrderItem item : orderItems) {
-            item.setOrder(order);
-            item.calculateTotalPrice();
-        }
-        order.setOrderItems(orderItems);
+        reserveStock(orderItems);
+        Order order = buildOrder(userOpt.get(), orderItems, shippingAddress, billingAddress);
+        order.setStockReserved(true);
         
         // Save order (cascades to order items)
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        salesRollupService.recordOrdersCreated(List.of(savedOrder));
+        eventPublisher.publishOrderCreated(savedOrder);
+        return savedOrder;
+    }
+    
+    /**
+     * Create many orders at once, writing orders and items in JDBC batches.
+     * Each draft carries the user (only its ID is read), order items and addresses;
+     * order number, totals, status and order date are assigned as in createOrder.
+     * Orders are committed in chunks of {@code orders.bulk.chunk-size}, one transaction
+     * per chunk. If a chunk fails to commit, its orders are retried one at a time so a
+     * single bad order does not fail the rest of the chunk. Stock for a whole chunk is
+     * reserved at once, so an order that is short of stock fails on its own in the retry.
+     * @param drafts Orders to create
+     * @return Per-order results, in the same order as the drafts
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<OrderIngestResult> createOrders(List<Order> drafts) {
+        List<OrderIngestResult> results = new ArrayList<>(drafts.size());
+        for (int start = 0; start < drafts.size(); start += bulkChunkSize) {
+            int end = Math.min(start + bulkChunkSize, drafts.size());
+            results.addAll(createOrderChunk(drafts.subList(start, end), start));
+        }
+        return results;
     }
     
     /**
-     * Find order by order number.
+     * Find order by order number, falling back to the archive for old orders.
+     * The creation time encoded in the order number decides whether the archive is read.
      * @param orderNumber The order number
      * @return Optional containing the order if found
      */
     @Transactional(readOnly = true)
     public Optional<Order> findByOrderNumber(String orderNumber) {
-        return orderRepository.findByOrderNumber(orderNumber);
+        return orderRepository.findByOrderNumber(orderNumber).or(() -> {
+            boolean mayBeArchived = orderNumberGenerator.decode(orderNumber)
+                    .map(decoded -> orderArchiveService.mayContain(
+                            LocalDateTime.ofInstant(decoded.getTimestamp(), ZoneId.systemDefault())))
+                    .orElse(true);
+            return mayBeArchived ? orderArchiveService.findByOrderNumber(orderNumber) : Optional.empty();
+        });
     }
     
     /**
@@ -100,20 +173,58 @@ public class OrderService {
         return orderRepository.findByUser(user, pageable);
     }
     
+    /**
+     * Get orders for a user with keyset pagination, newest first.
+     * Pages are addressed by (orderDate, id) so deep pages cost the same as the first,
+     * and no count query is issued. Archived orders are merged in once a page reaches
+     * back past the archive cutoff.
+     * @param user The user
+     * @param cursor Continuation token from the previous page, or null for the first page
+     * @param size Page size
+     * @return Page of orders with the token for the next page, if any
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOrdersByUser(User user, String cursor, int size) {
+        // Fetch one extra row to learn whether another page exists
+        Pageable limit = PageRequest.of(0, size + 1);
+        OrderCursor position = cursor == null || cursor.isEmpty() ? null : OrderCursor.decode(cursor);
+        List<Order> orders = position == null
+                ? orderRepository.findFirstSeekPageByUser(user, limit)
+                : orderRepository.findSeekPageByUserAfter(user, position.getOrderDate(), position.getId(), limit);
+        
+        // Merge in archived orders once the page reaches back past the archive cutoff
+        boolean reachesArchive = orders.size() <= size
+                || orderArchiveService.mayContain(orders.get(orders.size() - 1).getOrderDate());
+        if (reachesArchive) {
+            List<Order> archived = orderArchiveService.getSeekPageByUser(user,
+                    position != null ? position.getOrderDate() : null,
+                    position != null ? position.getId() : null, limit);
+            if (!archived.isEmpty()) {
+                orders = new ArrayList<>(orders);
+                orders.addAll(archived);
+                orders.sort(NEWEST_FIRST);
+                if (orders.size() > size + 1) {
+                    orders = orders.subList(0, size + 1);
+                }
+            }
+        }
+        
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = orders.subList(0, size);
+            nextCursor = OrderCursor.after(orders.get(size - 1)).encode();
+        }
+        return new CursorPage<>(orders, size, nextCursor);
+    }
+    
     /**
      * Confirm an order.
      * @param orderId The order ID
      * @return True if order was confirmed successfully
      */
     public boolean confirmOrder(Long orderId) {
-        Optional<Order> orderOpt = orderRepository.findById(orderId);
-        if (orderOpt.isPresent()) {
-            Order order = orderOpt.get();
-            order.confirmOrder();
-            orderRepository.save(order);
-            return true;
-        }
-        return false;
+        return transition(orderId, Order.StatusTransition.CONFIRM);
     }
     
     /**
@@ -122,36 +233,71 @@ public class OrderService {
      * @return True if order was shipped successfully
      */
     public boolean shipOrder(Long orderId) {
-        Optional<Order> orderOpt = orderRepository.findById(orderId);
-        if (orderOpt.isPresent()) {
-            Order order = orderOpt.get();
-            order.shipOrder();
-            orderRepository.save(order);
-            return true;
-        }
-        return false;
+        return transition(orderId, Order.StatusTransition.SHIP);
     }
     
     /**
-     * Cancel an order if possible.
+     * Cancel an order if possible and return its items to stock.
      * @param orderId The order ID
      * @return True if order was cancelled successfully
      */
     public boolean cancelOrder(Long orderId) {
-        Optional<Order> orderOpt = orderRepository.findById(orderId);
-        if (orderOpt.isPresent()) {
-            Order order = orderOpt.get();
-            if (order.canBeCancelled()) {
-                order.setStatus(Order.OrderStatus.CANCELLED);
-                orderRepository.save(order);
-                return true;
-            }
+        if (!transition(orderId, Order.StatusTransition.CANCEL)) {
+            return false;
         }
-        return false;
+        releaseReservedStock(List.of(orderId));
+        return true;
+    }
+    
+    /**
+     * Cancel an order that is still pending and return its items to stock.
+     * Orders that were confirmed or otherwise moved on in the meantime are left alone.
+     * @param orderId The order ID
+     * @return True if the order was still pending and has been cancelled
+     */
+    public boolean expirePendingOrder(Long orderId) {
+        if (orderRepository.compareAndSetStatus(List.of(orderId),
+                Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED) == 0) {
+            return false;
+        }
+        salesRollupService.recordStatusChange(orderId, Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED);
+        eventPublisher.publishOrderStatusChanged(List.of(orderId), Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED);
+        releaseReservedStock(List.of(orderId));
+        return true;
+    }
+    
+    /**
+     * Move many orders from one status to another with set-based conditional updates.
+     * IDs are processed in chunks of {@code orders.bulk.transition-chunk-size}, one
+     * transaction per chunk; orders not currently in {@code fromStatus} are skipped.
+     * Stock reserved by cancelled orders is returned.
+     * @param orderIds The order IDs
+     * @param fromStatus Status the orders must currently have
+     * @param toStatus Status to move them to
+     * @return Number of orders requested and transitioned
+     * @throws IllegalArgumentException if the transition is not allowed
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkTransitionResult transitionOrders(Collection<Long> orderIds,
+                                                 Order.OrderStatus fromStatus, Order.OrderStatus toStatus) {
+        if (!Order.StatusTransition.between(fromStatus, toStatus).isPresent()) {
+            throw new IllegalArgumentException("Cannot move orders from " + fromStatus + " to " + toStatus);
+        }
+        
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        int transitioned = 0;
+        for (int start = 0; start < ids.size(); start += transitionChunkSize) {
+            List<Long> chunk = ids.subList(start, Math.min(start + transitionChunkSize, ids.size()));
+            Integer updated = transactionTemplate.execute(status ->
+                    transitionChunk(chunk, fromStatus, toStatus));
+            transitioned += updated != null ? updated : 0;
+        }
+        return new BulkTransitionResult(fromStatus, toStatus, ids.size(), transitioned);
     }
     
     /**
      * Get orders by status.
+     * Only active orders are returned; archived orders are not included.
      * @param status The order status
      * @return List of orders with the specified status
      */
@@ -161,14 +307,23 @@ public class OrderService {
     }
     
     /**
-     * Get orders within a date range.
+     * Get orders within a date range, including archived orders if the range reaches
+     * back past the archive cutoff.
      * @param startDate Start date
      * @param endDate End date
      * @return List of orders within the date range
      */
     @Transactional(readOnly = true)
     public List<Order> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.findByOrderDateBetween(startDate, endDate);
+        List<Order> orders = orderRepository.findByOrderDateBetween(startDate, endDate);
+        if (orderArchiveService.mayContain(startDate)) {
+            List<Order> archived = orderArchiveService.getOrdersByDateRange(startDate, endDate);
+            if (!archived.isEmpty()) {
+                archived.addAll(orders);
+                orders = archived;
+            }
+        }
+        return orders;
     }
     
     /**
@@ -179,8 +334,20 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public BigDecimal calculateTotalSales(LocalDateTime startDate, LocalDateTime endDate) {
-        BigDecimal total = orderRepository.calculateTotalSales(startDate, endDate);
-        return total != null ? total : BigDecimal.ZERO;
+        return salesRollupService.calculateTotalSales(startDate, endDate);
+    }
+    
+    /**
+     * Build a sales report for a time period.
+     * Whole days are read from the daily sales rollup and partial days from one
+     * aggregate query each; no order entities are loaded.
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Total, count, average, min/max order value and a per-status breakdown
+     */
+    @Transactional(readOnly = true)
+    public SalesReport getSalesReport(LocalDateTime startDate, LocalDateTime endDate) {
+        return salesRollupService.getSalesReport(startDate, endDate);
     }
     
     /**
@@ -203,16 +370,191 @@ public class OrderService {
     @Transactional(readOnly = true)
     public List<Order> getRecentOrdersByUser(User user, int days) {
         LocalDateTime since = LocalDateTime.now().minusDays(days);
-        return orderRepository.findRecentOrdersByUser(user, since);
+        List<Order> orders = orderRepository.findRecentOrdersByUser(user, since);
+        if (orderArchiveService.mayContain(since)) {
+            List<Order> archived = orderArchiveService.getRecentOrdersByUser(user, since);
+            if (!archived.isEmpty()) {
+                orders = new ArrayList<>(orders);
+                orders.addAll(archived);
+                orders.sort(NEWEST_FIRST);
+            }
+        }
+        return orders;
     }
     
     // Private helper methods
     
+    private List<OrderIngestResult> createOrderChunk(List<Order> drafts, int offset) {
+        OrderIngestResult[] results = new OrderIngestResult[drafts.size()];
+        
+        // Resolve every user in the chunk with one query
+        Set<Long> userIds = new HashSet<>();
+        for (Order draft : drafts) {
+            if (draft.getUser() != null && draft.getUser().getId() != null) {
+                userIds.add(draft.getUser().getId());
+            }
+        }
+        Map<Long, User> users = userService.findByIds(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        List<Order> orders = new ArrayList<>(drafts.size());
+        List<Integer> positions = new ArrayList<>(drafts.size());
+        for (int i = 0; i < drafts.size(); i++) {
+            Order draft = drafts.get(i);
+            Long userId = draft.getUser() != null ? draft.getUser().getId() : null;
+            User user = userId != null ? users.get(userId) : null;
+            if (user == null) {
+                results[i] = OrderIngestResult.failed(offset + i, "User not found with ID: " + userId);
+            } else if (draft.getOrderItems() == null || draft.getOrderItems().isEmpty()) {
+                results[i] = OrderIngestResult.failed(offset + i, "Order must contain at least one item");
+            } else {
+                orders.add(buildOrder(user, draft.getOrderItems(),
+                        draft.getShippingAddress(), draft.getBillingAddress()));
+                positions.add(i);
+            }
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> persistAll(orders));
+            for (int j = 0; j < orders.size(); j++) {
+                Order order = orders.get(j);
+                int i = positions.get(j);
+                results[i] = OrderIngestResult.succeeded(offset + i, order.getId(), order.getOrderNumber());
+            }
+        } catch (RuntimeException chunkFailure) {
+            // Isolate the failing order(s) by retrying each order on its own
+            for (int j = 0; j < orders.size(); j++) {
+                Order order = orders.get(j);
+                int i = positions.get(j);
+                resetIds(order);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persistAll(List.of(order)));
+                    results[i] = OrderIngestResult.succeeded(offset + i, order.getId(), order.getOrderNumber());
+                } catch (RuntimeException e) {
+                    resetIds(order);
+                    results[i] = OrderIngestResult.failed(offset + i, e.getMessage());
+                }
+            }
+        }
+        
+        return List.of(results);
+    }
+    
+    private void persistAll(List<Order> orders) {
+        List<OrderItem> items = new ArrayList<>();
+        for (Order order : orders) {
+            items.addAll(order.getOrderItems());
+        }
+        reserveStock(items);
+        for (Order order : orders) {
+            order.setStockReserved(true);
+            entityManager.persist(order);
+        }
+        salesRollupService.recordOrdersCreated(orders);
+        for (Order order : orders) {
+            eventPublisher.publishOrderCreated(order);
+        }
+        // Flush once so Hibernate groups the inserts, then drop the chunk from the context
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    private void resetIds(Order order) {
+        order.setId(null);
+        for (OrderItem item : order.getOrderItems()) {
+            item.setId(null);
+        }
+    }
+    
+    private Order buildOrder(User user, List<OrderItem> orderItems,
+                             String shippingAddress, String billingAddress) {
+        // Generate unique order number
+        String orderNumber = generateOrderNumber();
+        
+        // Calculate total amount
+        BigDecimal totalAmount = calculateTotalAmount(orderItems);
+        
+        // Create order
+        Order order = new Order(orderNumber, user, totalAmount);
+        order.setShippingAddress(shippingAddress);
+        order.setBillingAddress(billingAddress);
+        
+        // Set order reference for all items and recalculate totals
+        for (OrderItem item : orderItems) {
+            item.setOrder(order);
+            item.calculateTotalPrice();
+        }
+        order.setOrderItems(orderItems);
+        return order;
+    }
+    
     private String generateOrderNumber() {
-        // Generate unique order number with timestamp and random component
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        return "ORD-" + timestamp + "-" + uuid;
+        return orderNumberGenerator.nextOrderNumber();
+    }
+    
+    private boolean transition(Long orderId, Order.StatusTransition transition) {
+        // One compare-and-set UPDATE per possible source status; the first that applies wins
+        for (Order.OrderStatus from : transition.getAllowedFrom()) {
+            if (orderRepository.compareAndSetStatus(List.of(orderId), from, transition.getTarget()) > 0) {
+                salesRollupService.recordStatusChange(orderId, from, transition.getTarget());
+                eventPublisher.publishOrderStatusChanged(List.of(orderId), from, transition.getTarget());
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void reserveStock(List<OrderItem> items) {
+        inventoryService.reserveStockBySku(quantitiesBySku(items));
+    }
+    
+    private void releaseReservedStock(Collection<Long> orderIds) {
+        // Only orders that reserved stock give it back, and each only once
+        List<OrderItem> items = orderRepository.findReservedItemsByOrderIdIn(orderIds);
+        orderRepository.clearStockReserved(orderIds);
+        inventoryService.releaseStockBySku(quantitiesBySku(items));
+    }
+    
+    private static Map<String, Integer> quantitiesBySku(List<OrderItem> items) {
+        // Items reference products by SKU; items without a product code do not hold stock
+        Map<String, Integer> quantities = new HashMap<>();
+        for (OrderItem item : items) {
+            if (item.getProductCode() != null) {
+                quantities.merge(item.getProductCode(), item.getQuantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+    
+    private int transitionChunk(List<Long> ids, Order.OrderStatus fromStatus, Order.OrderStatus toStatus) {
+        // Lock the rows that will move so the rollup is adjusted for exactly those orders
+        List<Object[]> rows = orderRepository.lockByIdInAndStatus(ids, fromStatus.name());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        
+        List<Long> lockedIds = new ArrayList<>(rows.size());
+        Map<LocalDate, BigDecimal> amountByDay = new HashMap<>();
+        Map<LocalDate, Long> countByDay = new HashMap<>();
+        for (Object[] row : rows) {
+            lockedIds.add(((Number) row[0]).longValue());
+            LocalDate day = toLocalDateTime(row[1]).toLocalDate();
+            amountByDay.merge(day, (BigDecimal) row[2], BigDecimal::add);
+            countByDay.merge(day, 1L, Long::sum);
+        }
+        
+        int updated = orderRepository.compareAndSetStatus(lockedIds, fromStatus, toStatus);
+        if (toStatus == Order.OrderStatus.CANCELLED) {
+            releaseReservedStock(lockedIds);
+        }
+        amountByDay.forEach((day, amount) ->
+                salesRollupService.recordStatusChange(day, countByDay.get(day), amount, fromStatus, toStatus));
+        eventPublisher.publishOrderStatusChanged(lockedIds, fromStatus, toStatus);
+        return updated;
+    }
+    
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : (LocalDateTime) value;
     }
     
     private BigDecimal calculateTotalAmount(List<OrderItem> orderItems) {
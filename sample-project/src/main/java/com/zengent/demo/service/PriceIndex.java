@@ -0,0 +1,184 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductCreatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductDeactivatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductUpdatedEvent;
+import com.zengent.demo.util.SortedLongIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory index of active products by price, answering price-range and cheapest or
+ * most expensive queries with binary search instead of a database query.
+ * <p>
+ * Prices are held in cents in a {@link SortedLongIndex}, two parallel {@code long} arrays
+ * with no object per product. The index is loaded at startup and follows committed
+ * product events; events arriving during the load are applied again once the loaded
+ * prices are in place. Until it is loaded, queries are not answered and callers fall
+ * back to the database.
+ */
+@Service
+public class PriceIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(PriceIndex.class);
+    
+    private final ProductRepository productRepository;
+    private final int loadBatchSize;
+    private final SortedLongIndex index = new SortedLongIndex();
+    private volatile boolean loaded;
+    /** Changes applied while loading, replayed after the loaded prices replace the index; null when not loading. */
+    private List<Runnable> pending;
+    
+    @Autowired
+    public PriceIndex(ProductRepository productRepository,
+                      @Value("${products.index.load-batch-size:5000}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.loadBatchSize = loadBatchSize;
+    }
+    
+    /**
+     * IDs of active products priced between the bounds (both inclusive), cheapest first.
+     * @return The product IDs, or empty if the index is not loaded yet
+     */
+    public Optional<long[]> findProductIdsBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return query(cents(minPrice, RoundingMode.CEILING), cents(maxPrice, RoundingMode.FLOOR) + 1, false,
+                Integer.MAX_VALUE);
+    }
+    
+    /**
+     * IDs of active products priced above a price, cheapest first.
+     */
+    public Optional<long[]> findProductIdsAbove(BigDecimal price) {
+        return query(cents(price, RoundingMode.FLOOR) + 1, Long.MAX_VALUE, false, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * IDs of active products priced below a price, cheapest first.
+     */
+    public Optional<long[]> findProductIdsBelow(BigDecimal price) {
+        return query(Long.MIN_VALUE, cents(price, RoundingMode.CEILING), false, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * IDs of the cheapest active products, cheapest first.
+     */
+    public Optional<long[]> findCheapestProductIds(int limit) {
+        return query(Long.MIN_VALUE, Long.MAX_VALUE, false, limit);
+    }
+    
+    /**
+     * IDs of the most expensive active products, most expensive first.
+     */
+    public Optional<long[]> findMostExpensiveProductIds(int limit) {
+        return query(Long.MIN_VALUE, Long.MAX_VALUE, true, limit);
+    }
+    
+    public int size() {
+        return index.size();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        try {
+            long[] ids = new long[1024];
+            long[] prices = new long[1024];
+            int count = 0;
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                rows = productRepository.findActivePricesAfter(afterId, PageRequest.of(0, loadBatchSize));
+                for (Object[] row : rows) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                        prices = Arrays.copyOf(prices, count * 2);
+                    }
+                    afterId = (Long) row[0];
+                    ids[count] = afterId;
+                    prices[count] = cents((BigDecimal) row[1], RoundingMode.HALF_UP);
+                    count++;
+                }
+            } while (rows.size() == loadBatchSize);
+            
+            // Changes committed during the scan may be missing from it; apply them again
+            synchronized (this) {
+                index.replaceAll(Arrays.copyOf(ids, count), Arrays.copyOf(prices, count));
+                pending.forEach(Runnable::run);
+                loaded = true;
+            }
+            log.info("Price index loaded: {} products", count);
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductCreated(ProductCreatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeactivated(ProductDeactivatedEvent event) {
+        long productId = event.getProduct().getId();
+        change(() -> index.remove(productId));
+    }
+    
+    // Private helper methods
+    
+    private Optional<long[]> query(long fromCents, long toCentsExclusive, boolean descending, int limit) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        return Optional.of(descending
+                ? index.idsInRangeDescending(fromCents, toCentsExclusive, limit)
+                : index.idsInRange(fromCents, toCentsExclusive, limit));
+    }
+    
+    private void apply(Product product) {
+        long productId = product.getId();
+        if (Boolean.TRUE.equals(product.getIsActive()) && product.getPrice() != null) {
+            long priceCents = cents(product.getPrice(), RoundingMode.HALF_UP);
+            change(() -> index.put(productId, priceCents));
+        } else {
+            change(() -> index.remove(productId));
+        }
+    }
+    
+    private synchronized void change(Runnable change) {
+        change.run();
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+    
+    private static long cents(BigDecimal price, RoundingMode rounding) {
+        return price.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+}
@@ -1,21 +1,51 @@
 package com.zengent.demo.service;
 
+import com.zengent.demo.dto.BulkStockResult;
+import com.zengent.demo.dto.ProductSuggestion;
+import com.zengent.demo.dto.StockAdjustment;
 import com.zengent.demo.model.Product;
 import com.zengent.demo.model.Category;
+import com.zengent.demo.model.StockHold;
 import com.zengent.demo.repository.ProductRepository;
 import com.zengent.demo.repository.CategoryRepository;
 import com.zengent.demo.service.events.ProductEventPublisher;
+import com.zengent.demo.service.events.StockChangeReason;
+import com.zengent.demo.service.search.InvertedIndex;
+import com.zengent.demo.service.search.ProductFacetService;
+import com.zengent.demo.service.search.ProductSearchService;
+import com.zengent.demo.service.search.ProductSuggestService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Service class for Product-related business operations.
@@ -27,18 +57,61 @@ public class ProductService {
     
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    /** Most IDs bound into one IN list when loading products by ID. */
+    private static final int IDS_PER_QUERY = 1000;
+    
     private final ProductEventPublisher eventPublisher;
     private final InventoryService inventoryService;
+    private final StockShardService stockShardService;
+    private final StockHoldService stockHoldService;
+    private final InventoryValuationService inventoryValuationService;
+    private final LowStockIndex lowStockIndex;
+    private final ProductSearchService productSearchService;
+    private final ProductSuggestService productSuggestService;
+    private final ProductFacetService productFacetService;
+    private final SkuFilter skuFilter;
+    private final PriceIndex priceIndex;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate separateReadTemplate;
+    private final int bulkStockChunkSize;
     
     @Autowired
     public ProductService(ProductRepository productRepository, 
                          CategoryRepository categoryRepository,
                          ProductEventPublisher eventPublisher,
-                         InventoryService inventoryService) {
+                         InventoryService inventoryService,
+                         StockShardService stockShardService,
+                         StockHoldService stockHoldService,
+                         InventoryValuationService inventoryValuationService,
+                         LowStockIndex lowStockIndex,
+                         ProductSearchService productSearchService,
+                         ProductSuggestService productSuggestService,
+                         ProductFacetService productFacetService,
+                         SkuFilter skuFilter,
+                         PriceIndex priceIndex,
+                         ObjectProvider<CacheManager> cacheManager,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${products.bulk-stock.chunk-size:500}") int bulkStockChunkSize) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.eventPublisher = eventPublisher;
         this.inventoryService = inventoryService;
+        this.stockShardService = stockShardService;
+        this.stockHoldService = stockHoldService;
+        this.inventoryValuationService = inventoryValuationService;
+        this.lowStockIndex = lowStockIndex;
+        this.productSearchService = productSearchService;
+        this.productSuggestService = productSuggestService;
+        this.productFacetService = productFacetService;
+        this.skuFilter = skuFilter;
+        this.priceIndex = priceIndex;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.separateReadTemplate = new TransactionTemplate(transactionManager);
+        this.separateReadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.separateReadTemplate.setReadOnly(true);
+        this.bulkStockChunkSize = bulkStockChunkSize;
     }
     
     /**
@@ -53,12 +126,28 @@ public class ProductService {
             product.setCategory(category);
         }
         
-        // Validate unique SKU
-        if (productRepository.existsBySku(product.getSku())) {
-            throw new IllegalArgumentException("Product with SKU already exists: " + product.getSku());
+        // Validate unique SKU; a SKU the filter has never seen cannot exist, so only the
+        // unique constraint is left to catch a concurrent create of the same SKU
+        Product savedProduct;
+        if (skuFilter.mightExist(product.getSku())) {
+            if (productRepository.existsBySku(product.getSku())) {
+                throw new IllegalArgumentException("Product with SKU already exists: " + product.getSku());
+            }
+            skuFilter.recordFalsePositive(product.getSku());
+            savedProduct = productRepository.save(product);
+        } else {
+            try {
+                savedProduct = productRepository.saveAndFlush(product);
+            } catch (DataIntegrityViolationException e) {
+                // Any other constraint may have failed; this session cannot query after the
+                // failed flush, so check for the SKU in a transaction of its own
+                String sku = product.getSku();
+                if (Boolean.TRUE.equals(separateReadTemplate.execute(status -> productRepository.existsBySku(sku)))) {
+                    throw new IllegalArgumentException("Product with SKU already exists: " + sku, e);
+                }
+                throw e;
+            }
         }
-        
-        Product savedProduct = productRepository.save(product);
         eventPublisher.publishProductCreated(savedProduct);
         
         return savedProduct;
@@ -73,6 +162,30 @@ public class ProductService {
         return productRepository.findById(id);
     }
     
+    /**
+     * Find all active products with pagination.
+     */
+    @Transactional(readOnly = true)
+    public Page<Product> findAll(Pageable pageable) {
+        return productRepository.findByIsActiveTrue(pageable);
+    }
+    
+    /**
+     * Save changes to an existing product and publish its previous valuation-relevant state.
+     */
+    @CacheEvict(value = "products", key = "#product.id")
+    public Product updateProduct(Product product) {
+        // Read the stored state before the changes are flushed
+        ProductRepository.StoredState previous = productRepository.findStoredStateById(product.getId())
+            .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+        
+        product.setUpdatedAt(LocalDateTime.now());
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishProductUpdated(savedProduct, previous.getPrice(), previous.getStockQuantity(),
+                previous.getCategoryId(), Boolean.TRUE.equals(previous.getIsActive()));
+        return savedProduct;
+    }
+    
     /**
      * Find products by category with pagination.
      */
@@ -82,20 +195,103 @@ public class ProductService {
     }
     
     /**
-     * Search products by name or description.
+     * Search active products by name, description or SKU.
+     * Unsorted requests are ranked by relevance from the search index when it is loaded;
+     * otherwise the database is searched for the term as a substring.
      */
     @Transactional(readOnly = true)
     public Page<Product> searchProducts(String searchTerm, Pageable pageable) {
-        return productRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-            searchTerm, searchTerm, pageable);
+        return searchProducts(searchTerm, false, pageable);
+    }
+    
+    /**
+     * Search active products, optionally tolerating typos in the search term.
+     * Fuzzy matching needs the search index; without it the exact database search is used.
+     */
+    @Transactional(readOnly = true)
+    public Page<Product> searchProducts(String searchTerm, boolean fuzzy, Pageable pageable) {
+        boolean ranked = pageable.isPaged() && pageable.getSort().isUnsorted()
+                && pageable.getOffset() <= Integer.MAX_VALUE;
+        Optional<InvertedIndex.SearchHits> hits = ranked
+                ? productSearchService.search(searchTerm, fuzzy, (int) pageable.getOffset(), pageable.getPageSize())
+                : Optional.empty();
+        if (!hits.isPresent()) {
+            return productRepository.findBySearchTerm(searchTerm, pageable);
+        }
+        return new PageImpl<>(loadInOrder(hits.get().getIds()), pageable, hits.get().getTotalHits());
     }
     
     /**
-     * Find products within price range.
+     * Count all active products matching a search term by category, price range, stock
+     * availability and average rating. Returns no facets while the facet index is loading.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, Long>> countSearchFacets(String searchTerm, boolean fuzzy) {
+        long[] ids = productSearchService.findMatchingIds(searchTerm, fuzzy)
+                .orElseGet(() -> productRepository.findIdsBySearchTerm(searchTerm).stream()
+                        .mapToLong(Long::longValue)
+                        .toArray());
+        return productFacetService.count(ids).orElse(Collections.emptyMap());
+    }
+    
+    /**
+     * Suggest products whose name or SKU completes the typed prefix, most popular first.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSuggestion> suggestProducts(String prefix, int limit) {
+        return productSuggestService.suggest(prefix, limit);
+    }
+    
+    /**
+     * Find products within price range, cheapest first when served from the price index.
      */
     @Transactional(readOnly = true)
     public List<Product> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return productRepository.findByPriceBetweenAndIsActiveTrue(minPrice, maxPrice);
+        return priceIndex.findProductIdsBetween(minPrice, maxPrice)
+                .map(this::loadInOrder)
+                .orElseGet(() -> productRepository.findByPriceBetweenAndIsActiveTrue(minPrice, maxPrice));
+    }
+    
+    /**
+     * Find products priced above a price.
+     */
+    @Transactional(readOnly = true)
+    public List<Product> findByPriceGreaterThan(BigDecimal price) {
+        return priceIndex.findProductIdsAbove(price)
+                .map(this::loadInOrder)
+                .orElseGet(() -> productRepository.findByPriceGreaterThanAndIsActiveTrue(price));
+    }
+    
+    /**
+     * Find products priced below a price.
+     */
+    @Transactional(readOnly = true)
+    public List<Product> findByPriceLessThan(BigDecimal price) {
+        return priceIndex.findProductIdsBelow(price)
+                .map(this::loadInOrder)
+                .orElseGet(() -> productRepository.findByPriceLessThanAndIsActiveTrue(price));
+    }
+    
+    /**
+     * Get the cheapest active products, cheapest first.
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getCheapestProducts(int limit) {
+        return priceIndex.findCheapestProductIds(limit)
+                .map(this::loadInOrder)
+                .orElseGet(() -> productRepository.findByIsActiveTrue(
+                        PageRequest.of(0, limit, Sort.by("price").ascending())).getContent());
+    }
+    
+    /**
+     * Get the most expensive active products, most expensive first.
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getMostExpensiveProducts(int limit) {
+        return priceIndex.findMostExpensiveProductIds(limit)
+                .map(this::loadInOrder)
+                .orElseGet(() -> productRepository.findByIsActiveTrue(
+                        PageRequest.of(0, limit, Sort.by("price").descending())).getContent());
     }
     
     /**
@@ -110,7 +306,98 @@ public class ProductService {
         inventoryService.updateProductStock(product, quantity);
         
         productRepository.save(product);
-        eventPublisher.publishStockUpdated(product, quantity);
+        eventPublisher.publishStockUpdated(product, quantity, StockChangeReason.ADJUSTMENT);
+    }
+    
+    /**
+     * Apply many stock deltas at once.
+     * Deltas are summed per product and applied with one UPDATE per chunk of
+     * {@code products.bulk-stock.chunk-size} products, one transaction per chunk. Each
+     * chunk evicts its products from the cache after commit and publishes one stock
+     * event per product with its net delta.
+     * @throws IllegalArgumentException if a product's summed delta overflows an int
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkStockResult adjustStock(List<StockAdjustment> adjustments) {
+        // Sum deltas per product; sorted IDs keep row lock order consistent across requests
+        Map<Long, Integer> deltas = new TreeMap<>();
+        try {
+            for (StockAdjustment adjustment : adjustments) {
+                deltas.merge(adjustment.getProductId(), adjustment.getQuantity(), Math::addExact);
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Net stock adjustment of a product is out of range", e);
+        }
+        deltas.values().removeIf(quantity -> quantity == 0);
+        
+        List<Long> productIds = new ArrayList<>(deltas.keySet());
+        List<Long> rejected = new ArrayList<>();
+        int updated = 0;
+        for (int start = 0; start < productIds.size(); start += bulkStockChunkSize) {
+            Map<Long, Integer> chunk = new TreeMap<>();
+            for (Long productId : productIds.subList(start, Math.min(start + bulkStockChunkSize, productIds.size()))) {
+                chunk.put(productId, deltas.get(productId));
+            }
+            
+            List<Long> result = transactionTemplate.execute(status -> applyStockChunk(chunk));
+            Set<Long> applied = result != null ? new HashSet<>(result) : Set.of();
+            evictProducts(chunk.keySet());
+            for (Long productId : chunk.keySet()) {
+                if (!applied.contains(productId)) {
+                    rejected.add(productId);
+                }
+            }
+            updated += applied.size();
+        }
+        return new BulkStockResult(adjustments.size(), deltas.size(), updated, rejected);
+    }
+    
+    /**
+     * Get available stock, including stock held in hot-mode counter shards.
+     */
+    @Transactional(readOnly = true)
+    public long getAvailableStock(Long productId) {
+        Product product = productRepository.findById(productId)
+            .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+        return inventoryService.getAvailableStock(product);
+    }
+    
+    /**
+     * Spread a product's stock updates over counter shards.
+     */
+    public void enableHotStock(Long productId, int shards) {
+        stockShardService.enable(productId, shards);
+    }
+    
+    /**
+     * Fold a product's counter shards into its stock and leave hot mode.
+     */
+    @CacheEvict(value = "products", key = "#productId")
+    public void disableHotStock(Long productId) {
+        stockShardService.disable(productId);
+    }
+    
+    /**
+     * Hold stock for a checkout; it is returned automatically unless confirmed in time.
+     */
+    @CacheEvict(value = "products", key = "#productId")
+    public StockHold placeStockHold(Long productId, int quantity, Duration ttl) {
+        return stockHoldService.placeHold(productId, quantity, ttl);
+    }
+    
+    /**
+     * Confirm a stock hold, keeping its stock taken.
+     */
+    public boolean confirmStockHold(Long holdId) {
+        return stockHoldService.confirmHold(holdId);
+    }
+    
+    /**
+     * Release a stock hold, returning its stock.
+     */
+    @CacheEvict(value = "products", allEntries = true)
+    public boolean releaseStockHold(Long holdId) {
+        return stockHoldService.releaseHold(holdId);
     }
     
     /**
@@ -120,6 +407,9 @@ public class ProductService {
     public void deactivateProduct(Long productId) {
         Product product = productRepository.findById(productId)
             .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+        if (!Boolean.TRUE.equals(product.getIsActive())) {
+            return;
+        }
         
         product.setIsActive(false);
         productRepository.save(product);
@@ -136,18 +426,95 @@ public class ProductService {
     }
     
     /**
-     * Calculate total inventory value.
+     * Get total inventory value from the running valuation.
      */
     @Transactional(readOnly = true)
     public BigDecimal calculateTotalInventoryValue() {
-        return productRepository.calculateTotalInventoryValue();
+        return inventoryValuationService.getTotalValue();
+    }
+    
+    /**
+     * Get inventory value per category ID from the running valuation.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> getInventoryValueByCategory() {
+        return inventoryValuationService.getValueByCategory();
     }
     
     /**
-     * Get low stock products for alerts.
+     * Get low stock products for alerts, lowest stock first.
+     * Stock includes stock not yet flushed from the shards of hot products.
+     * Matching IDs come from the low-stock index when it can answer the threshold.
      */
     @Transactional(readOnly = true)
     public List<Product> getLowStockProducts(int threshold) {
-        return productRepository.findByStockQuantityLessThanAndIsActiveTrue(threshold);
+        Optional<long[]> indexed = lowStockIndex.findProductIdsBelow(threshold);
+        if (!indexed.isPresent()) {
+            return productRepository.findActiveWithAvailableStockBelow(threshold);
+        }
+        long[] ids = indexed.get();
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+        
+        // Drop entries a concurrent change has already moved
+        List<Product> products = new ArrayList<>(ids.length);
+        for (Product product : loadInOrder(ids)) {
+            if (product.getStockQuantity() != null && inventoryService.getAvailableStock(product) < threshold) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+    
+    // Private helper methods
+    
+    /**
+     * Load products by ID with one query per {@value #IDS_PER_QUERY} IDs, keeping the given
+     * order and dropping inactive ones.
+     */
+    private List<Product> loadInOrder(long[] ids) {
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+        Map<Long, Product> byId = new HashMap<>();
+        for (int start = 0; start < ids.length; start += IDS_PER_QUERY) {
+            int end = Math.min(start + IDS_PER_QUERY, ids.length);
+            List<Long> chunk = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                chunk.add(ids[i]);
+            }
+            for (Product product : productRepository.findAllById(chunk)) {
+                byId.put(product.getId(), product);
+            }
+        }
+        List<Product> products = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Product product = byId.get(id);
+            if (product != null && Boolean.TRUE.equals(product.getIsActive())) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+    
+    private List<Long> applyStockChunk(Map<Long, Integer> deltas) {
+        List<Long> applied = inventoryService.applyStockDeltas(deltas);
+        // Load the updated products once; events are delivered to listeners with the new stock
+        for (Product product : productRepository.findAllById(applied)) {
+            eventPublisher.publishStockUpdated(product, deltas.get(product.getId()), StockChangeReason.ADJUSTMENT);
+        }
+        return applied;
+    }
+    
+    private void evictProducts(Iterable<Long> productIds) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        Cache cache = manager != null ? manager.getCache("products") : null;
+        if (cache == null) {
+            return;
+        }
+        for (Long productId : productIds) {
+            cache.evict(productId);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.dto.SalesReport;
+import com.zengent.demo.model.Order;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Accumulates partial sales aggregates (rollup days, raw order ranges) into a SalesReport.
+ */
+final class SalesReportBuilder {
+    
+    private static final int MONEY_SCALE = 2;
+    
+    private long orderCount;
+    private BigDecimal totalSales = BigDecimal.ZERO;
+    private BigDecimal minOrderValue;
+    private BigDecimal maxOrderValue;
+    private final Map<Order.OrderStatus, SalesReport.StatusSales> statusBreakdown =
+            new EnumMap<>(Order.OrderStatus.class);
+    
+    void addTotals(long count, BigDecimal total, BigDecimal min, BigDecimal max) {
+        orderCount += count;
+        totalSales = totalSales.add(total != null ? total : BigDecimal.ZERO);
+        if (min != null && (minOrderValue == null || min.compareTo(minOrderValue) < 0)) {
+            minOrderValue = min;
+        }
+        if (max != null && (maxOrderValue == null || max.compareTo(maxOrderValue) > 0)) {
+            maxOrderValue = max;
+        }
+    }
+    
+    void addStatus(Order.OrderStatus status, long count, BigDecimal total) {
+        if (status == null) {
+            return;
+        }
+        BigDecimal amount = total != null ? total : BigDecimal.ZERO;
+        statusBreakdown.merge(status, new SalesReport.StatusSales(count, amount), (a, b) ->
+                new SalesReport.StatusSales(a.getOrderCount() + b.getOrderCount(),
+                        a.getTotalSales().add(b.getTotalSales())));
+    }
+    
+    BigDecimal getTotalSales() {
+        return totalSales;
+    }
+    
+    SalesReport build(LocalDateTime startDate, LocalDateTime endDate) {
+        SalesReport report = new SalesReport();
+        report.setStartDate(startDate);
+        report.setEndDate(endDate);
+        report.setOrderCount(orderCount);
+        report.setTotalSales(totalSales);
+        report.setMinOrderValue(minOrderValue);
+        report.setMaxOrderValue(maxOrderValue);
+        report.setAverageOrderValue(orderCount > 0
+                ? totalSales.divide(BigDecimal.valueOf(orderCount), MONEY_SCALE, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        report.getStatusBreakdown().putAll(statusBreakdown);
+        return report;
+    }
+}
@@ -0,0 +1,35 @@
+package com.zengent.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the daily sales rollup at startup when the application is launched
+ * with {@code --rebuild-sales-rollup}, e.g. to backfill it from historical orders.
+ */
+@Component
+public class SalesRollupRebuildRunner implements ApplicationRunner {
+    
+    static final String OPTION = "rebuild-sales-rollup";
+    
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupRebuildRunner.class);
+    
+    private final SalesRollupService salesRollupService;
+    
+    @Autowired
+    public SalesRollupRebuildRunner(SalesRollupService salesRollupService) {
+        this.salesRollupService = salesRollupService;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(OPTION)) {
+            int days = salesRollupService.rebuild();
+            log.info("Rebuilt daily sales rollup: {} days", days);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.dto.SalesReport;
+import com.zengent.demo.model.DailySales;
+import com.zengent.demo.model.Order;
+import com.zengent.demo.repository.OrderRepository;
+import com.zengent.demo.repository.SalesRollupRepository;
+import com.zengent.demo.service.archive.OrderArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining the daily sales rollup and answering sales queries from it.
+ * Demonstrates incrementally maintained aggregates kept in step with the source
+ * rows inside the same transaction.
+ */
+@Service
+@Transactional
+public class SalesRollupService {
+    
+    /** A day is treated as closed once it ended this long ago, allowing late commits to land. */
+    private static final Duration CLOSE_GRACE = Duration.ofMinutes(5);
+    
+    private final SalesRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final OrderArchiveService orderArchiveService;
+    
+    /** Closed days never change again, so their rows are cached for the life of the process. */
+    private final Map<LocalDate, DailySales> closedDays = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public SalesRollupService(SalesRollupRepository rollupRepository, OrderRepository orderRepository,
+                              OrderArchiveService orderArchiveService) {
+        this.rollupRepository = rollupRepository;
+        this.orderRepository = orderRepository;
+        this.orderArchiveService = orderArchiveService;
+    }
+    
+    /**
+     * Add newly created orders to the rollup, one upsert per affected day and status.
+     * @param orders Orders created in the current transaction
+     */
+    public void recordOrdersCreated(Collection<Order> orders) {
+        Map<LocalDate, DailySales> days = new HashMap<>();
+        Map<LocalDate, Map<Order.OrderStatus, DailySales>> dayStatuses = new HashMap<>();
+        for (Order order : orders) {
+            LocalDate day = order.getOrderDate().toLocalDate();
+            accumulate(days.computeIfAbsent(day, DailySales::new), order.getTotalAmount());
+            if (order.getStatus() != null) {
+                accumulate(dayStatuses.computeIfAbsent(day, d -> new HashMap<>())
+                        .computeIfAbsent(order.getStatus(), s -> new DailySales(day)), order.getTotalAmount());
+            }
+        }
+        
+        for (DailySales day : days.values()) {
+            rollupRepository.addToDay(day.getSalesDate(), day.getOrderCount(), day.getTotalAmount(),
+                    day.getMinAmount(), day.getMaxAmount());
+        }
+        dayStatuses.forEach((day, statuses) -> statuses.forEach((status, totals) ->
+                rollupRepository.addToDayStatus(day, status.name(), totals.getOrderCount(), totals.getTotalAmount())));
+    }
+    
+    /**
+     * Move an order's amount from its previous status bucket to its new one.
+     * @param orderId The order ID
+     * @param from Previous status
+     * @param to New status
+     */
+    public void recordStatusChange(Long orderId, Order.OrderStatus from, Order.OrderStatus to) {
+        rollupRepository.addOrderToDayStatus(orderId, from.name(), -1);
+        rollupRepository.addOrderToDayStatus(orderId, to.name(), 1);
+    }
+    
+    /**
+     * Move the combined amount of several orders of one day between status buckets.
+     * @param day The orders' date
+     * @param orderCount Number of orders moved
+     * @param amount Combined total amount of the orders
+     * @param from Previous status
+     * @param to New status
+     */
+    public void recordStatusChange(LocalDate day, long orderCount, BigDecimal amount,
+                                   Order.OrderStatus from, Order.OrderStatus to) {
+        rollupRepository.addToDayStatus(day, from.name(), -orderCount, amount.negate());
+        rollupRepository.addToDayStatus(day, to.name(), orderCount, amount);
+    }
+    
+    /**
+     * Build a sales report: whole days come from the rollup, partial days at the
+     * edges of the range (including today) from the orders table, and also from the
+     * archive when they are older than the archive cutoff.
+     * @param startDate Start date
+     * @param endDate End date
+     * @return The sales report
+     */
+    @Transactional(readOnly = true)
+    public SalesReport getSalesReport(LocalDateTime startDate, LocalDateTime endDate) {
+        return summarize(startDate, endDate, true).build(startDate, endDate);
+    }
+    
+    /**
+     * Calculate total sales for a time period, using the rollup for whole days.
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Total sales amount
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal calculateTotalSales(LocalDateTime startDate, LocalDateTime endDate) {
+        return summarize(startDate, endDate, false).getTotalSales();
+    }
+    
+    /**
+     * Rebuild both rollup tables from the active and archived orders.
+     * Intended for backfilling and repair; run it while order traffic is low.
+     * @return Number of day rows written
+     */
+    public int rebuild() {
+        rollupRepository.deleteAllDayStatus();
+        rollupRepository.deleteAllDays();
+        int days = rollupRepository.rebuildDays();
+        rollupRepository.rebuildDayStatus();
+        
+        closedDays.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    closedDays.clear();
+                }
+            });
+        }
+        return days;
+    }
+    
+    // Private helper methods
+    
+    private SalesReportBuilder summarize(LocalDateTime startDate, LocalDateTime endDate, boolean includeBreakdown) {
+        SalesReportBuilder builder = new SalesReportBuilder();
+        LocalDate firstDay = firstWholeDay(startDate);
+        LocalDate lastDay = lastWholeDay(endDate);
+        
+        if (firstDay.isAfter(lastDay)) {
+            addRawBetween(builder, startDate, endDate);
+            return builder;
+        }
+        
+        LocalDateTime rollupStart = firstDay.atStartOfDay();
+        LocalDateTime rollupEnd = lastDay.plusDays(1).atStartOfDay();
+        if (startDate.isBefore(rollupStart)) {
+            addRaw(builder, orderRepository.summarizeSalesByStatusBefore(startDate, rollupStart));
+            if (orderArchiveService.mayContain(startDate)) {
+                addRaw(builder, orderArchiveService.summarizeSalesByStatusBefore(startDate, rollupStart));
+            }
+        }
+        if (!endDate.isBefore(rollupEnd)) {
+            addRawBetween(builder, rollupEnd, endDate);
+        }
+        
+        for (DailySales day : loadDays(firstDay, lastDay)) {
+            builder.addTotals(day.getOrderCount(), day.getTotalAmount(), day.getMinAmount(), day.getMaxAmount());
+        }
+        if (includeBreakdown) {
+            for (SalesRollupRepository.StatusTotals totals : rollupRepository.sumByStatus(firstDay, lastDay)) {
+                builder.addStatus(totals.getStatus(), totals.getOrderCount(), totals.getTotalAmount());
+            }
+        }
+        return builder;
+    }
+    
+    private List<DailySales> loadDays(LocalDate firstDay, LocalDate lastDay) {
+        List<DailySales> days = new ArrayList<>();
+        boolean allCached = true;
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            DailySales cached = closedDays.get(day);
+            if (cached == null) {
+                allCached = false;
+                break;
+            }
+            days.add(cached);
+        }
+        if (allCached) {
+            return days;
+        }
+        
+        days.clear();
+        Map<LocalDate, DailySales> stored = rollupRepository.findBySalesDateBetween(firstDay, lastDay).stream()
+                .collect(Collectors.toMap(DailySales::getSalesDate, Function.identity()));
+        LocalDateTime closedBefore = LocalDateTime.now().minus(CLOSE_GRACE);
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            DailySales row = stored.getOrDefault(day, new DailySales(day));
+            if (!day.plusDays(1).atStartOfDay().isAfter(closedBefore)) {
+                closedDays.putIfAbsent(day, row);
+            }
+            days.add(row);
+        }
+        return days;
+    }
+    
+    private void addRawBetween(SalesReportBuilder builder, LocalDateTime startDate, LocalDateTime endDate) {
+        addRaw(builder, orderRepository.summarizeSalesByStatus(startDate, endDate));
+        // Partial days older than the archive cutoff may have been moved out of the orders table
+        if (orderArchiveService.mayContain(startDate)) {
+            addRaw(builder, orderArchiveService.summarizeSalesByStatus(startDate, endDate));
+        }
+    }
+    
+    private static void addRaw(SalesReportBuilder builder, List<OrderRepository.StatusSalesSummary> rows) {
+        for (OrderRepository.StatusSalesSummary row : rows) {
+            builder.addTotals(row.getOrderCount(), row.getTotalAmount(), row.getMinAmount(), row.getMaxAmount());
+            builder.addStatus(row.getStatus(), row.getOrderCount(), row.getTotalAmount());
+        }
+    }
+    
+    private static void accumulate(DailySales totals, BigDecimal amount) {
+        totals.setOrderCount(totals.getOrderCount() + 1);
+        totals.setTotalAmount(totals.getTotalAmount().add(amount));
+        if (totals.getMinAmount() == null || amount.compareTo(totals.getMinAmount()) < 0) {
+            totals.setMinAmount(amount);
+        }
+        if (totals.getMaxAmount() == null || amount.compareTo(totals.getMaxAmount()) > 0) {
+            totals.setMaxAmount(amount);
+        }
+    }
+    
+    private static LocalDate firstWholeDay(LocalDateTime startDate) {
+        LocalDate day = startDate.toLocalDate();
+        return startDate.equals(day.atStartOfDay()) ? day : day.plusDays(1);
+    }
+    
+    private static LocalDate lastWholeDay(LocalDateTime endDate) {
+        LocalDate day = endDate.toLocalDate();
+        return endDate.toLocalTime().equals(LocalTime.MAX) ? day : day.minusDays(1);
+    }
+}
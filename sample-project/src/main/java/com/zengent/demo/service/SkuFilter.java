@@ -0,0 +1,125 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductCreatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductUpdatedEvent;
+import com.zengent.demo.util.ScalableBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Membership filter of existing SKUs, so uniqueness checks for new SKUs can skip the database.
+ * <p>
+ * SKUs are kept in a {@link ScalableBloomFilter} loaded at startup and extended from
+ * committed product events. They are lower-cased and trailing spaces are dropped, matching
+ * how the case-insensitive column collation compares them. Until the filter is loaded every
+ * SKU may exist. Exposes the estimated false-positive rate and memory use, plus the
+ * lookups that skipped the database and the false positives the database revealed.
+ */
+@Service
+public class SkuFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(SkuFilter.class);
+    
+    private final ProductRepository productRepository;
+    private final ScalableBloomFilter filter;
+    private final int loadBatchSize;
+    private final Counter skipped;
+    private final Counter checked;
+    private final Counter falsePositives;
+    private volatile boolean loaded;
+    
+    @Autowired
+    public SkuFilter(ProductRepository productRepository, MeterRegistry meterRegistry,
+                     @Value("${products.sku-filter.expected-skus:100000}") long expectedSkus,
+                     @Value("${products.sku-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                     @Value("${products.index.load-batch-size:5000}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.filter = new ScalableBloomFilter(expectedSkus, falsePositiveRate);
+        this.loadBatchSize = loadBatchSize;
+        this.skipped = meterRegistry.counter("products.sku_filter.lookups", "result", "absent");
+        this.checked = meterRegistry.counter("products.sku_filter.lookups", "result", "maybe");
+        this.falsePositives = meterRegistry.counter("products.sku_filter.false_positives");
+        meterRegistry.gauge("products.sku_filter.false_positive_rate", filter,
+                ScalableBloomFilter::expectedFalsePositiveRate);
+        meterRegistry.gauge("products.sku_filter.memory_bytes", filter, ScalableBloomFilter::memoryBytes);
+        meterRegistry.gauge("products.sku_filter.size", filter, ScalableBloomFilter::count);
+    }
+    
+    /**
+     * @return False if no product has the SKU; true if one may
+     */
+    public boolean mightExist(String sku) {
+        if (!loaded || sku == null) {
+            return true;
+        }
+        boolean maybe = filter.mightContain(normalize(sku));
+        (maybe ? checked : skipped).increment();
+        return maybe;
+    }
+    
+    /**
+     * Record that the database found no product for a SKU the filter reported as possibly taken.
+     */
+    public void recordFalsePositive(String sku) {
+        if (loaded && sku != null) {
+            falsePositives.increment();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = productRepository.findSkusAfter(afterId, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : rows) {
+                afterId = (Long) row[0];
+                filter.add(normalize((String) row[1]));
+            }
+        } while (rows.size() == loadBatchSize);
+        loaded = true;
+        log.info("SKU filter loaded: {} SKUs, {} bytes", filter.count(), filter.memoryBytes());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductCreated(ProductCreatedEvent event) {
+        add(event.getProduct().getSku());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        // A replaced SKU stays in the filter; it can only cause a database check
+        add(event.getProduct().getSku());
+    }
+    
+    // Private helper methods
+    
+    private void add(String sku) {
+        if (sku != null) {
+            filter.add(normalize(sku));
+        }
+    }
+    
+    private static String normalize(String sku) {
+        int end = sku.length();
+        while (end > 0 && sku.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return sku.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+}
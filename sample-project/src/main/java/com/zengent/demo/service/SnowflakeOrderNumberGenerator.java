@@ -0,0 +1,107 @@
+package com.zengent.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style order number generator.
+ * Each number packs a 41-bit millisecond timestamp, a 10-bit node ID and a 12-bit
+ * sequence into one long, rendered as "ORD-" plus 13 Crockford base-32 characters.
+ * Numbers are monotonic per node and sort lexicographically in creation order.
+ */
+@Component
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+    
+    /** 2024-01-01T00:00:00Z; timestamps are stored relative to this epoch. */
+    static final long EPOCH_MILLIS = 1704067200000L;
+    
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    
+    private static final String PREFIX = "ORD-";
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] DECODE_TABLE = new byte[128];
+    
+    static {
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE_TABLE[ALPHABET[i]] = (byte) i;
+        }
+    }
+    
+    private final long nodeId;
+    
+    /** Last issued (timestamp << SEQUENCE_BITS | sequence), advanced with CAS. */
+    private final AtomicLong lastState = new AtomicLong();
+    
+    public SnowflakeOrderNumberGenerator(@Value("${orders.number.node-id:0}") int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Order number node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+    
+    @Override
+    public String nextOrderNumber() {
+        return encode(nextId());
+    }
+    
+    /**
+     * Issue the next raw ID.
+     * Within one millisecond the sequence is incremented; when it overflows it carries
+     * into the timestamp field, borrowing the next millisecond instead of spinning.
+     * A clock that moves backwards is handled the same way, so IDs never go backwards.
+     */
+    long nextId() {
+        long next;
+        while (true) {
+            long previous = lastState.get();
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if (lastState.compareAndSet(previous, next)) {
+                break;
+            }
+        }
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+    
+    @Override
+    public Optional<DecodedOrderNumber> decode(String orderNumber) {
+        if (orderNumber == null || orderNumber.length() != PREFIX.length() + ENCODED_LENGTH
+                || !orderNumber.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < orderNumber.length(); i++) {
+            char c = orderNumber.charAt(i);
+            int value = c < DECODE_TABLE.length ? DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                return Optional.empty();
+            }
+            id = (id << 5) | value;
+        }
+        long timestamp = id >>> (NODE_BITS + SEQUENCE_BITS);
+        int node = (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+        int sequence = (int) (id & SEQUENCE_MASK);
+        return Optional.of(new DecodedOrderNumber(timestamp + EPOCH_MILLIS, node, sequence));
+    }
+    
+    static String encode(long id) {
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
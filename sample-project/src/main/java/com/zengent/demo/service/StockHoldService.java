@@ -0,0 +1,178 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.model.StockHold;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.repository.StockHoldRepository;
+import com.zengent.demo.service.events.ProductEventPublisher;
+import com.zengent.demo.service.events.StockChangeReason;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Service for time-limited stock holds.
+ * <p>
+ * Placing a hold takes the stock out of the product at once; the hold is then either
+ * confirmed (the stock stays taken), released (the stock is returned) or left to
+ * expire. The {@code stock_holds} table is the only record of live holds, so any
+ * instance can confirm, release or sweep any hold. The background sweeper claims
+ * expired holds in batches of {@code inventory.holds.sweep-batch-size}, oldest first,
+ * over the {@code expires_at} index with {@code FOR UPDATE SKIP LOCKED}, so instances
+ * sweeping at the same time take disjoint batches instead of waiting on each other.
+ * Each batch is one short transaction with a single set-based UPDATE of the products
+ * and one DELETE, so product rows are only locked for the duration of one batch. A
+ * stock event is published for every product that got stock back.
+ */
+@Service
+@Transactional
+public class StockHoldService {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockHoldService.class);
+    
+    private final StockHoldRepository holdRepository;
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final ProductEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final int sweepBatchSize;
+    
+    @Autowired
+    public StockHoldService(StockHoldRepository holdRepository, ProductRepository productRepository,
+                            InventoryService inventoryService, ProductEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${inventory.holds.default-ttl:PT15M}") Duration defaultTtl,
+                            @Value("${inventory.holds.max-ttl:PT2H}") Duration maxTtl,
+                            @Value("${inventory.holds.sweep-batch-size:1000}") int sweepBatchSize) {
+        this.holdRepository = holdRepository;
+        this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+    
+    /**
+     * Take stock out of a product for a limited time.
+     * @param productId The product ID
+     * @param quantity Quantity to hold
+     * @param ttl Time until the hold expires, or null for the default
+     * @return The hold
+     * @throws IllegalArgumentException if the product does not exist or the TTL is out of range
+     * @throws IllegalStateException if there is not enough stock
+     */
+    public StockHold placeHold(Long productId, int quantity, Duration ttl) {
+        Duration holdFor = ttl != null ? ttl : defaultTtl;
+        if (holdFor.isZero() || holdFor.isNegative() || holdFor.compareTo(maxTtl) > 0) {
+            throw new IllegalArgumentException("Hold duration must be positive and at most " + maxTtl);
+        }
+        Product product = productRepository.findById(productId)
+            .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+        if (!inventoryService.reserveStock(product, quantity)) {
+            throw new IllegalStateException("Insufficient stock");
+        }
+        
+        return holdRepository.save(new StockHold(productId, quantity, LocalDateTime.now().plus(holdFor)));
+    }
+    
+    /**
+     * Confirm a hold, keeping its stock taken.
+     * @param holdId The hold ID
+     * @return False if the hold does not exist or has expired
+     */
+    public boolean confirmHold(Long holdId) {
+        return holdRepository.deleteLiveHold(holdId, LocalDateTime.now()) > 0;
+    }
+    
+    /**
+     * Release a hold, returning its stock to the product.
+     * @param holdId The hold ID
+     * @return False if the hold does not exist or has expired (the sweeper returns its stock)
+     */
+    public boolean releaseHold(Long holdId) {
+        StockHold hold = holdRepository.findById(holdId).orElse(null);
+        // Deleting first makes the sweeper skip it, so the stock is returned only once
+        if (hold == null || holdRepository.deleteLiveHold(holdId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        productRepository.findById(hold.getProductId())
+            .ifPresent(product -> inventoryService.releaseReservedStock(product, hold.getQuantity()));
+        return true;
+    }
+    
+    /**
+     * Number of holds that have not been confirmed, released or swept yet.
+     */
+    @Transactional(readOnly = true)
+    public long getActiveHoldCount() {
+        return holdRepository.count();
+    }
+    
+    /**
+     * Return the stock of every expired hold, one transaction per batch.
+     * @return Number of holds expired
+     */
+    @Scheduled(fixedDelayString = "${inventory.holds.sweep-interval:PT5S}",
+               initialDelayString = "${inventory.holds.sweep-interval:PT5S}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int sweepExpiredHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        int swept;
+        do {
+            try {
+                Integer batch = transactionTemplate.execute(status -> expireBatch(now));
+                swept = batch != null ? batch : 0;
+            } catch (RuntimeException e) {
+                log.warn("Failed to expire stock holds; will retry on the next sweep", e);
+                break;
+            }
+            expired += swept;
+        } while (swept == sweepBatchSize);
+        if (expired > 0) {
+            log.info("Expired {} stock holds", expired);
+        }
+        return expired;
+    }
+    
+    // Private helper methods
+    
+    private int expireBatch(LocalDateTime now) {
+        // Holds claimed by a concurrent sweep, or being confirmed or released, are skipped
+        List<Long> locked = holdRepository.lockExpired(now, sweepBatchSize).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> returned = new HashMap<>();
+        for (Object[] row : holdRepository.sumQuantityByProduct(locked)) {
+            returned.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        holdRepository.returnHeldStock(locked);
+        holdRepository.deleteByIdIn(locked);
+        // Loaded after the update, so the events carry the new stock
+        for (Product product : productRepository.findAllById(returned.keySet())) {
+            eventPublisher.publishStockUpdated(product, returned.get(product.getId()), StockChangeReason.HOLD_EXPIRED);
+        }
+        return locked.size();
+    }
+}
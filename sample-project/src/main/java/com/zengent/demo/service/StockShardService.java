@@ -0,0 +1,238 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.model.ProductStockShard;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.repository.ProductStockShardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Service for sharded stock counters of hot products.
+ * <p>
+ * In hot mode a product's stock additions go to one of N rows in
+ * {@code product_stock_shards}, picked at random, instead of to the single
+ * {@code products} row, so concurrent updates lock different rows. Removals first try
+ * to take from a shard that holds enough and otherwise fold the shards and fall back to
+ * the conditional update of the product row. Within a transaction, shard rows are only
+ * locked in ascending shard order and before the product row, so removals, folds and
+ * the flush cannot deadlock. A write-behind flush folds the shards into
+ * {@code Product.stockQuantity} every {@code products.hot-stock.flush-interval}; each
+ * fold locks the product's shards and moves their sum in one transaction, so stock is
+ * neither lost nor counted twice if the process stops at any point.
+ */
+@Service
+@Transactional
+public class StockShardService {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockShardService.class);
+    
+    private final ProductStockShardRepository shardRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxShards;
+    
+    /** Shard count per hot product; refreshed from the database on every flush. */
+    private final Map<Long, Integer> hotProducts = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public StockShardService(ProductStockShardRepository shardRepository,
+                             ProductRepository productRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${products.hot-stock.max-shards:64}") int maxShards) {
+        this.shardRepository = shardRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxShards = maxShards;
+    }
+    
+    /**
+     * Check whether a product is in hot mode.
+     */
+    public boolean isHot(Long productId) {
+        return hotProducts.containsKey(productId);
+    }
+    
+    /**
+     * Put a product in hot mode with the given number of counter shards.
+     * @throws IllegalArgumentException if the product does not exist or the shard count is out of range
+     * @throws IllegalStateException if the product is already in hot mode
+     */
+    public void enable(Long productId, int shards) {
+        if (shards < 1 || shards > maxShards) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + maxShards);
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new IllegalArgumentException("Product not found");
+        }
+        if (!shardRepository.lockByProductId(productId).isEmpty()) {
+            throw new IllegalStateException("Product is already in hot stock mode");
+        }
+        
+        List<ProductStockShard> rows = new ArrayList<>(shards);
+        for (int shardNo = 0; shardNo < shards; shardNo++) {
+            rows.add(new ProductStockShard(productId, shardNo));
+        }
+        shardRepository.saveAll(rows);
+        // Only once the shards are visible, or a concurrent flush would drop the product again
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    hotProducts.put(productId, shards);
+                }
+            });
+        } else {
+            hotProducts.put(productId, shards);
+        }
+    }
+    
+    /**
+     * Fold a product's shards into its stock and leave hot mode.
+     */
+    public void disable(Long productId) {
+        fold(productId);
+        shardRepository.deleteByProductId(productId);
+        hotProducts.remove(productId);
+    }
+    
+    /**
+     * Add stock to a random shard if the product is in hot mode.
+     * @return True if the stock was added, false if the product is not in hot mode
+     */
+    public boolean tryAdd(Long productId, int quantity) {
+        Integer shards = hotProducts.get(productId);
+        if (shards == null) {
+            return false;
+        }
+        if (shardRepository.addToShard(productId, ThreadLocalRandom.current().nextInt(shards), quantity) == 0) {
+            // Hot mode was turned off elsewhere
+            hotProducts.remove(productId);
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Take stock from a shard holding at least the quantity, if the product is in hot mode.
+     * A shard is picked at random from a plain read, so removals spread over the shards.
+     * If no shard holds enough, the shards are folded into the product while no shard lock
+     * is held yet. If another removal wins the race for the picked shard, that shard may
+     * stay locked, so only the shards from it on are locked next, in order, and taken from
+     * or folded. The highest candidate is never picked first, so that range still holds a
+     * shard that had enough; with a single candidate all shards are locked up front. Shard
+     * locks are thus always taken in ascending order and before the product lock, as
+     * {@link #fold(Long)} and {@link #flush()} take them.
+     * @return True if the stock was taken from a shard; false if the caller should update the product row
+     */
+    public boolean takeOrFold(Long productId, int quantity) {
+        if (!hotProducts.containsKey(productId)) {
+            return false;
+        }
+        List<Integer> candidates = shardRepository.findShardNosWithAtLeast(productId, quantity);
+        if (candidates.isEmpty()) {
+            fold(productId);
+            return false;
+        }
+        if (candidates.size() == 1) {
+            return takeOrFoldLocked(productId, 0, quantity);
+        }
+        int shardNo = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size() - 1));
+        return shardRepository.takeFromShard(productId, shardNo, quantity) > 0
+                || takeOrFoldLocked(productId, shardNo, quantity);
+    }
+    
+    /**
+     * Stock added to a product's shards and not yet folded into the product.
+     */
+    @Transactional(readOnly = true)
+    public long getPendingStock(Long productId) {
+        return isHot(productId) ? shardRepository.sumDeltaByProductId(productId) : 0;
+    }
+    
+    /**
+     * Move the sum of a product's shards into its stock quantity.
+     * Runs in the caller's transaction; the shard rows stay locked until it ends.
+     */
+    public void fold(Long productId) {
+        fold(productId, shardRepository.lockByProductId(productId));
+    }
+    
+    /**
+     * Fold every hot product's shards into its stock, one transaction per product.
+     */
+    @Scheduled(fixedDelayString = "${products.hot-stock.flush-interval:PT1S}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flush() {
+        // Products enabled while the shards are read are not in the result; keep them
+        Set<Long> gone = new HashSet<>(hotProducts.keySet());
+        Map<Long, Integer> current = new HashMap<>();
+        for (Object[] row : shardRepository.countShardsByProduct()) {
+            current.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        gone.removeAll(current.keySet());
+        hotProducts.keySet().removeAll(gone);
+        hotProducts.putAll(current);
+        
+        for (Long productId : current.keySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> fold(productId));
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush stock shards of product {}", productId, e);
+            }
+        }
+    }
+    
+    // Private helper methods
+    
+    /**
+     * Lock the shards of a product from the given shard on and take from one holding
+     * enough, or else fold them into the product.
+     */
+    private boolean takeOrFoldLocked(Long productId, int fromShardNo, int quantity) {
+        List<ProductStockShard> shards = shardRepository.lockByProductIdFrom(productId, fromShardNo);
+        for (ProductStockShard shard : shards) {
+            if (shard.getDelta() >= quantity
+                    && shardRepository.takeFromShard(productId, shard.getShardNo(), quantity) > 0) {
+                return true;
+            }
+        }
+        fold(productId, shards);
+        return false;
+    }
+    
+    /**
+     * Fold the given shards, which the caller has already locked.
+     */
+    private void fold(Long productId, List<ProductStockShard> shards) {
+        long pending = 0;
+        for (ProductStockShard shard : shards) {
+            pending += shard.getDelta();
+        }
+        if (pending == 0) {
+            return;
+        }
+        productRepository.incrementStock(productId, Math.toIntExact(pending));
+        for (ProductStockShard shard : shards) {
+            shard.setDelta(0);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -78,6 +79,16 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
     
+    /**
+     * Find users by ID in a single query.
+     * @param userIds The user IDs to look up
+     * @return List of users found; unknown IDs are omitted
+     */
+    @Transactional(readOnly = true)
+    public List<User> findByIds(Collection<Long> userIds) {
+        return userRepository.findAllById(userIds);
+    }
+    
     /**
      * Authenticate user with username and password.
      * @param username The username
@@ -0,0 +1,43 @@
+package com.zengent.demo.service.alert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes each low-stock alert as JSON to {@code inventory.low-stock.kafka-topic},
+ * keyed by product ID so a product's alerts stay ordered within a partition.
+ */
+@Component
+@ConditionalOnProperty("inventory.low-stock.kafka-topic")
+public class KafkaLowStockAlertSink implements LowStockAlertSink {
+    
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+    
+    @Autowired
+    public KafkaLowStockAlertSink(KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper,
+                                  @Value("${inventory.low-stock.kafka-topic}") String topic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+    }
+    
+    @Override
+    public String getName() {
+        return "kafka";
+    }
+    
+    @Override
+    public void deliver(List<LowStockAlert> alerts) throws Exception {
+        for (LowStockAlert alert : alerts) {
+            kafkaTemplate.send(topic, String.valueOf(alert.getProductId()), objectMapper.writeValueAsString(alert));
+        }
+    }
+}
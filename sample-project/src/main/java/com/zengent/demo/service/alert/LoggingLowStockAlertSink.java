@@ -0,0 +1,29 @@
+package com.zengent.demo.service.alert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes low-stock alerts to the application log.
+ */
+@Component
+public class LoggingLowStockAlertSink implements LowStockAlertSink {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoggingLowStockAlertSink.class);
+    
+    @Override
+    public String getName() {
+        return "log";
+    }
+    
+    @Override
+    public void deliver(List<LowStockAlert> alerts) {
+        for (LowStockAlert alert : alerts) {
+            log.warn("Low stock alert for product {} ({}): {} left after {} updates",
+                    alert.getProductName(), alert.getSku(), alert.getStockQuantity(), alert.getOccurrences());
+        }
+    }
+}
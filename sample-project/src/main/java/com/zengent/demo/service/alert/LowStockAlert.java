@@ -0,0 +1,52 @@
+package com.zengent.demo.service.alert;
+
+import java.time.Instant;
+
+/**
+ * Low-stock alert for one product, coalesced over the alert window.
+ * Carries the latest stock seen and how many low-stock updates were merged into it.
+ */
+public class LowStockAlert {
+    
+    private final Long productId;
+    private final String sku;
+    private final String productName;
+    private final Instant firstSeenAt;
+    private int stockQuantity;
+    private Instant lastSeenAt;
+    private int occurrences;
+    
+    public LowStockAlert(Long productId, String sku, String productName, int stockQuantity, Instant seenAt) {
+        this.productId = productId;
+        this.sku = sku;
+        this.productName = productName;
+        this.stockQuantity = stockQuantity;
+        this.firstSeenAt = seenAt;
+        this.lastSeenAt = seenAt;
+        this.occurrences = 1;
+    }
+    
+    /**
+     * Fold a later alert for the same product into this one.
+     */
+    void merge(LowStockAlert later) {
+        this.stockQuantity = later.stockQuantity;
+        this.lastSeenAt = later.lastSeenAt;
+        this.occurrences += later.occurrences;
+    }
+    
+    // Getters
+    public Long getProductId() { return productId; }
+    
+    public String getSku() { return sku; }
+    
+    public String getProductName() { return productName; }
+    
+    public int getStockQuantity() { return stockQuantity; }
+    
+    public Instant getFirstSeenAt() { return firstSeenAt; }
+    
+    public Instant getLastSeenAt() { return lastSeenAt; }
+    
+    public int getOccurrences() { return occurrences; }
+}
@@ -0,0 +1,190 @@
+package com.zengent.demo.service.alert;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.service.InventoryService;
+import com.zengent.demo.service.events.ProductEventPublisher.StockUpdatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Low-stock alerting pipeline.
+ * <p>
+ * Stock updates that leave a product's available stock, including stock not yet
+ * flushed from its shards, at or below {@code inventory.low-stock.threshold} are
+ * offered to a bounded queue once their transaction commits; if the queue is full the
+ * alert is dropped and counted rather than blocking the caller. A dedicated worker
+ * drains the queue and coalesces alerts per product: the first alert for a product
+ * opens a window of {@code inventory.low-stock.window}, later ones are merged into it,
+ * and one alert per product is delivered to every {@link LowStockAlertSink} when the
+ * window closes.
+ */
+@Service
+public class LowStockAlertService {
+    
+    private static final Logger log = LoggerFactory.getLogger(LowStockAlertService.class);
+    
+    private final List<LowStockAlertSink> sinks;
+    private final InventoryService inventoryService;
+    private final MeterRegistry meterRegistry;
+    private final int threshold;
+    private final Duration window;
+    private final BlockingQueue<LowStockAlert> queue;
+    private final Counter enqueued;
+    private final Counter dropped;
+    
+    /** Open windows by product, in order of opening; touched by the worker thread only. */
+    private final Map<Long, LowStockAlert> pending = new LinkedHashMap<>();
+    
+    private volatile boolean running = true;
+    private Thread worker;
+    
+    @Autowired
+    public LowStockAlertService(List<LowStockAlertSink> sinks, InventoryService inventoryService,
+                                MeterRegistry meterRegistry,
+                                @Value("${inventory.low-stock.threshold:5}") int threshold,
+                                @Value("${inventory.low-stock.window:PT1M}") Duration window,
+                                @Value("${inventory.low-stock.queue-capacity:10000}") int queueCapacity) {
+        this.sinks = sinks;
+        this.inventoryService = inventoryService;
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+        this.window = window;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.enqueued = meterRegistry.counter("inventory.low_stock.alerts.enqueued");
+        this.dropped = meterRegistry.counter("inventory.low_stock.alerts.dropped");
+        meterRegistry.gauge("inventory.low_stock.queue.depth", queue, BlockingQueue::size);
+    }
+    
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::run, "low-stock-alerts");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+    
+    /**
+     * Queue an alert for a stock update once its transaction has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockUpdated(StockUpdatedEvent event) {
+        Product product = event.getProduct();
+        Integer stock = product.getStockQuantity();
+        // Shards only ever add to the row, so only a low row needs the shards read
+        if (stock == null || stock > threshold) {
+            return;
+        }
+        long available = inventoryService.getAvailableStock(product);
+        if (available <= threshold) {
+            offer(new LowStockAlert(product.getId(), product.getSku(), product.getName(),
+                    (int) available, Instant.now()));
+        }
+    }
+    
+    /**
+     * Queue an alert without blocking.
+     * @return False if the queue was full and the alert was dropped
+     */
+    public boolean offer(LowStockAlert alert) {
+        if (queue.offer(alert)) {
+            enqueued.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+    
+    // Private helper methods
+    
+    private void run() {
+        while (running) {
+            try {
+                LowStockAlert alert = queue.poll(nextWait(), TimeUnit.MILLISECONDS);
+                if (alert != null) {
+                    accept(alert);
+                    // Take whatever else is already queued without waiting
+                    while ((alert = queue.poll()) != null) {
+                        accept(alert);
+                    }
+                }
+                deliverDue(Instant.now());
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            }
+        }
+        // Flush open windows on shutdown
+        queue.forEach(this::accept);
+        deliverDue(Instant.MAX);
+    }
+    
+    private void accept(LowStockAlert alert) {
+        pending.merge(alert.getProductId(), alert, (open, later) -> {
+            open.merge(later);
+            return open;
+        });
+    }
+    
+    private long nextWait() {
+        if (pending.isEmpty()) {
+            return window.toMillis();
+        }
+        // Windows close in the order they were opened
+        Instant firstClose = pending.values().iterator().next().getFirstSeenAt().plus(window);
+        return Math.max(1, Duration.between(Instant.now(), firstClose).toMillis());
+    }
+    
+    private void deliverDue(Instant now) {
+        List<LowStockAlert> due = new ArrayList<>();
+        Iterator<LowStockAlert> it = pending.values().iterator();
+        while (it.hasNext()) {
+            LowStockAlert alert = it.next();
+            if (now != Instant.MAX && alert.getFirstSeenAt().plus(window).isAfter(now)) {
+                break;
+            }
+            due.add(alert);
+            it.remove();
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        
+        for (LowStockAlertSink sink : sinks) {
+            try {
+                sink.deliver(due);
+                meterRegistry.counter("inventory.low_stock.alerts.delivered", "sink", sink.getName())
+                        .increment(due.size());
+            } catch (Exception e) {
+                meterRegistry.counter("inventory.low_stock.alerts.failed", "sink", sink.getName())
+                        .increment(due.size());
+                log.warn("Low-stock alert sink {} failed for {} alerts", sink.getName(), due.size(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.zengent.demo.service.alert;
+
+import java.util.List;
+
+/**
+ * Destination for low-stock alerts. Every sink bean receives every batch.
+ */
+public interface LowStockAlertSink {
+    
+    /**
+     * Name used in logs and as the {@code sink} metric tag.
+     */
+    String getName();
+    
+    /**
+     * Deliver a batch of alerts, at most one per product.
+     * Called from the alert worker thread only.
+     */
+    void deliver(List<LowStockAlert> alerts) throws Exception;
+}
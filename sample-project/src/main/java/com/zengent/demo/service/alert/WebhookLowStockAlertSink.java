@@ -0,0 +1,43 @@
+package com.zengent.demo.service.alert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Stand-in for a webhook: renders the JSON payload that would be POSTed to
+ * {@code inventory.low-stock.webhook-url} and logs it instead of sending it.
+ */
+@Component
+@ConditionalOnProperty("inventory.low-stock.webhook-url")
+public class WebhookLowStockAlertSink implements LowStockAlertSink {
+    
+    private static final Logger log = LoggerFactory.getLogger(WebhookLowStockAlertSink.class);
+    
+    private final ObjectMapper objectMapper;
+    private final String webhookUrl;
+    
+    @Autowired
+    public WebhookLowStockAlertSink(ObjectMapper objectMapper,
+                                    @Value("${inventory.low-stock.webhook-url}") String webhookUrl) {
+        this.objectMapper = objectMapper;
+        this.webhookUrl = webhookUrl;
+    }
+    
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+    
+    @Override
+    public void deliver(List<LowStockAlert> alerts) throws Exception {
+        String payload = objectMapper.writeValueAsString(alerts);
+        log.info("POST {} {}", webhookUrl, payload);
+    }
+}
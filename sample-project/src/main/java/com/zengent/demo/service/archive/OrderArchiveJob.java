@@ -0,0 +1,33 @@
+package com.zengent.demo.service.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs order archiving on the {@code orders.archive.cron} schedule (set it to "-" to disable).
+ */
+@Component
+public class OrderArchiveJob {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveJob.class);
+    
+    private final OrderArchiveService orderArchiveService;
+    
+    @Autowired
+    public OrderArchiveJob(OrderArchiveService orderArchiveService) {
+        this.orderArchiveService = orderArchiveService;
+    }
+    
+    @Scheduled(cron = "${orders.archive.cron:0 30 3 * * *}")
+    public void run() {
+        try {
+            long archived = orderArchiveService.archiveOrders();
+            log.info("Archived {} orders", archived);
+        } catch (IllegalStateException e) {
+            log.info("Skipping scheduled order archiving: {}", e.getMessage());
+        }
+    }
+}
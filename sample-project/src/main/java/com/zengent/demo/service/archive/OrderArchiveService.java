@@ -0,0 +1,199 @@
+package com.zengent.demo.service.archive;
+
+import com.zengent.demo.model.ArchivedOrder;
+import com.zengent.demo.model.Order;
+import com.zengent.demo.model.User;
+import com.zengent.demo.repository.ArchivedOrderRepository;
+import com.zengent.demo.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Service moving historical orders out of the active tables and reading them back.
+ * <p>
+ * Orders in a final status ({@link #ARCHIVABLE_STATUSES}) whose order date is older than
+ * {@code orders.archive.min-age} are moved to {@code orders_archive} and
+ * {@code order_items_archive} in chunks, one transaction per chunk: lock a batch of IDs,
+ * copy orders and items with INSERT ... SELECT, then delete them from the active tables.
+ * A run that stops part way leaves every chunk either fully moved or untouched, so the
+ * next run simply continues with what is left.
+ * <p>
+ * Because only orders older than the minimum age are ever moved, any read whose range
+ * starts at or after {@code now - min-age} can skip the archive entirely.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderArchiveService {
+    
+    /** Statuses after which an order no longer changes. */
+    public static final Set<Order.OrderStatus> ARCHIVABLE_STATUSES = Collections.unmodifiableSet(
+            EnumSet.of(Order.OrderStatus.DELIVERED, Order.OrderStatus.CANCELLED, Order.OrderStatus.RETURNED));
+    
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    @Autowired
+    public OrderArchiveService(ArchivedOrderRepository archivedOrderRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${orders.archive.min-age:P90D}") Duration minAge,
+                               @Value("${orders.archive.chunk-size:1000}") int chunkSize) {
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Move every eligible order to the archive, one chunk per transaction.
+     * @return Number of orders archived by this run
+     * @throws IllegalStateException if an archive run is already in progress
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long archiveOrders() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Order archiving is already running");
+        }
+        try {
+            LocalDateTime cutoff = getCutoff();
+            List<String> statuses = ARCHIVABLE_STATUSES.stream().map(Enum::name).collect(Collectors.toList());
+            long archived = 0;
+            int moved;
+            do {
+                Integer result = transactionTemplate.execute(status -> archiveChunk(statuses, cutoff));
+                moved = result != null ? result : 0;
+                archived += moved;
+            } while (moved == chunkSize);
+            return archived;
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    /**
+     * Orders placed before this date may have been archived.
+     */
+    public LocalDateTime getCutoff() {
+        return LocalDateTime.now().minus(minAge);
+    }
+    
+    /**
+     * Check whether a range starting at the given date may include archived orders.
+     * @param startDate Start of the range
+     * @return True if the archive has to be read as well
+     */
+    public boolean mayContain(LocalDateTime startDate) {
+        return startDate.isBefore(getCutoff());
+    }
+    
+    /**
+     * Find an archived order by order number.
+     * @param orderNumber The order number
+     * @return Optional containing the order if found
+     */
+    public Optional<Order> findByOrderNumber(String orderNumber) {
+        return archivedOrderRepository.findByOrderNumber(orderNumber).map(ArchivedOrder::toOrder);
+    }
+    
+    /**
+     * Get archived orders within a date range.
+     * @param startDate Start date
+     * @param endDate End date
+     * @return List of archived orders within the date range
+     */
+    public List<Order> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return toOrders(archivedOrderRepository.findByOrderDateBetween(startDate, endDate));
+    }
+    
+    /**
+     * Get archived orders of a user placed on or after a date, newest first.
+     * @param user The user
+     * @param since Earliest order date
+     * @return List of archived orders
+     */
+    public List<Order> getRecentOrdersByUser(User user, LocalDateTime since) {
+        return toOrders(archivedOrderRepository.findRecentOrdersByUser(user, since));
+    }
+    
+    /**
+     * Get a page of a user's archived orders, newest first, after an optional position.
+     * @param user The user
+     * @param orderDate Order date of the last order already returned, or null for the first page
+     * @param id ID of the last order already returned
+     * @param limit Maximum number of orders
+     * @return Archived orders ordered by orderDate, id descending
+     */
+    public List<Order> getSeekPageByUser(User user, LocalDateTime orderDate, Long id, Pageable limit) {
+        List<ArchivedOrder> orders = orderDate == null
+                ? archivedOrderRepository.findFirstSeekPageByUser(user, limit)
+                : archivedOrderRepository.findSeekPageByUserAfter(user, orderDate, id, limit);
+        return toOrders(orders);
+    }
+    
+    /**
+     * Aggregate archived sales for a time period, grouped by order status.
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Count, total, minimum and maximum order amount per status
+     */
+    public List<OrderRepository.StatusSalesSummary> summarizeSalesByStatus(LocalDateTime startDate,
+                                                                          LocalDateTime endDate) {
+        return archivedOrderRepository.summarizeSalesByStatus(startDate, endDate);
+    }
+    
+    /**
+     * Same as summarizeSalesByStatus, for the half-open range [startDate, endDate).
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (exclusive)
+     * @return Count, total, minimum and maximum order amount per status
+     */
+    public List<OrderRepository.StatusSalesSummary> summarizeSalesByStatusBefore(LocalDateTime startDate,
+                                                                                LocalDateTime endDate) {
+        return archivedOrderRepository.summarizeSalesByStatusBefore(startDate, endDate);
+    }
+    
+    // Private helper methods
+    
+    private int archiveChunk(List<String> statuses, LocalDateTime cutoff) {
+        List<Long> ids = archivedOrderRepository.lockArchivableOrderIds(statuses, cutoff, chunkSize).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        
+        // Parents before children on the way in, children before parents on the way out
+        archivedOrderRepository.copyOrdersToArchive(ids);
+        archivedOrderRepository.copyOrderItemsToArchive(ids);
+        archivedOrderRepository.deleteActiveOrderItems(ids);
+        archivedOrderRepository.deleteActiveOrders(ids);
+        return ids.size();
+    }
+    
+    private static List<Order> toOrders(List<ArchivedOrder> archivedOrders) {
+        List<Order> orders = new ArrayList<>(archivedOrders.size());
+        for (ArchivedOrder archivedOrder : archivedOrders) {
+            orders.add(archivedOrder.toOrder());
+        }
+        return orders;
+    }
+}
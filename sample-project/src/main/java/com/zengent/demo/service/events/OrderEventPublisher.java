@@ -0,0 +1,58 @@
+package com.zengent.demo.service.events;
+
+import com.zengent.demo.model.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Event publisher for order-related events.
+ * Demonstrates event-driven architecture patterns.
+ */
+@Component
+public class OrderEventPublisher {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    public OrderEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+    
+    public void publishOrderCreated(Order order) {
+        eventPublisher.publishEvent(new OrderCreatedEvent(order));
+    }
+    
+    public void publishOrderStatusChanged(List<Long> orderIds, Order.OrderStatus fromStatus, Order.OrderStatus toStatus) {
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(orderIds, fromStatus, toStatus));
+    }
+    
+    // Event classes
+    public static class OrderCreatedEvent {
+        private final Order order;
+        
+        public OrderCreatedEvent(Order order) {
+            this.order = order;
+        }
+        
+        public Order getOrder() { return order; }
+    }
+    
+    public static class OrderStatusChangedEvent {
+        private final List<Long> orderIds;
+        private final Order.OrderStatus fromStatus;
+        private final Order.OrderStatus toStatus;
+        
+        public OrderStatusChangedEvent(List<Long> orderIds, Order.OrderStatus fromStatus, Order.OrderStatus toStatus) {
+            this.orderIds = orderIds;
+            this.fromStatus = fromStatus;
+            this.toStatus = toStatus;
+        }
+        
+        public List<Long> getOrderIds() { return orderIds; }
+        public Order.OrderStatus getFromStatus() { return fromStatus; }
+        public Order.OrderStatus getToStatus() { return toStatus; }
+    }
+}
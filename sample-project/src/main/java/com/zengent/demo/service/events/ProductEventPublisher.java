@@ -5,6 +5,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+
 /**
  * Event publisher for product-related events.
  * Demonstrates event-driven architecture patterns.
@@ -23,8 +25,14 @@ public class ProductEventPublisher {
         eventPublisher.publishEvent(new ProductCreatedEvent(product));
     }
     
-    public void publishStockUpdated(Product product, int quantity) {
-        eventPublisher.publishEvent(new StockUpdatedEvent(product, quantity));
+    public void publishStockUpdated(Product product, int quantity, StockChangeReason reason) {
+        eventPublisher.publishEvent(new StockUpdatedEvent(product, quantity, reason));
+    }
+    
+    public void publishProductUpdated(Product product, BigDecimal previousPrice, Integer previousStockQuantity,
+                                      Long previousCategoryId, boolean previouslyActive) {
+        eventPublisher.publishEvent(new ProductUpdatedEvent(product, previousPrice, previousStockQuantity,
+                previousCategoryId, previouslyActive));
     }
     
     public void publishProductDeactivated(Product product) {
@@ -45,14 +53,40 @@ public class ProductEventPublisher {
     public static class StockUpdatedEvent {
         private final Product product;
         private final int quantity;
+        private final StockChangeReason reason;
         
-        public StockUpdatedEvent(Product product, int quantity) {
+        public StockUpdatedEvent(Product product, int quantity, StockChangeReason reason) {
             this.product = product;
             this.quantity = quantity;
+            this.reason = reason;
         }
         
         public Product getProduct() { return product; }
         public int getQuantity() { return quantity; }
+        public StockChangeReason getReason() { return reason; }
+    }
+    
+    public static class ProductUpdatedEvent {
+        private final Product product;
+        private final BigDecimal previousPrice;
+        private final Integer previousStockQuantity;
+        private final Long previousCategoryId;
+        private final boolean previouslyActive;
+        
+        public ProductUpdatedEvent(Product product, BigDecimal previousPrice, Integer previousStockQuantity,
+                                   Long previousCategoryId, boolean previouslyActive) {
+            this.product = product;
+            this.previousPrice = previousPrice;
+            this.previousStockQuantity = previousStockQuantity;
+            this.previousCategoryId = previousCategoryId;
+            this.previouslyActive = previouslyActive;
+        }
+        
+        public Product getProduct() { return product; }
+        public BigDecimal getPreviousPrice() { return previousPrice; }
+        public Integer getPreviousStockQuantity() { return previousStockQuantity; }
+        public Long getPreviousCategoryId() { return previousCategoryId; }
+        public boolean isPreviouslyActive() { return previouslyActive; }
     }
     
     public static class ProductDeactivatedEvent {
@@ -0,0 +1,51 @@
+package com.zengent.demo.service.events;
+
+/**
+ * Why a product's stock changed.
+ * Codes are stored in the stock journal and must not be reused.
+ */
+public enum StockChangeReason {
+    
+    /** Absolute stock level at the start of a journal, not a delta. */
+    BASELINE(0),
+    /** Manual or bulk stock adjustment. */
+    ADJUSTMENT(1),
+    /** Stock taken for an order or a hold. */
+    RESERVATION(2),
+    /** Stock returned from a cancelled order or a released hold. */
+    RELEASE(3),
+    /** Stock returned by an expired hold. */
+    HOLD_EXPIRED(4),
+    /** Absolute stock level of a newly created product, not a delta. */
+    CREATED(5);
+    
+    private final byte code;
+    
+    StockChangeReason(int code) {
+        this.code = (byte) code;
+    }
+    
+    public byte getCode() {
+        return code;
+    }
+    
+    /**
+     * Whether records with this reason carry an absolute stock level rather than a delta.
+     */
+    public boolean isAbsolute() {
+        return this == BASELINE || this == CREATED;
+    }
+    
+    /**
+     * Look up a reason by its stored code.
+     * @return The reason, or null if the code is unknown
+     */
+    public static StockChangeReason fromCode(byte code) {
+        for (StockChangeReason reason : values()) {
+            if (reason.code == code) {
+                return reason;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.zengent.demo.service.export;
+
+/**
+ * Supported order export formats.
+ */
+public enum OrderExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+    
+    private final String contentType;
+    private final String fileExtension;
+    
+    OrderExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+    
+    public String getContentType() { return contentType; }
+    public String getFileExtension() { return fileExtension; }
+    
+    /**
+     * Resolve a format from a request parameter, case-insensitively.
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static OrderExportFormat fromParameter(String value) {
+        for (OrderExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value);
+    }
+}
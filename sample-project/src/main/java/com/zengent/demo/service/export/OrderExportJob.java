@@ -0,0 +1,72 @@
+package com.zengent.demo.service.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * State of a background order export written to a local file.
+ */
+public class OrderExportJob {
+    
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+    
+    private final String id;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final OrderExportFormat format;
+    private final boolean gzip;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final Path file;
+    
+    private volatile Status status = Status.QUEUED;
+    private volatile long orderCount;
+    private volatile String error;
+    private volatile LocalDateTime completedAt;
+    
+    public OrderExportJob(String id, LocalDateTime startDate, LocalDateTime endDate,
+                          OrderExportFormat format, boolean gzip, Path file) {
+        this.id = id;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.format = format;
+        this.gzip = gzip;
+        this.file = file;
+    }
+    
+    void markRunning() {
+        this.status = Status.RUNNING;
+    }
+    
+    void markCompleted(long orderCount) {
+        this.orderCount = orderCount;
+        this.completedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+    
+    void markFailed(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+    
+    // Getters
+    public String getId() { return id; }
+    public LocalDateTime getStartDate() { return startDate; }
+    public LocalDateTime getEndDate() { return endDate; }
+    public OrderExportFormat getFormat() { return format; }
+    public boolean isGzip() { return gzip; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public Status getStatus() { return status; }
+    public long getOrderCount() { return orderCount; }
+    public String getError() { return error; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    
+    @JsonIgnore
+    public Path getFile() { return file; }
+    
+    public String getFileName() { return file.getFileName().toString(); }
+}
@@ -0,0 +1,135 @@
+package com.zengent.demo.service.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service running order exports in the background and keeping the result as a
+ * local file that can be downloaded later.
+ * <p>
+ * Finished jobs (completed or failed) are forgotten and their files deleted once they
+ * are older than {@code orders.export.retention}.
+ */
+@Service
+public class OrderExportJobService {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderExportJobService.class);
+    
+    private final OrderExportService orderExportService;
+    private final Path exportDirectory;
+    private final Duration retention;
+    private final ExecutorService executor;
+    private final Map<String, OrderExportJob> jobs = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public OrderExportJobService(OrderExportService orderExportService,
+                                 @Value("${orders.export.directory:${java.io.tmpdir}/order-exports}") String exportDirectory,
+                                 @Value("${orders.export.max-concurrent-jobs:1}") int maxConcurrentJobs,
+                                 @Value("${orders.export.retention:PT24H}") Duration retention) {
+        this.orderExportService = orderExportService;
+        this.exportDirectory = Paths.get(exportDirectory);
+        this.retention = retention;
+        this.executor = Executors.newFixedThreadPool(maxConcurrentJobs, runnable -> {
+            Thread thread = new Thread(runnable, "order-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Queue an export of the orders placed within a date range.
+     * @param startDate Start date
+     * @param endDate End date
+     * @param format Output format
+     * @param gzip Whether to gzip-compress the file
+     * @return The queued job
+     */
+    public OrderExportJob submit(LocalDateTime startDate, LocalDateTime endDate,
+                                 OrderExportFormat format, boolean gzip) {
+        String id = UUID.randomUUID().toString();
+        String fileName = "orders-" + id + "." + format.getFileExtension() + (gzip ? ".gz" : "");
+        OrderExportJob job = new OrderExportJob(id, startDate, endDate, format, gzip,
+                exportDirectory.resolve(fileName));
+        jobs.put(id, job);
+        executor.execute(() -> run(job));
+        return job;
+    }
+    
+    /**
+     * Find an export job by ID.
+     * @param jobId The job ID
+     * @return Optional containing the job if known
+     */
+    public Optional<OrderExportJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+    
+    /**
+     * Forget finished jobs older than the retention period and delete their files.
+     * @return Number of jobs removed
+     */
+    @Scheduled(fixedDelayString = "${orders.export.cleanup-interval:PT15M}",
+               initialDelayString = "${orders.export.cleanup-interval:PT15M}")
+    public int cleanup() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int removed = 0;
+        for (Iterator<OrderExportJob> it = jobs.values().iterator(); it.hasNext(); ) {
+            OrderExportJob job = it.next();
+            LocalDateTime completedAt = job.getCompletedAt();
+            if (completedAt == null || completedAt.isAfter(cutoff)) {
+                continue;
+            }
+            it.remove();
+            removed++;
+            try {
+                Files.deleteIfExists(job.getFile());
+            } catch (IOException e) {
+                log.warn("Failed to delete export file {}", job.getFile(), e);
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} expired order export jobs", removed);
+        }
+        return removed;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void run(OrderExportJob job) {
+        job.markRunning();
+        try {
+            Files.createDirectories(exportDirectory);
+            long count;
+            try (OutputStream out = Files.newOutputStream(job.getFile())) {
+                count = orderExportService.exportOrders(job.getStartDate(), job.getEndDate(),
+                        job.getFormat(), job.isGzip(), out);
+            }
+            job.markCompleted(count);
+        } catch (IOException | RuntimeException e) {
+            job.markFailed(e.getMessage());
+        }
+    }
+}
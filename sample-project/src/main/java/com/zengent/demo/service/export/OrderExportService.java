@@ -0,0 +1,215 @@
+package com.zengent.demo.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zengent.demo.model.Order;
+import com.zengent.demo.model.OrderItem;
+import com.zengent.demo.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service streaming orders out of the database as NDJSON or CSV.
+ * Demonstrates constant-memory exports: rows are read through a forward-only
+ * cursor, written immediately and detached, so heap use does not grow with the
+ * number of orders exported.
+ */
+@Service
+public class OrderExportService {
+    
+    private static final String[] CSV_HEADER = {
+        "order_id", "order_number", "user_id", "status", "order_date", "total_amount",
+        "shipping_address", "billing_address", "product_name", "product_code",
+        "quantity", "unit_price", "discount_amount", "item_total"
+    };
+    
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    public OrderExportService(OrderRepository orderRepository, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Export orders placed within a date range to the given stream.
+     * The stream is not closed; when gzip is requested the gzip trailer is written.
+     * @param startDate Start date
+     * @param endDate End date
+     * @param format Output format
+     * @param gzip Whether to gzip-compress the output
+     * @param out Destination stream
+     * @return Number of orders exported
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(LocalDateTime startDate, LocalDateTime endDate,
+                             OrderExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+        OutputStream target = gzipOut != null ? gzipOut : out;
+        
+        long count;
+        try (Stream<Order> orders = orderRepository.streamByOrderDateBetween(startDate, endDate)) {
+            count = format == OrderExportFormat.CSV
+                    ? writeCsv(orders.iterator(), target)
+                    : writeNdjson(orders.iterator(), target);
+        }
+        
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+        out.flush();
+        return count;
+    }
+    
+    // Private helper methods
+    
+    private long writeNdjson(Iterator<Order> orders, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Long previousId = null;
+            while (orders.hasNext()) {
+                Order order = orders.next();
+                if (order.getId().equals(previousId)) {
+                    continue;
+                }
+                previousId = order.getId();
+                
+                json.writeStartObject();
+                json.writeNumberField("id", order.getId());
+                json.writeStringField("orderNumber", order.getOrderNumber());
+                writeNullableNumber(json, "userId", order.getUser() != null ? order.getUser().getId() : null);
+                json.writeStringField("status", order.getStatus() != null ? order.getStatus().name() : null);
+                json.writeStringField("orderDate", String.valueOf(order.getOrderDate()));
+                json.writeNumberField("totalAmount", order.getTotalAmount());
+                json.writeStringField("shippingAddress", order.getShippingAddress());
+                json.writeStringField("billingAddress", order.getBillingAddress());
+                json.writeArrayFieldStart("items");
+                if (order.getOrderItems() != null) {
+                    for (OrderItem item : order.getOrderItems()) {
+                        json.writeStartObject();
+                        json.writeStringField("productName", item.getProductName());
+                        json.writeStringField("productCode", item.getProductCode());
+                        writeNullableNumber(json, "quantity", item.getQuantity() != null ? item.getQuantity().longValue() : null);
+                        json.writeNumberField("unitPrice", item.getUnitPrice());
+                        json.writeNumberField("discountAmount", item.getDiscountAmount());
+                        json.writeNumberField("totalPrice", item.getTotalPrice());
+                        json.writeEndObject();
+                    }
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeRaw('\n');
+                
+                release(order);
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private long writeCsv(Iterator<Order> orders, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writeCsvRow(writer, CSV_HEADER);
+        Long previousId = null;
+        while (orders.hasNext()) {
+            Order order = orders.next();
+            if (order.getId().equals(previousId)) {
+                continue;
+            }
+            previousId = order.getId();
+            
+            String[] row = new String[CSV_HEADER.length];
+            row[0] = String.valueOf(order.getId());
+            row[1] = order.getOrderNumber();
+            row[2] = order.getUser() != null ? String.valueOf(order.getUser().getId()) : null;
+            row[3] = order.getStatus() != null ? order.getStatus().name() : null;
+            row[4] = String.valueOf(order.getOrderDate());
+            row[5] = toPlainString(order.getTotalAmount());
+            row[6] = order.getShippingAddress();
+            row[7] = order.getBillingAddress();
+            
+            // One line per order item; orders without items still get one line
+            if (order.getOrderItems() == null || order.getOrderItems().isEmpty()) {
+                writeCsvRow(writer, row);
+            } else {
+                for (OrderItem item : order.getOrderItems()) {
+                    row[8] = item.getProductName();
+                    row[9] = item.getProductCode();
+                    row[10] = item.getQuantity() != null ? String.valueOf(item.getQuantity()) : null;
+                    row[11] = toPlainString(item.getUnitPrice());
+                    row[12] = toPlainString(item.getDiscountAmount());
+                    row[13] = toPlainString(item.getTotalPrice());
+                    writeCsvRow(writer, row);
+                }
+            }
+            
+            release(order);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+    
+    private void release(Order order) {
+        // Detach (cascades to items) so the persistence context stays bounded
+        entityManager.detach(order);
+    }
+    
+    private static void writeNullableNumber(JsonGenerator json, String field, Long value) throws IOException {
+        if (value != null) {
+            json.writeNumberField(field, value);
+        } else {
+            json.writeNullField(field);
+        }
+    }
+    
+    private static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+    
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+    
+    private static String toPlainString(BigDecimal value) {
+        return value != null ? value.toPlainString() : null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.zengent.demo.service.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Naming of stock journal segment files: {@code stock-journal-<index>.log}, where the
+ * zero-padded index increases by one per segment.
+ */
+final class JournalSegments {
+    
+    private static final Pattern NAME = Pattern.compile("stock-journal-(\\d{12})\\.log");
+    
+    private JournalSegments() {
+    }
+    
+    static Path path(Path directory, long index) {
+        return directory.resolve(String.format("stock-journal-%012d.log", index));
+    }
+    
+    static long index(Path segment) {
+        Matcher matcher = NAME.matcher(segment.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a journal segment: " + segment);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+    
+    /**
+     * Segment files of a journal directory, oldest first.
+     */
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.zengent.demo.service.journal;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductCreatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductUpdatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.StockUpdatedEvent;
+import com.zengent.demo.service.events.StockChangeReason;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of committed stock changes.
+ * <p>
+ * Every stock change is queued once its transaction commits and written by a dedicated
+ * thread as a fixed-size, checksummed {@link StockJournalRecord} into a memory-mapped
+ * segment file of {@code inventory.journal.segment-records} records; a full segment is
+ * forced to disk and the next one is started. Written records are forced at least every
+ * {@code inventory.journal.force-interval}. When the queue is full, callers wait rather
+ * than lose records. Stock events are journaled as deltas, a created product as its
+ * absolute initial stock, and a product update that changed the stock as the difference.
+ * A new journal starts with a baseline record of every product's stock, shard stock
+ * included, written during startup before the writer accepts any event, so
+ * {@link StockJournalReplay} can rebuild absolute stock levels. On restart, writing
+ * resumes after the last intact record of the newest segment.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.journal.enabled", havingValue = "true")
+public class StockJournal {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockJournal.class);
+    
+    private final ProductRepository productRepository;
+    private final Path directory;
+    private final int segmentBytes;
+    private final Duration forceInterval;
+    private final BlockingQueue<StockJournalRecord> queue;
+    private final Counter written;
+    private final Counter failed;
+    private final CRC32 crc = new CRC32();
+    
+    // Current segment; touched by the writer thread only once it has started
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentIndex;
+    private int position;
+    
+    private volatile boolean running = true;
+    private Thread writer;
+    
+    @Autowired
+    public StockJournal(ProductRepository productRepository, MeterRegistry meterRegistry,
+                        @Value("${inventory.journal.directory:data/stock-journal}") String directory,
+                        @Value("${inventory.journal.segment-records:1048576}") int segmentRecords,
+                        @Value("${inventory.journal.force-interval:PT1S}") Duration forceInterval,
+                        @Value("${inventory.journal.queue-capacity:65536}") int queueCapacity) {
+        this.productRepository = productRepository;
+        this.directory = Paths.get(directory);
+        this.segmentBytes = Math.multiplyExact(segmentRecords, StockJournalRecord.SIZE);
+        this.forceInterval = forceInterval;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.written = meterRegistry.counter("inventory.journal.records.written");
+        this.failed = meterRegistry.counter("inventory.journal.records.failed");
+        meterRegistry.gauge("inventory.journal.queue.depth", queue, BlockingQueue::size);
+    }
+    
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = JournalSegments.list(directory);
+        if (segments.isEmpty()) {
+            openSegment(1);
+            // Before the writer starts, so no delta can be overwritten by an older baseline
+            writeBaseline();
+        } else {
+            recover(segments.get(segments.size() - 1));
+        }
+        log.info("Stock journal at {}, segment {} offset {}", directory, segmentIndex, position);
+        
+        writer = new Thread(this::run, "stock-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockUpdated(StockUpdatedEvent event) {
+        Product product = event.getProduct();
+        StockChangeReason reason = event.getReason() != null ? event.getReason() : StockChangeReason.ADJUSTMENT;
+        append(new StockJournalRecord(product.getId(), System.currentTimeMillis(), event.getQuantity(), reason));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductCreated(ProductCreatedEvent event) {
+        Product product = event.getProduct();
+        append(new StockJournalRecord(product.getId(), System.currentTimeMillis(),
+                stockOf(product.getStockQuantity()), StockChangeReason.CREATED));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        Product product = event.getProduct();
+        int delta = stockOf(product.getStockQuantity()) - stockOf(event.getPreviousStockQuantity());
+        if (delta != 0) {
+            append(new StockJournalRecord(product.getId(), System.currentTimeMillis(), delta,
+                    StockChangeReason.ADJUSTMENT));
+        }
+    }
+    
+    /**
+     * Queue a record for writing, waiting for space if the queue is full.
+     */
+    public void append(StockJournalRecord record) {
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.increment();
+        }
+    }
+    
+    // Private helper methods
+    
+    private void writeBaseline() {
+        // Stock levels include stock not yet folded from hot products' shards
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = productRepository.findAllStockLevels();
+        List<StockJournalRecord> records = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            records.add(new StockJournalRecord(((Number) row[0]).longValue(), now,
+                    ((Number) row[1]).intValue(), StockChangeReason.BASELINE));
+        }
+        write(records);
+        segment.force();
+        log.info("Stock journal started with a baseline of {} products", rows.size());
+    }
+    
+    private static int stockOf(Integer stock) {
+        return stock != null ? stock : 0;
+    }
+    
+    private void run() {
+        List<StockJournalRecord> batch = new ArrayList<>();
+        long lastForce = System.nanoTime();
+        // Keep going after stop() until everything queued has been written
+        while (running || !queue.isEmpty()) {
+            try {
+                StockJournalRecord record = queue.poll(forceInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    batch.add(record);
+                    queue.drainTo(batch);
+                    write(batch);
+                    batch.clear();
+                }
+                if (System.nanoTime() - lastForce >= forceInterval.toNanos()) {
+                    segment.force();
+                    lastForce = System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                // Interrupted by stop(); the loop drains what is left
+            }
+        }
+        segment.force();
+        closeSegment();
+    }
+    
+    private void write(List<StockJournalRecord> batch) {
+        for (StockJournalRecord record : batch) {
+            try {
+                if (position + StockJournalRecord.SIZE > segment.capacity()) {
+                    roll();
+                }
+                StockJournalRecord.write(segment, position, record.getProductId(), record.getTimestamp(),
+                        record.getDelta(), record.getReason(), crc);
+                position += StockJournalRecord.SIZE;
+                written.increment();
+            } catch (IOException e) {
+                failed.increment();
+                log.error("Failed to write stock journal record for product {}", record.getProductId(), e);
+            }
+        }
+    }
+    
+    private void roll() throws IOException {
+        segment.force();
+        closeSegment();
+        openSegment(segmentIndex + 1);
+    }
+    
+    private void recover(Path last) throws IOException {
+        segmentIndex = JournalSegments.index(last);
+        channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Keep the size of an existing segment even if the configured size has changed
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), StockJournalRecord.SIZE));
+        position = 0;
+        while (position + StockJournalRecord.SIZE <= segment.capacity()
+                && StockJournalRecord.isValid(segment, position, crc)) {
+            position += StockJournalRecord.SIZE;
+        }
+    }
+    
+    private void openSegment(long index) throws IOException {
+        segmentIndex = index;
+        channel = FileChannel.open(JournalSegments.path(directory, index),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        position = 0;
+    }
+    
+    private void closeSegment() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close stock journal segment {}", segmentIndex, e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.zengent.demo.service.journal;
+
+import com.zengent.demo.service.events.StockChangeReason;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Fixed-size binary record of the stock journal.
+ * <p>
+ * Layout, {@value #SIZE} bytes, big-endian:
+ * <pre>
+ *  0  long  product ID
+ *  8  long  timestamp, epoch milliseconds
+ * 16  int   stock delta (absolute stock for {@link StockChangeReason#isAbsolute() absolute} reasons)
+ * 20  byte  reason code
+ * 21  7     reserved, zero
+ * 28  int   CRC32 of bytes 0-27
+ * </pre>
+ * Unwritten space is zero-filled, which never carries a valid checksum, so the end of
+ * the journal is the first record that fails its check.
+ */
+public final class StockJournalRecord {
+    
+    public static final int SIZE = 32;
+    
+    private static final int CHECKED_BYTES = 28;
+    
+    private final long productId;
+    private final long timestamp;
+    private final int delta;
+    private final StockChangeReason reason;
+    
+    public StockJournalRecord(long productId, long timestamp, int delta, StockChangeReason reason) {
+        this.productId = productId;
+        this.timestamp = timestamp;
+        this.delta = delta;
+        this.reason = reason;
+    }
+    
+    /**
+     * Write a record at an absolute offset, leaving the buffer's position unchanged.
+     * @param crc Checksum instance to reuse; it is reset before use
+     */
+    public static void write(ByteBuffer buffer, int offset, long productId, long timestamp, int delta,
+                             StockChangeReason reason, CRC32 crc) {
+        buffer.putLong(offset, productId);
+        buffer.putLong(offset + 8, timestamp);
+        buffer.putInt(offset + 16, delta);
+        buffer.put(offset + 20, reason.getCode());
+        for (int i = 21; i < CHECKED_BYTES; i++) {
+            buffer.put(offset + i, (byte) 0);
+        }
+        buffer.putInt(offset + CHECKED_BYTES, checksum(buffer, offset, crc));
+    }
+    
+    /**
+     * Whether the record at an absolute offset is complete and intact.
+     * @param crc Checksum instance to reuse; it is reset before use
+     */
+    public static boolean isValid(ByteBuffer buffer, int offset, CRC32 crc) {
+        return buffer.getInt(offset + CHECKED_BYTES) == checksum(buffer, offset, crc)
+                && StockChangeReason.fromCode(buffer.get(offset + 20)) != null;
+    }
+    
+    /**
+     * Read the record at an absolute offset; the record is not checked.
+     */
+    public static StockJournalRecord read(ByteBuffer buffer, int offset) {
+        return new StockJournalRecord(buffer.getLong(offset), buffer.getLong(offset + 8),
+                buffer.getInt(offset + 16), StockChangeReason.fromCode(buffer.get(offset + 20)));
+    }
+    
+    public static long productId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset);
+    }
+    
+    public static int delta(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + 16);
+    }
+    
+    public static byte reasonCode(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + 20);
+    }
+    
+    public long getProductId() { return productId; }
+    public long getTimestamp() { return timestamp; }
+    public int getDelta() { return delta; }
+    public StockChangeReason getReason() { return reason; }
+    
+    // Private helper methods
+    
+    private static int checksum(ByteBuffer buffer, int offset, CRC32 crc) {
+        // A duplicate shares the content but has its own position and limit
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + CHECKED_BYTES).position(offset);
+        crc.reset();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+}
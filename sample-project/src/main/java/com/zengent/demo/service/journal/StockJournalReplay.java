@@ -0,0 +1,117 @@
+package com.zengent.demo.service.journal;
+
+import com.zengent.demo.service.events.StockChangeReason;
+import com.zengent.demo.util.LongLongHashMap;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Rebuilds stock levels from a stock journal directory.
+ * <p>
+ * Segments are memory-mapped read-only and scanned in order; baseline and created records
+ * set a product's stock and all others add their delta. In the last segment the first
+ * record failing its checksum marks the end of the journal; in earlier segments such
+ * records are counted as corrupt and skipped. Can be run without the application:
+ * <pre>
+ * java -cp app.jar -Dloader.main=com.zengent.demo.service.journal.StockJournalReplay \
+ *     org.springframework.boot.loader.PropertiesLauncher &lt;journal-dir&gt; [--print]
+ * </pre>
+ */
+public final class StockJournalReplay {
+    
+    private StockJournalReplay() {
+    }
+    
+    /**
+     * Replay every segment of a journal directory.
+     * @param directory The journal directory
+     * @return Stock level per product and replay counts
+     * @throws IOException if a segment cannot be read
+     */
+    public static Result replay(Path directory) throws IOException {
+        long started = System.nanoTime();
+        LongLongHashMap stock = new LongLongHashMap(1024);
+        CRC32 crc = new CRC32();
+        long records = 0;
+        long corrupt = 0;
+        
+        List<Path> segments = JournalSegments.list(directory);
+        for (int s = 0; s < segments.size(); s++) {
+            boolean last = s == segments.size() - 1;
+            try (FileChannel channel = FileChannel.open(segments.get(s), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int end = (int) (channel.size() / StockJournalRecord.SIZE) * StockJournalRecord.SIZE;
+                for (int offset = 0; offset < end; offset += StockJournalRecord.SIZE) {
+                    if (!StockJournalRecord.isValid(buffer, offset, crc)) {
+                        if (last) {
+                            break;
+                        }
+                        corrupt++;
+                        continue;
+                    }
+                    long productId = StockJournalRecord.productId(buffer, offset);
+                    int delta = StockJournalRecord.delta(buffer, offset);
+                    if (StockChangeReason.fromCode(StockJournalRecord.reasonCode(buffer, offset)).isAbsolute()) {
+                        stock.put(productId, delta);
+                    } else {
+                        stock.put(productId, stock.get(productId, 0) + delta);
+                    }
+                    records++;
+                }
+            }
+        }
+        return new Result(stock, segments.size(), records, corrupt, (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    /**
+     * Print replay counts to stderr and, with {@code --print}, "productId,stock" lines to stdout.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: StockJournalReplay <journal-dir> [--print]");
+            System.exit(2);
+        }
+        Result result = replay(Paths.get(args[0]));
+        System.err.printf("Replayed %d records from %d segments in %d ms: %d products, %d corrupt records%n",
+                result.getRecords(), result.getSegments(), result.getElapsedMillis(),
+                result.getStock().size(), result.getCorruptRecords());
+        if (args.length > 1 && "--print".equals(args[1])) {
+            PrintStream out = System.out;
+            result.getStock().forEach((productId, quantity) -> out.println(productId + "," + quantity));
+        }
+    }
+    
+    /**
+     * Outcome of a replay.
+     */
+    public static class Result {
+        private final LongLongHashMap stock;
+        private final int segments;
+        private final long records;
+        private final long corruptRecords;
+        private final long elapsedMillis;
+        
+        public Result(LongLongHashMap stock, int segments, long records, long corruptRecords, long elapsedMillis) {
+            this.stock = stock;
+            this.segments = segments;
+            this.records = records;
+            this.corruptRecords = corruptRecords;
+            this.elapsedMillis = elapsedMillis;
+        }
+        
+        /** Stock level per product ID. */
+        public LongLongHashMap getStock() { return stock; }
+        public int getSegments() { return segments; }
+        public long getRecords() { return records; }
+        public long getCorruptRecords() { return corruptRecords; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+}
@@ -0,0 +1,459 @@
+package com.zengent.demo.service.search;
+
+import com.zengent.demo.util.LongLongHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index with BM25 ranking over {@code long} document IDs.
+ * <p>
+ * Each term maps to a postings list of (document, weighted term frequency) in primitive
+ * arrays; a forward map of document to terms lets a document be replaced or removed by
+ * touching only its own postings. Queries score every document containing at least one
+ * query term with BM25 ({@value #K1}, {@value #B}) and keep the best
+ * {@code offset + limit} in a bounded heap.
+ * <p>
+ * For typo-tolerant queries the term dictionary is also indexed by padded trigrams. A
+ * query term is expanded to the indexed terms sharing enough trigrams to possibly be
+ * within the allowed edit distance; those candidates are verified with a bounded
+ * Levenshtein distance, and a match at distance d scores 1 / (1 + d) of an exact match.
+ * Thread-safe: queries share a read lock and updates take the write lock.
+ */
+public class InvertedIndex {
+    
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    
+    /** Most dictionary terms a single query term is expanded to. */
+    static final int MAX_EXPANSIONS = 50;
+    
+    private static final Comparator<ScoredDoc> WORST_FIRST =
+            Comparator.comparingDouble((ScoredDoc doc) -> doc.score)
+                    .thenComparing(Comparator.comparingLong((ScoredDoc doc) -> doc.id).reversed());
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, String[]> termsByDoc = new HashMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    /** Document ID to length (sum of weighted term frequencies), as double bits. */
+    private final LongLongHashMap lengths = new LongLongHashMap(1024);
+    private double totalLength;
+    
+    /**
+     * Index a document, replacing any previous version of it.
+     * @param docId Document ID
+     * @param termWeights Weighted frequency of each term in the document
+     */
+    public void put(long docId, Map<String, Float> termWeights) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+            if (termWeights.isEmpty()) {
+                return;
+            }
+            double length = 0;
+            for (Map.Entry<String, Float> entry : termWeights.entrySet()) {
+                Postings list = postings.get(entry.getKey());
+                if (list == null) {
+                    list = new Postings();
+                    postings.put(entry.getKey(), list);
+                    for (String gram : trigrams(entry.getKey())) {
+                        termsByTrigram.computeIfAbsent(gram, g -> new HashSet<>()).add(entry.getKey());
+                    }
+                }
+                list.add(docId, entry.getValue());
+                length += entry.getValue();
+            }
+            termsByDoc.put(docId, termWeights.keySet().toArray(new String[0]));
+            lengths.put(docId, Double.doubleToRawLongBits(length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove a document.
+     * @return True if the document was indexed
+     */
+    public boolean remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            return removeInternal(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByDoc.clear();
+            termsByTrigram.clear();
+            lengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByDoc.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Rank the documents matching any of the terms.
+     * @param terms Query terms; duplicates are ignored
+     * @param offset Number of top hits to skip
+     * @param limit Maximum number of hits to return
+     * @return The requested hits, best first, and the total number of matches
+     */
+    public SearchHits search(Collection<String> terms, int offset, int limit) {
+        Map<String, Double> boosts = new HashMap<>();
+        for (String term : terms) {
+            boosts.put(term, 1.0);
+        }
+        lock.readLock().lock();
+        try {
+            return score(boosts, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Rank the documents matching any of the terms or an indexed term close to one of them.
+     * The allowed distance grows with the term length: none below 4 characters, one edit
+     * below 7, otherwise {@code maxEdits}.
+     * @param terms Query terms; duplicates are ignored
+     * @param maxEdits Maximum edit distance (insertions, deletions, substitutions)
+     * @param offset Number of top hits to skip
+     * @param limit Maximum number of hits to return
+     * @return The requested hits, best first, and the total number of matches
+     */
+    public SearchHits searchFuzzy(Collection<String> terms, int maxEdits, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return score(fuzzyBoosts(terms, maxEdits), offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * IDs of all documents matching any of the terms, unranked and in no particular order.
+     * @param terms Query terms; duplicates are ignored
+     * @param maxEdits Maximum edit distance, allowed as in {@link #searchFuzzy}; 0 for exact matches
+     * @return The matching document IDs
+     */
+    public long[] matchingIds(Collection<String> terms, int maxEdits) {
+        lock.readLock().lock();
+        try {
+            Collection<String> matchedTerms = maxEdits > 0 ? fuzzyBoosts(terms, maxEdits).keySet() : terms;
+            LongLongHashMap matches = new LongLongHashMap();
+            for (String term : matchedTerms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    matches.put(list.docIds[i], 0);
+                }
+            }
+            long[] ids = new long[matches.size()];
+            int[] count = {0};
+            matches.forEach((docId, ignored) -> ids[count[0]++] = docId);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Private helper methods
+    
+    private SearchHits score(Map<String, Double> boosts, int offset, int limit) {
+        int docCount = termsByDoc.size();
+        if (docCount == 0) {
+            return new SearchHits(new long[0], new double[0], 0);
+        }
+        double averageLength = totalLength / docCount;
+        
+        LongLongHashMap scores = new LongLongHashMap();
+        for (Map.Entry<String, Double> boosted : boosts.entrySet()) {
+            Postings list = postings.get(boosted.getKey());
+            if (list == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (docCount - list.size + 0.5) / (list.size + 0.5)) * boosted.getValue();
+            for (int i = 0; i < list.size; i++) {
+                long docId = list.docIds[i];
+                double tf = list.weights[i];
+                double norm = 1 - B + B * Double.longBitsToDouble(lengths.get(docId, 0)) / averageLength;
+                double score = idf * tf * (K1 + 1) / (tf + K1 * norm);
+                scores.put(docId, Double.doubleToRawLongBits(
+                        Double.longBitsToDouble(scores.get(docId, 0)) + score));
+            }
+        }
+        return top(scores, offset, limit);
+    }
+    
+    /**
+     * Indexed terms close to any of the query terms, with their best score boost.
+     */
+    private Map<String, Double> fuzzyBoosts(Collection<String> terms, int maxEdits) {
+        Map<String, Double> boosts = new HashMap<>();
+        for (String term : terms) {
+            int edits = Math.min(maxEdits, term.length() < 4 ? 0 : term.length() < 7 ? 1 : 2);
+            expand(term, edits).forEach((match, boost) -> boosts.merge(match, boost, Math::max));
+        }
+        return boosts;
+    }
+    
+    /**
+     * Indexed terms within {@code maxEdits} of a term, with their score boost.
+     */
+    private Map<String, Double> expand(String term, int maxEdits) {
+        Map<String, Double> matches = new HashMap<>();
+        if (postings.containsKey(term)) {
+            matches.put(term, 1.0);
+        }
+        // Each edit changes at most three trigrams; below that bound every term would be a candidate
+        Set<String> grams = trigrams(term);
+        int minShared = grams.size() - 3 * maxEdits;
+        if (maxEdits == 0 || minShared <= 0) {
+            return matches;
+        }
+        
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> candidates = termsByTrigram.get(gram);
+            if (candidates != null) {
+                for (String candidate : candidates) {
+                    shared.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        
+        List<String> verified = new ArrayList<>();
+        Map<String, Integer> distances = new HashMap<>();
+        shared.forEach((candidate, count) -> {
+            if (count >= minShared && !candidate.equals(term)
+                    && Math.abs(candidate.length() - term.length()) <= maxEdits) {
+                int distance = boundedLevenshtein(term, candidate, maxEdits);
+                if (distance <= maxEdits) {
+                    verified.add(candidate);
+                    distances.put(candidate, distance);
+                }
+            }
+        });
+        // Keep the closest, most frequent candidates
+        verified.sort(Comparator.comparingInt((String candidate) -> distances.get(candidate))
+                .thenComparing(Comparator.comparingInt((String candidate) -> postings.get(candidate).size).reversed())
+                .thenComparing(Comparator.naturalOrder()));
+        for (String candidate : verified.subList(0, Math.min(MAX_EXPANSIONS, verified.size()))) {
+            matches.put(candidate, 1.0 / (1 + distances.get(candidate)));
+        }
+        return matches;
+    }
+    
+    /**
+     * Distinct trigrams of a term padded with a boundary marker on each side;
+     * terms only hold letters and digits, so the marker never occurs in them.
+     */
+    private static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+    
+    /**
+     * Levenshtein distance, or {@code max + 1} as soon as it is known to exceed {@code max}.
+     */
+    private static int boundedLevenshtein(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+    
+    private boolean removeInternal(long docId) {
+        String[] terms = termsByDoc.remove(docId);
+        if (terms == null) {
+            return false;
+        }
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(docId) && list.size == 0) {
+                postings.remove(term);
+                for (String gram : trigrams(term)) {
+                    Set<String> gramTerms = termsByTrigram.get(gram);
+                    if (gramTerms != null && gramTerms.remove(term) && gramTerms.isEmpty()) {
+                        termsByTrigram.remove(gram);
+                    }
+                }
+            }
+        }
+        totalLength -= Double.longBitsToDouble(lengths.get(docId, 0));
+        lengths.remove(docId);
+        return true;
+    }
+    
+    private static SearchHits top(LongLongHashMap scores, int offset, int limit) {
+        int wanted = (int) Math.min((long) offset + limit, scores.size());
+        PriorityQueue<ScoredDoc> heap = new PriorityQueue<>(Math.max(1, wanted + 1), WORST_FIRST);
+        scores.forEach((docId, bits) -> {
+            if (wanted == 0) {
+                return;
+            }
+            ScoredDoc doc = new ScoredDoc(docId, Double.longBitsToDouble(bits));
+            if (heap.size() < wanted) {
+                heap.add(doc);
+            } else if (WORST_FIRST.compare(doc, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(doc);
+            }
+        });
+        
+        // The heap yields the worst first; fill the arrays from the back and leave the
+        // best offset hits, which belong to earlier pages, in the heap
+        int count = Math.max(0, heap.size() - offset);
+        long[] ids = new long[count];
+        double[] hitScores = new double[count];
+        for (int i = count - 1; i >= 0; i--) {
+            ScoredDoc doc = heap.poll();
+            ids[i] = doc.id;
+            hitScores[i] = doc.score;
+        }
+        return new SearchHits(ids, hitScores, scores.size());
+    }
+    
+    private static final class ScoredDoc {
+        final long id;
+        final double score;
+        
+        ScoredDoc(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+    
+    /** Documents containing one term, in insertion order; removal swaps in the last entry. */
+    /**
+     * Documents containing a term. Long lists also map each document to its position,
+     * so removing a document from a common term does not scan the list.
+     */
+    private static final class Postings {
+        /** Lists longer than this keep a position map. */
+        private static final int POSITIONS_THRESHOLD = 32;
+        
+        long[] docIds = new long[2];
+        float[] weights = new float[2];
+        int size;
+        private LongLongHashMap positions;
+        
+        void add(long docId, float weight) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docIds[size] = docId;
+            weights[size] = weight;
+            if (positions != null) {
+                positions.put(docId, size);
+            } else if (size == POSITIONS_THRESHOLD) {
+                positions = new LongLongHashMap(size * 2);
+                for (int i = 0; i <= size; i++) {
+                    positions.put(docIds[i], i);
+                }
+            }
+            size++;
+        }
+        
+        boolean remove(long docId) {
+            int index = indexOf(docId);
+            if (index < 0) {
+                return false;
+            }
+            // Move the last entry into the gap
+            size--;
+            docIds[index] = docIds[size];
+            weights[index] = weights[size];
+            if (positions != null) {
+                positions.remove(docId);
+                if (index < size) {
+                    positions.put(docIds[index], index);
+                }
+            }
+            return true;
+        }
+        
+        private int indexOf(long docId) {
+            if (positions != null) {
+                return (int) positions.get(docId, -1);
+            }
+            for (int i = 0; i < size; i++) {
+                if (docIds[i] == docId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+    
+    /**
+     * One page of ranked hits.
+     */
+    public static class SearchHits {
+        private final long[] ids;
+        private final double[] scores;
+        private final long totalHits;
+        
+        public SearchHits(long[] ids, double[] scores, long totalHits) {
+            this.ids = ids;
+            this.scores = scores;
+            this.totalHits = totalHits;
+        }
+        
+        /** Document IDs, best first. */
+        public long[] getIds() { return ids; }
+        public double[] getScores() { return scores; }
+        public long getTotalHits() { return totalHits; }
+    }
+}
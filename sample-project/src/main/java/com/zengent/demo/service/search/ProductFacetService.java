@@ -0,0 +1,328 @@
+package com.zengent.demo.service.search;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductCreatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductDeactivatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductUpdatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.StockUpdatedEvent;
+import com.zengent.demo.util.LongLongHashMap;
+import com.zengent.demo.util.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Facet counts (category, price range, stock availability, average rating) for sets of
+ * active products, such as search results.
+ * <p>
+ * Each active product gets a dense ordinal, and each facet value keeps a
+ * {@link RoaringBitmap} of the ordinals having it. Counting a result set turns it into a
+ * bitmap once and intersects it with every facet value bitmap, so all facets are counted
+ * in one pass without loading a product. The bitmaps are loaded at startup and follow
+ * committed product and stock events; ratings come from approved reviews, which publish no
+ * event, so the whole index is also rebuilt every {@code products.facets.rebuild-interval}.
+ * Events arriving while a rebuild scans are applied to the live index and replayed onto
+ * the new one before it is swapped in. Until it is loaded, counts are not answered.
+ */
+@Service
+public class ProductFacetService {
+    
+    public static final String CATEGORY = "category";
+    public static final String PRICE = "price";
+    public static final String IN_STOCK = "inStock";
+    public static final String RATING = "rating";
+    static final String NONE = "none";
+    static final String UNRATED = "unrated";
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductFacetService.class);
+    
+    private final ProductRepository productRepository;
+    private final int loadBatchSize;
+    private final BigDecimal[] priceBounds;
+    private final String[] priceLabels;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Changes applied while a rebuild scans, replayed onto the new index; null when not scanning. */
+    private List<Consumer<FacetIndex>> pending;
+    private FacetIndex index = new FacetIndex(new LongLongHashMap());
+    private volatile boolean loaded;
+    
+    @Autowired
+    public ProductFacetService(ProductRepository productRepository,
+                               @Value("${products.index.load-batch-size:5000}") int loadBatchSize,
+                               @Value("${products.facets.price-buckets:10,25,50,100,250}") BigDecimal[] priceBounds) {
+        this.productRepository = productRepository;
+        this.loadBatchSize = loadBatchSize;
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+        this.priceLabels = new String[this.priceBounds.length + 1];
+        BigDecimal lower = BigDecimal.ZERO;
+        for (int i = 0; i < this.priceBounds.length; i++) {
+            priceLabels[i] = lower.toPlainString() + "-" + this.priceBounds[i].toPlainString();
+            lower = this.priceBounds[i];
+        }
+        priceLabels[this.priceBounds.length] = lower.toPlainString() + "+";
+    }
+    
+    /**
+     * Count products by facet value. Price ranges include their lower bound only; rating
+     * values are the whole part of the average approved review rating.
+     * @param productIds Product IDs to count; IDs of inactive or unknown products are ignored
+     * @return Facet value counts by facet name, most frequent value first, or empty if the
+     *         index is not loaded yet
+     */
+    public Optional<Map<String, Map<String, Long>>> count(long[] productIds) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            int[] ordinals = new int[productIds.length];
+            int count = 0;
+            for (long productId : productIds) {
+                long ordinal = index.ordinals.get(productId, -1);
+                if (ordinal >= 0) {
+                    ordinals[count++] = (int) ordinal;
+                }
+            }
+            RoaringBitmap matches = RoaringBitmap.of(Arrays.copyOf(ordinals, count));
+            
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            facets.put(CATEGORY, index.category.count(matches));
+            facets.put(PRICE, index.price.count(matches));
+            facets.put(IN_STOCK, index.inStock.count(matches));
+            facets.put(RATING, index.rating.count(matches));
+            return Optional.of(facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (reload()) {
+            log.info("Product facet index loaded: {} products", index.ordinals.size());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${products.facets.rebuild-interval:PT15M}",
+               initialDelayString = "${products.facets.rebuild-interval:PT15M}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        reload();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductCreated(ProductCreatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockUpdated(StockUpdatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeactivated(ProductDeactivatedEvent event) {
+        long productId = event.getProduct().getId();
+        change(index -> index.clear(productId));
+    }
+    
+    // Private helper methods
+    
+    private void apply(Product product) {
+        long productId = product.getId();
+        if (Boolean.TRUE.equals(product.getIsActive())) {
+            Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+            BigDecimal price = product.getPrice();
+            Integer stockQuantity = product.getStockQuantity();
+            change(index -> index.set(productId, categoryId, price, stockQuantity));
+        } else {
+            change(index -> index.clear(productId));
+        }
+    }
+    
+    /**
+     * Apply a change to the current index and, during a rebuild, keep it for the new one.
+     */
+    private void change(Consumer<FacetIndex> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Scan the products into a new index, replay the changes applied meanwhile and swap it in.
+     * @return False if another rebuild was already running
+     */
+    private boolean reload() {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                log.debug("Product facet index rebuild skipped, another one is running");
+                return false;
+            }
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            FacetIndex built = scan();
+            lock.writeLock().lock();
+            try {
+                pending.forEach(change -> change.accept(built));
+                index = built;
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    private FacetIndex scan() {
+        LongLongHashMap ratings = new LongLongHashMap();
+        for (Object[] row : productRepository.findAverageApprovedRatings()) {
+            ratings.put((Long) row[0], (long) Math.floor(((Number) row[1]).doubleValue()));
+        }
+        FacetIndex built = new FacetIndex(ratings);
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = productRepository.findActiveFacetFieldsAfter(afterId, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : rows) {
+                afterId = (Long) row[0];
+                built.set(afterId, (Long) row[1], (BigDecimal) row[2], (Integer) row[3]);
+            }
+        } while (rows.size() == loadBatchSize);
+        return built;
+    }
+    
+    private String priceLabel(BigDecimal price) {
+        int bucket = 0;
+        while (bucket < priceBounds.length && price.compareTo(priceBounds[bucket]) >= 0) {
+            bucket++;
+        }
+        return priceLabels[bucket];
+    }
+    
+    /** Product ordinals and the facet bitmaps over them; guarded by the service lock. */
+    private final class FacetIndex {
+        final LongLongHashMap ordinals = new LongLongHashMap(1024);
+        final LongLongHashMap ratings;
+        final Facet category = new Facet();
+        final Facet price = new Facet();
+        final Facet inStock = new Facet();
+        final Facet rating = new Facet();
+        
+        FacetIndex(LongLongHashMap ratings) {
+            this.ratings = ratings;
+        }
+        
+        void set(long productId, Long categoryId, BigDecimal productPrice, Integer stockQuantity) {
+            long ordinal = ordinals.get(productId, -1);
+            if (ordinal < 0) {
+                ordinal = ordinals.size();
+                ordinals.put(productId, ordinal);
+            }
+            long averageRating = ratings.get(productId, 0);
+            category.set((int) ordinal, categoryId != null ? categoryId.toString() : NONE);
+            price.set((int) ordinal, productPrice != null ? priceLabel(productPrice) : null);
+            inStock.set((int) ordinal, Boolean.toString(stockQuantity != null && stockQuantity > 0));
+            rating.set((int) ordinal, averageRating > 0 ? Long.toString(averageRating) : UNRATED);
+        }
+        
+        /** Drop a product from every facet; its ordinal is kept in case it is reactivated. */
+        void clear(long productId) {
+            long ordinal = ordinals.get(productId, -1);
+            if (ordinal >= 0) {
+                category.set((int) ordinal, null);
+                price.set((int) ordinal, null);
+                inStock.set((int) ordinal, null);
+                rating.set((int) ordinal, null);
+            }
+        }
+    }
+    
+    /** One bitmap per value of a facet, plus each ordinal's current value so it can be moved. */
+    private static final class Facet {
+        final Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+        String[] values = new String[1024];
+        
+        void set(int ordinal, String value) {
+            if (ordinal >= values.length) {
+                values = Arrays.copyOf(values, Math.max(ordinal + 1, values.length * 2));
+            }
+            String previous = values[ordinal];
+            if (Objects.equals(previous, value)) {
+                return;
+            }
+            if (previous != null) {
+                RoaringBitmap bitmap = bitmaps.get(previous);
+                bitmap.remove(ordinal);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(previous);
+                }
+            }
+            if (value != null) {
+                bitmaps.computeIfAbsent(value, v -> new RoaringBitmap()).add(ordinal);
+            }
+            values[ordinal] = value;
+        }
+        
+        Map<String, Long> count(RoaringBitmap matches) {
+            List<Map.Entry<String, Long>> counts = new ArrayList<>();
+            for (Map.Entry<String, RoaringBitmap> entry : bitmaps.entrySet()) {
+                long count = entry.getValue().andCardinality(matches);
+                if (count > 0) {
+                    counts.add(Map.entry(entry.getKey(), count));
+                }
+            }
+            counts.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Long> result = new LinkedHashMap<>();
+            counts.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.zengent.demo.service.search;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductCreatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductDeactivatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Full-text product search over an in-memory {@link InvertedIndex}.
+ * <p>
+ * Active products are indexed by name, SKU and description, with name terms weighing
+ * most. Fuzzy searches also match terms within {@code products.search.max-edits} edits
+ * of the query terms. The index is loaded in ID-ordered batches at startup and then
+ * follows committed product events; changes committed while it loads are applied again
+ * once the load is done, so a batch read before a change cannot overwrite it. Until the
+ * index is loaded, searches are not answered and callers fall back to the database.
+ */
+@Service
+public class ProductSearchService {
+    
+    static final float NAME_WEIGHT = 3f;
+    static final float SKU_WEIGHT = 2f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchService.class);
+    
+    private final ProductRepository productRepository;
+    private final int loadBatchSize;
+    private final int maxEdits;
+    private final InvertedIndex index = new InvertedIndex();
+    private volatile boolean loaded;
+    /** Changes applied while the index loads, replayed after the load; null otherwise. */
+    private List<Runnable> pending;
+    
+    @Autowired
+    public ProductSearchService(ProductRepository productRepository,
+                                @Value("${products.index.load-batch-size:5000}") int loadBatchSize,
+                                @Value("${products.search.max-edits:2}") int maxEdits) {
+        this.productRepository = productRepository;
+        this.loadBatchSize = loadBatchSize;
+        this.maxEdits = maxEdits;
+    }
+    
+    /**
+     * Rank active products against a free-text query.
+     * @param query Search text
+     * @param offset Number of top hits to skip
+     * @param limit Maximum number of hits
+     * @return Hits, or empty if the index cannot answer and the database must be queried
+     */
+    public Optional<InvertedIndex.SearchHits> search(String query, int offset, int limit) {
+        return search(query, false, offset, limit);
+    }
+    
+    /**
+     * Rank active products against a free-text query, optionally tolerating typos.
+     * @param query Search text
+     * @param fuzzy Whether to also match terms within the configured edit distance
+     * @param offset Number of top hits to skip
+     * @param limit Maximum number of hits
+     * @return Hits, or empty if the index cannot answer and the database must be queried
+     */
+    public Optional<InvertedIndex.SearchHits> search(String query, boolean fuzzy, int offset, int limit) {
+        List<String> terms = ProductTokenizer.tokenize(query);
+        if (!loaded || terms.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(fuzzy
+                ? index.searchFuzzy(terms, maxEdits, offset, limit)
+                : index.search(terms, offset, limit));
+    }
+    
+    /**
+     * IDs of all active products matching a free-text query, unranked.
+     * @param query Search text
+     * @param fuzzy Whether to also match terms within the configured edit distance
+     * @return The product IDs, or empty if the index cannot answer and the database must be queried
+     */
+    public Optional<long[]> findMatchingIds(String query, boolean fuzzy) {
+        List<String> terms = ProductTokenizer.tokenize(query);
+        if (!loaded || terms.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(index.matchingIds(terms, fuzzy ? maxEdits : 0));
+    }
+    
+    public int size() {
+        return index.size();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        try {
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                rows = productRepository.findSearchFieldsAfter(afterId, PageRequest.of(0, loadBatchSize));
+                for (Object[] row : rows) {
+                    afterId = (Long) row[0];
+                    index.put(afterId, terms((String) row[1], (String) row[2], (String) row[3]));
+                }
+            } while (rows.size() == loadBatchSize);
+            
+            // Changes committed during the load may have been overwritten by it; apply them again
+            synchronized (this) {
+                pending.forEach(Runnable::run);
+                loaded = true;
+            }
+            log.info("Product search index loaded: {} products", index.size());
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductCreated(ProductCreatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeactivated(ProductDeactivatedEvent event) {
+        long productId = event.getProduct().getId();
+        change(() -> index.remove(productId));
+    }
+    
+    // Private helper methods
+    
+    private void apply(Product product) {
+        long productId = product.getId();
+        if (Boolean.TRUE.equals(product.getIsActive())) {
+            Map<String, Float> termWeights = terms(product.getName(), product.getDescription(), product.getSku());
+            change(() -> index.put(productId, termWeights));
+        } else {
+            change(() -> index.remove(productId));
+        }
+    }
+    
+    private synchronized void change(Runnable change) {
+        change.run();
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+    
+    private static Map<String, Float> terms(String name, String description, String sku) {
+        Map<String, Float> termWeights = new HashMap<>();
+        ProductTokenizer.addTerms(termWeights, name, NAME_WEIGHT);
+        ProductTokenizer.addTerms(termWeights, sku, SKU_WEIGHT);
+        ProductTokenizer.addTerms(termWeights, description, DESCRIPTION_WEIGHT);
+        return termWeights;
+    }
+}
@@ -0,0 +1,274 @@
+package com.zengent.demo.service.search;
+
+import com.zengent.demo.dto.ProductSuggestion;
+import com.zengent.demo.model.OrderItem;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.OrderRepository;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.OrderEventPublisher.OrderCreatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductCreatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductDeactivatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Autocomplete for product names and SKUs over a {@link RadixTrie}.
+ * <p>
+ * Each active product is keyed by its SKU, its full name and the rest of its name from
+ * every later word, so "phone" completes "Smart Phone Case". Completions are ranked by
+ * popularity, the quantity ordered so far in orders that were not cancelled or returned.
+ * The trie is built at startup, patched from committed product and order events, and
+ * rebuilt every {@code products.suggest.rebuild-interval} to refresh popularity (e.g.
+ * after cancellations). Events arriving while a rebuild scans are applied to the live
+ * trie and replayed onto the new one before it is swapped in.
+ */
+@Service
+public class ProductSuggestService {
+    
+    /** Names are keyed from at most this many word starts. */
+    private static final int MAX_NAME_KEYS = 8;
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestService.class);
+    
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final int maxSuggestions;
+    private final int loadBatchSize;
+    
+    // Replaced as a whole on rebuild; mutated under the service's lock
+    private volatile Catalog catalog;
+    /** Changes applied while a rebuild scans, replayed onto the new catalog; null when not scanning. */
+    private List<Consumer<Catalog>> pending;
+    
+    @Autowired
+    public ProductSuggestService(ProductRepository productRepository, OrderRepository orderRepository,
+                                 @Value("${products.suggest.max-suggestions:10}") int maxSuggestions,
+                                 @Value("${products.index.load-batch-size:5000}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.maxSuggestions = maxSuggestions;
+        this.loadBatchSize = loadBatchSize;
+        this.catalog = new Catalog(maxSuggestions);
+    }
+    
+    /**
+     * Complete a prefix to the most popular matching products.
+     * @param prefix Typed text
+     * @param limit Maximum number of suggestions; capped at {@code products.suggest.max-suggestions}
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return catalog.trie.complete(key, Math.min(limit, maxSuggestions)).stream()
+                .map(entry -> new ProductSuggestion(entry.getId(), entry.getText()))
+                .collect(Collectors.toList());
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        rebuild();
+        log.info("Product suggestions loaded: {} products", catalog.products.size());
+    }
+    
+    @Scheduled(fixedDelayString = "${products.suggest.rebuild-interval:PT1H}",
+               initialDelayString = "${products.suggest.rebuild-interval:PT1H}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            if (pending != null) {
+                log.debug("Product suggestion rebuild skipped, another one is running");
+                return;
+            }
+            pending = new ArrayList<>();
+        }
+        try {
+            Catalog built = new Catalog(maxSuggestions);
+            Map<String, Long> popularity = new HashMap<>();
+            for (Object[] row : orderRepository.sumQuantityByProductCode()) {
+                popularity.put((String) row[0], ((Number) row[1]).longValue());
+            }
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                rows = productRepository.findSearchFieldsAfter(afterId, PageRequest.of(0, loadBatchSize));
+                for (Object[] row : rows) {
+                    afterId = (Long) row[0];
+                    String sku = (String) row[3];
+                    built.put(afterId, (String) row[1], sku, sku != null ? popularity.getOrDefault(sku, 0L) : 0L);
+                }
+            } while (rows.size() == loadBatchSize);
+            
+            // Replay what changed during the scan, so the swap loses no event; an order that
+            // committed just as the scan started may be counted twice until the next rebuild
+            synchronized (this) {
+                pending.forEach(change -> change.accept(built));
+                catalog = built;
+            }
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductCreated(ProductCreatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        apply(event.getProduct());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeactivated(ProductDeactivatedEvent event) {
+        long productId = event.getProduct().getId();
+        change(catalog -> catalog.remove(productId));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (OrderItem item : event.getOrder().getOrderItems()) {
+            if (item.getProductCode() != null) {
+                quantities.merge(item.getProductCode(), item.getQuantity(), Integer::sum);
+            }
+        }
+        change(catalog -> quantities.forEach(catalog::addPopularity));
+    }
+    
+    // Private helper methods
+    
+    private void apply(Product product) {
+        long productId = product.getId();
+        if (Boolean.TRUE.equals(product.getIsActive())) {
+            String name = product.getName();
+            String sku = product.getSku();
+            change(catalog -> {
+                CatalogEntry previous = catalog.products.get(productId);
+                catalog.put(productId, name, sku, previous != null ? previous.popularity : 0L);
+            });
+        } else {
+            change(catalog -> catalog.remove(productId));
+        }
+    }
+    
+    /**
+     * Apply a change to the current catalog and, during a rebuild, keep it for the new one.
+     */
+    private synchronized void change(Consumer<Catalog> change) {
+        change.accept(catalog);
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+    
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Keys of a product: SKU, full name and the name from each later word start.
+     */
+    private static Set<String> keys(String name, String sku) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalizedSku = normalize(sku);
+        if (!normalizedSku.isEmpty()) {
+            keys.add(normalizedSku);
+        }
+        String normalizedName = normalize(name);
+        int starts = 0;
+        for (int i = 0; i < normalizedName.length() && starts < MAX_NAME_KEYS; i++) {
+            boolean wordStart = Character.isLetterOrDigit(normalizedName.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(normalizedName.charAt(i - 1)));
+            if (wordStart) {
+                keys.add(normalizedName.substring(i));
+                starts++;
+            }
+        }
+        return keys;
+    }
+    
+    /** Trie plus what is needed to patch it: each product's keys, display texts and popularity. */
+    private static final class Catalog {
+        final RadixTrie trie;
+        final Map<Long, CatalogEntry> products = new HashMap<>();
+        final Map<String, Long> productIdBySku = new HashMap<>();
+        
+        Catalog(int maxSuggestions) {
+            this.trie = new RadixTrie(maxSuggestions);
+        }
+        
+        void put(long productId, String name, String sku, long popularity) {
+            remove(productId);
+            CatalogEntry entry = new CatalogEntry(name, sku, popularity);
+            for (String key : keys(name, sku)) {
+                boolean skuKey = sku != null && key.equals(normalize(sku));
+                trie.add(key, productId, skuKey ? sku : name, popularity);
+                entry.keys.add(key);
+            }
+            products.put(productId, entry);
+            if (sku != null) {
+                productIdBySku.put(sku, productId);
+            }
+        }
+        
+        void remove(long productId) {
+            CatalogEntry entry = products.remove(productId);
+            if (entry == null) {
+                return;
+            }
+            for (String key : entry.keys) {
+                trie.remove(key, productId);
+            }
+            if (entry.sku != null) {
+                productIdBySku.remove(entry.sku);
+            }
+        }
+        
+        void addPopularity(String sku, int quantity) {
+            Long productId = productIdBySku.get(sku);
+            CatalogEntry entry = productId != null ? products.get(productId) : null;
+            if (entry != null) {
+                put(productId, entry.name, entry.sku, entry.popularity + quantity);
+            }
+        }
+    }
+    
+    private static final class CatalogEntry {
+        final String name;
+        final String sku;
+        final long popularity;
+        final List<String> keys = new ArrayList<>();
+        
+        CatalogEntry(String name, String sku, long popularity) {
+            this.name = name;
+            this.sku = sku;
+            this.popularity = popularity;
+        }
+    }
+}
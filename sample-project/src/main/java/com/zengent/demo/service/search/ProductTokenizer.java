@@ -0,0 +1,43 @@
+package com.zengent.demo.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Splits product text into lower-case terms at every character that is not a letter or digit.
+ */
+final class ProductTokenizer {
+    
+    private ProductTokenizer() {
+    }
+    
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+    
+    /**
+     * Add the terms of a text to a term-weight map, each occurrence counting {@code weight}.
+     */
+    static void addTerms(Map<String, Float> termWeights, String text, float weight) {
+        for (String token : tokenize(text)) {
+            termWeights.merge(token, weight, Float::sum);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.zengent.demo.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix trie for weighted prefix completion.
+ * <p>
+ * Edges carry whole string fragments, so chains of single-child nodes are collapsed.
+ * Every node caches the best {@code maxCompletions} entries of its subtree (highest weight
+ * first, one per ID), which makes a completion a walk down the prefix, O(prefix length),
+ * independent of how many keys share it. Adding or removing a key recomputes the caches
+ * along its path only. Thread-safe: completions share a read lock and updates take the
+ * write lock.
+ */
+public class RadixTrie {
+    
+    private static final Comparator<Entry> BEST_FIRST = Comparator
+            .comparingLong((Entry entry) -> entry.weight).reversed()
+            .thenComparingInt(entry -> entry.text.length())
+            .thenComparing(entry -> entry.text)
+            .thenComparingLong(entry -> entry.id);
+    
+    private final int maxCompletions;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+    
+    public RadixTrie(int maxCompletions) {
+        this.maxCompletions = maxCompletions;
+    }
+    
+    /**
+     * Add an entry under a key. The same ID may be added under several keys.
+     * @param key Lookup key, already normalized
+     * @param id ID the entry completes to
+     * @param text Text to show for the entry
+     * @param weight Ranking weight; higher is better
+     */
+    public void add(String key, long id, String text, long weight) {
+        if (key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.child(key.charAt(i));
+                if (child == null) {
+                    child = new Node(key.substring(i));
+                    node.addChild(child);
+                    i = key.length();
+                } else {
+                    int common = commonPrefix(child.label, key, i);
+                    if (common < child.label.length()) {
+                        // Split the edge where the key diverges
+                        Node middle = new Node(child.label.substring(0, common));
+                        node.replaceChild(middle);
+                        child.label = child.label.substring(common);
+                        middle.addChild(child);
+                        child = middle;
+                    }
+                    i += common;
+                }
+                node = child;
+                path.add(node);
+            }
+            node.entries.add(new Entry(id, text, weight));
+            for (int p = path.size() - 1; p >= 0; p--) {
+                path.get(p).recomputeBest(maxCompletions);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove the entries of an ID under a key.
+     */
+    public void remove(String key, long id) {
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.child(key.charAt(i));
+                if (child == null || !key.startsWith(child.label, i)) {
+                    return;
+                }
+                i += child.label.length();
+                node = child;
+                path.add(node);
+            }
+            if (!node.entries.removeIf(entry -> entry.id == id)) {
+                return;
+            }
+            
+            for (int p = path.size() - 1; p > 0; p--) {
+                Node current = path.get(p);
+                Node parent = path.get(p - 1);
+                current.recomputeBest(maxCompletions);
+                if (current.entries.isEmpty() && current.childCount == 0) {
+                    parent.removeChild(current);
+                } else if (current.entries.isEmpty() && current.childCount == 1) {
+                    // Collapse the now redundant node into its only child
+                    Node only = current.children[0];
+                    only.label = current.label + only.label;
+                    parent.replaceChild(only);
+                }
+            }
+            root.recomputeBest(maxCompletions);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Best entries whose key starts with a prefix.
+     * @param prefix Normalized prefix
+     * @param limit Maximum number of entries; at most the configured maximum is returned
+     * @return Entries, best first, one per ID
+     */
+    public List<Entry> complete(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                Node child = node.child(prefix.charAt(i));
+                if (child == null) {
+                    return List.of();
+                }
+                int remaining = prefix.length() - i;
+                if (remaining <= child.label.length()) {
+                    // The prefix ends on this edge
+                    if (!child.label.startsWith(prefix.substring(i))) {
+                        return List.of();
+                    }
+                } else if (!prefix.startsWith(child.label, i)) {
+                    return List.of();
+                }
+                i += Math.min(remaining, child.label.length());
+                node = child;
+            }
+            return Arrays.asList(Arrays.copyOf(node.best, Math.min(limit, node.best.length)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Private helper methods
+    
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+    
+    private static final class Node {
+        String label;
+        Node[] children = new Node[0];
+        int childCount;
+        final List<Entry> entries = new ArrayList<>(1);
+        Entry[] best = new Entry[0];
+        
+        Node(String label) {
+            this.label = label;
+        }
+        
+        Node child(char first) {
+            for (int i = 0; i < childCount; i++) {
+                if (children[i].label.charAt(0) == first) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+        
+        void addChild(Node child) {
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+            }
+            children[childCount++] = child;
+        }
+        
+        /** Replace the child starting with the same character. */
+        void replaceChild(Node replacement) {
+            char first = replacement.label.charAt(0);
+            for (int i = 0; i < childCount; i++) {
+                if (children[i].label.charAt(0) == first) {
+                    children[i] = replacement;
+                    return;
+                }
+            }
+        }
+        
+        void removeChild(Node child) {
+            for (int i = 0; i < childCount; i++) {
+                if (children[i] == child) {
+                    System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+                    children[--childCount] = null;
+                    return;
+                }
+            }
+        }
+        
+        void recomputeBest(int max) {
+            List<Entry> candidates = new ArrayList<>(entries);
+            for (int i = 0; i < childCount; i++) {
+                candidates.addAll(Arrays.asList(children[i].best));
+            }
+            candidates.sort(BEST_FIRST);
+            List<Entry> result = new ArrayList<>(Math.min(max, candidates.size()));
+            Set<Long> seen = new HashSet<>();
+            for (Entry entry : candidates) {
+                if (result.size() == max) {
+                    break;
+                }
+                if (seen.add(entry.id)) {
+                    result.add(entry);
+                }
+            }
+            best = result.toArray(new Entry[0]);
+        }
+    }
+    
+    /**
+     * A completion: the ID it stands for, its display text and its weight.
+     */
+    public static final class Entry {
+        private final long id;
+        private final String text;
+        private final long weight;
+        
+        public Entry(long id, String text, long weight) {
+            this.id = id;
+            this.text = text;
+            this.weight = weight;
+        }
+        
+        public long getId() { return id; }
+        public String getText() { return text; }
+        public long getWeight() { return weight; }
+    }
+}
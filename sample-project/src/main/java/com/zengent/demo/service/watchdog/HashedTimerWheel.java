@@ -0,0 +1,212 @@
+package com.zengent.demo.service.watchdog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for large numbers of coarse-grained timeouts.
+ * <p>
+ * Scheduling is O(1) and lock-free: new timeouts go onto a concurrent queue that the
+ * wheel thread drains once per tick into the bucket for their deadline. Each tick the
+ * wheel thread visits a single bucket, expiring timeouts whose remaining rounds reached
+ * zero, so cost per tick is proportional to that bucket rather than to all timeouts.
+ * Expiry callbacks run on the wheel thread and should hand off any real work; a callback
+ * that throws is logged and counted. Cancelled timeouts are dropped when their bucket is
+ * next visited.
+ */
+public class HashedTimerWheel<T> implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(HashedTimerWheel.class);
+    
+    private final long tickNanos;
+    private final ArrayDeque<Timeout<T>>[] wheel;
+    private final int mask;
+    private final Consumer<T> onExpiry;
+    private final Queue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong failedCallbacks = new AtomicLong();
+    private final Thread worker;
+    
+    private volatile boolean running = true;
+    private volatile long startNanos;
+    private long currentTick;
+    
+    /**
+     * @param name Name of the wheel thread
+     * @param tickDuration Duration of one tick
+     * @param tickUnit Unit of the tick duration
+     * @param wheelSize Number of buckets; rounded up to a power of two
+     * @param onExpiry Callback invoked on the wheel thread for each expired item
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(String name, long tickDuration, TimeUnit tickUnit, int wheelSize, Consumer<T> onExpiry) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickNanos = tickUnit.toNanos(tickDuration);
+        this.wheel = (ArrayDeque<Timeout<T>>[]) new ArrayDeque<?>[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+        this.onExpiry = onExpiry;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+    }
+    
+    public void start() {
+        startNanos = System.nanoTime();
+        worker.start();
+    }
+    
+    /**
+     * Schedule an item to expire after the given delay. Safe to call from any thread.
+     * Items scheduled with a delay that has already passed expire on the next tick.
+     * @return Handle that can cancel the timeout before it expires
+     */
+    public Timeout<T> schedule(T item, long delay, TimeUnit unit) {
+        long deadline = System.nanoTime() + Math.max(0, unit.toNanos(delay));
+        Timeout<T> timeout = new Timeout<>(this, item, deadline);
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+    
+    /**
+     * Number of scheduled items that have neither expired nor been cancelled.
+     */
+    public int pendingCount() {
+        return pending.get();
+    }
+    
+    /**
+     * Number of expiry callbacks that threw.
+     */
+    public long failedCallbackCount() {
+        return failedCallbacks.get();
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+    
+    private void run() {
+        while (running) {
+            long tickDeadline = startNanos + (currentTick + 1) * tickNanos;
+            long sleepNanos = tickDeadline - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            transferIncoming();
+            expireBucket(wheel[(int) (currentTick & mask)]);
+            currentTick++;
+        }
+    }
+    
+    private void transferIncoming() {
+        Timeout<T> timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long targetTick = (timeout.deadline - startNanos + tickNanos - 1) / tickNanos;
+            long ticks = Math.max(targetTick, currentTick);
+            timeout.remainingRounds = (ticks - currentTick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+    
+    private void expireBucket(ArrayDeque<Timeout<T>> bucket) {
+        Iterator<Timeout<T>> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timeout<T> timeout = it.next();
+            if (timeout.isCancelled()) {
+                it.remove();
+                continue;
+            }
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                continue;
+            }
+            it.remove();
+            if (!timeout.state.compareAndSet(Timeout.SCHEDULED, Timeout.EXPIRED)) {
+                continue;
+            }
+            pending.decrementAndGet();
+            try {
+                onExpiry.accept(timeout.item);
+            } catch (RuntimeException e) {
+                // A failing callback must not stop the wheel
+                failedCallbacks.incrementAndGet();
+                log.error("Timer callback failed for {}", timeout.item, e);
+            }
+        }
+    }
+    
+    /**
+     * A scheduled item; cancelling it keeps its callback from running.
+     */
+    public static final class Timeout<T> {
+        private static final int SCHEDULED = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+        
+        private final HashedTimerWheel<T> owner;
+        private final T item;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(SCHEDULED);
+        private long remainingRounds;
+        
+        private Timeout(HashedTimerWheel<T> owner, T item, long deadline) {
+            this.owner = owner;
+            this.item = item;
+            this.deadline = deadline;
+        }
+        
+        public T getItem() {
+            return item;
+        }
+        
+        /**
+         * Cancel the timeout. Safe to call from any thread.
+         * @return True if it was still scheduled, false if it had already expired or been cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(SCHEDULED, CANCELLED)) {
+                return false;
+            }
+            owner.pending.decrementAndGet();
+            return true;
+        }
+        
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+        
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+}
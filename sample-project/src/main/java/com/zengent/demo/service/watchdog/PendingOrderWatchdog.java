@@ -0,0 +1,158 @@
+package com.zengent.demo.service.watchdog;
+
+import com.zengent.demo.model.Order;
+import com.zengent.demo.repository.OrderRepository;
+import com.zengent.demo.service.OrderService;
+import com.zengent.demo.service.events.OrderEventPublisher.OrderCreatedEvent;
+import com.zengent.demo.service.events.OrderEventPublisher.OrderStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches PENDING orders and acts on those still pending once their deadline passes.
+ * <p>
+ * Every order is put on a {@link HashedTimerWheel} when its creation commits, with a
+ * deadline of order date plus {@code orders.watchdog.pending-timeout}. When the deadline
+ * fires the order's status is checked again; if it is still PENDING the watchdog either
+ * logs an alert ({@code ALERT}) or cancels it and releases its stock ({@code CANCEL}).
+ * An order's timer is cancelled as soon as a committed status change moves it out of PENDING.
+ * The wheel lives in memory only, so on startup it is refilled from one query over the
+ * (status, order_date) index; orders already overdue fire on the first tick.
+ */
+@Component
+public class PendingOrderWatchdog {
+    
+    public enum Action { ALERT, CANCEL }
+    
+    private static final Logger log = LoggerFactory.getLogger(PendingOrderWatchdog.class);
+    
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final Duration pendingTimeout;
+    private final Action action;
+    private final HashedTimerWheel<Long> wheel;
+    private final Map<Long, HashedTimerWheel.Timeout<Long>> timeouts = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pending-order-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @Autowired
+    public PendingOrderWatchdog(OrderService orderService, OrderRepository orderRepository,
+                                @Value("${orders.watchdog.pending-timeout:PT24H}") Duration pendingTimeout,
+                                @Value("${orders.watchdog.action:ALERT}") Action action,
+                                @Value("${orders.watchdog.tick:PT1S}") Duration tick,
+                                @Value("${orders.watchdog.wheel-size:512}") int wheelSize) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.pendingTimeout = pendingTimeout;
+        this.action = action;
+        // Expiry runs on the wheel thread; hand the database work to the executor
+        this.wheel = new HashedTimerWheel<>("pending-order-timer", tick.toMillis(), TimeUnit.MILLISECONDS,
+                wheelSize, orderId -> {
+                    timeouts.remove(orderId);
+                    executor.execute(() -> handleExpired(orderId));
+                });
+    }
+    
+    /**
+     * Start the wheel and register every order that is currently pending.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        wheel.start();
+        List<OrderRepository.OrderTimestamp> pending = orderRepository.findTimestampsByStatus(Order.OrderStatus.PENDING);
+        for (OrderRepository.OrderTimestamp order : pending) {
+            watch(order.getId(), order.getOrderDate());
+        }
+        log.info("Pending-order watchdog started with {} pending orders ({} after {})",
+                pending.size(), action, pendingTimeout);
+    }
+    
+    /**
+     * Register a newly created order once its transaction has committed.
+     */
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        watch(order.getId(), order.getOrderDate());
+    }
+    
+    /**
+     * Stop watching orders once a status change that moved them out of PENDING has committed.
+     */
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getFromStatus() != Order.OrderStatus.PENDING) {
+            return;
+        }
+        for (Long orderId : event.getOrderIds()) {
+            HashedTimerWheel.Timeout<Long> timeout = timeouts.remove(orderId);
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+    
+    /**
+     * Number of orders currently registered and not yet due.
+     */
+    public int getWatchedCount() {
+        return wheel.pendingCount();
+    }
+    
+    /**
+     * Number of expiry callbacks that failed on the wheel thread.
+     */
+    public long getFailedCallbackCount() {
+        return wheel.failedCallbackCount();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        wheel.close();
+        executor.shutdownNow();
+    }
+    
+    private void watch(Long orderId, LocalDateTime orderDate) {
+        LocalDateTime deadline = orderDate.plus(pendingTimeout);
+        long delayMillis = Duration.between(LocalDateTime.now(), deadline).toMillis();
+        HashedTimerWheel.Timeout<Long> timeout = wheel.schedule(orderId, delayMillis, TimeUnit.MILLISECONDS);
+        timeouts.put(orderId, timeout);
+        // An overdue order can fire before it is registered; do not keep its handle around
+        if (timeout.isExpired()) {
+            timeouts.remove(orderId, timeout);
+        }
+    }
+    
+    private void handleExpired(Long orderId) {
+        try {
+            if (action == Action.CANCEL) {
+                if (orderService.expirePendingOrder(orderId)) {
+                    log.info("Cancelled order {} after {} pending", orderId, pendingTimeout);
+                }
+            } else if (orderRepository.existsByIdAndStatus(orderId, Order.OrderStatus.PENDING)) {
+                log.warn("Order {} has been pending for more than {}", orderId, pendingTimeout);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to handle overdue order {}", orderId, e);
+        }
+    }
+}
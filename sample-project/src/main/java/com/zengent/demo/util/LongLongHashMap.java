@@ -0,0 +1,209 @@
+package com.zengent.demo.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to {@code long} values.
+ * <p>
+ * Keys and values live in two parallel arrays with linear probing, so an entry costs
+ * 16 bytes (at the 0.5 maximum load factor, 32 bytes of table) and no objects are
+ * allocated per entry. Removal uses backward-shift deletion, so there are no tombstones
+ * and lookups stay short after many removals. Not thread-safe.
+ */
+public class LongLongHashMap {
+    
+    /** Marks an empty slot; the key 0 itself is stored outside the table. */
+    private static final long EMPTY = 0L;
+    
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private boolean hasZeroKey;
+    private long zeroValue;
+    
+    public LongLongHashMap() {
+        this(16);
+    }
+    
+    public LongLongHashMap(int expectedSize) {
+        int capacity = 4;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+    
+    /**
+     * Associate a value with a key, replacing any previous value.
+     * @return True if the key was not present before
+     */
+    public boolean put(long key, long value) {
+        if (key == EMPTY) {
+            boolean added = !hasZeroKey;
+            hasZeroKey = true;
+            zeroValue = value;
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (tableSize() * 2 > keys.length) {
+            allocate(keys.length << 1);
+        }
+        return true;
+    }
+    
+    /**
+     * @return The value for the key, or {@code defaultValue} if absent
+     */
+    public long get(long key, long defaultValue) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+    
+    public boolean containsKey(long key) {
+        if (key == EMPTY) {
+            return hasZeroKey;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+    
+    /**
+     * Remove a key.
+     * @return True if the key was present
+     */
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            boolean removed = hasZeroKey;
+            if (removed) {
+                hasZeroKey = false;
+                size--;
+            }
+            return removed;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        hasZeroKey = false;
+        size = 0;
+    }
+    
+    /**
+     * Visit every entry. The map must not be modified during iteration.
+     */
+    public void forEach(LongLongConsumer action) {
+        if (hasZeroKey) {
+            action.accept(EMPTY, zeroValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+    
+    /**
+     * Callback receiving a key and its value.
+     */
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+    
+    // Private helper methods
+    
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+    
+    private int tableSize() {
+        return hasZeroKey ? size - 1 : size;
+    }
+    
+    private void shiftBack(int slot) {
+        // Move later entries of the probe chain into the gap so lookups never stop early
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slot(keys[next]);
+            // The entry can fill the gap if its home slot is not cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+    }
+    
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        if (oldKeys == null) {
+            return;
+        }
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
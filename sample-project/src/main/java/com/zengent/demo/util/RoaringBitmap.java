@@ -0,0 +1,306 @@
+package com.zengent.demo.util;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of non-negative {@code int} values, after the Roaring format.
+ * <p>
+ * Values are split by their high 16 bits into chunks. A chunk holding at most
+ * {@value #ARRAY_MAX} values is a sorted {@code char} array, a denser one a fixed 8 KB
+ * bitmap, and chunks switch form as values are added or removed. Sparse and dense sets
+ * both stay compact, and intersections work chunk by chunk with merges, probes or word-wise
+ * ANDs. Not thread-safe.
+ */
+public class RoaringBitmap {
+    
+    static final int ARRAY_MAX = 4096;
+    
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+    
+    /**
+     * Bitmap of the given values, which need not be sorted or distinct.
+     */
+    public static RoaringBitmap of(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value : sorted) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+    
+    public void add(int value) {
+        checkValue(value);
+        char high = (char) (value >>> 16);
+        int index = find(high);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, high, new ArrayContainer());
+        }
+        containers[index] = containers[index].add((char) value);
+    }
+    
+    public void remove(int value) {
+        checkValue(value);
+        int index = find((char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) value);
+        if (container.cardinality() == 0) {
+            removeContainer(index);
+        } else {
+            containers[index] = container;
+        }
+    }
+    
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = find((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+    
+    /**
+     * Number of values in both bitmaps, without building the intersection.
+     */
+    public long andCardinality(RoaringBitmap other) {
+        long cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+    
+    /** Approximate heap size of the containers in bytes. */
+    public long memoryBytes() {
+        long bytes = (long) keys.length * Character.BYTES + (long) containers.length * 8;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].memoryBytes();
+        }
+        return bytes;
+    }
+    
+    // Private helper methods
+    
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Values must not be negative: " + value);
+        }
+    }
+    
+    private int find(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+    
+    private void insertContainer(int index, char high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = container;
+        size++;
+    }
+    
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+    
+    /** The low 16 bits of the values in one chunk. Mutating methods return the container to keep. */
+    private abstract static class Container {
+        abstract Container add(char value);
+        abstract Container remove(char value);
+        abstract boolean contains(char value);
+        abstract int cardinality();
+        abstract int andCardinality(Container other);
+        abstract long memoryBytes();
+    }
+    
+    private static final class ArrayContainer extends Container {
+        char[] values = new char[4];
+        int cardinality;
+        
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+        
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+        
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.andCardinality(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < array.cardinality) {
+                if (values[i] < array.values[j]) {
+                    i++;
+                } else if (values[i] > array.values[j]) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+        
+        @Override
+        long memoryBytes() {
+            return (long) values.length * Character.BYTES + 16;
+        }
+        
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+    
+    private static final class BitmapContainer extends Container {
+        final long[] words = new long[1024];
+        int cardinality;
+        
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            int word = value >>> 6;
+            if ((words[word] & bit) == 0) {
+                words[word] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+        
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            int word = value >>> 6;
+            if ((words[word] & bit) != 0) {
+                words[word] &= ~bit;
+                cardinality--;
+                if (cardinality <= ARRAY_MAX) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+        
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof BitmapContainer) {
+                long[] otherWords = ((BitmapContainer) other).words;
+                for (int i = 0; i < words.length; i++) {
+                    count += Long.bitCount(words[i] & otherWords[i]);
+                }
+            } else {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.cardinality; i++) {
+                    if (contains(array.values[i])) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+        
+        @Override
+        long memoryBytes() {
+            return (long) words.length * Long.BYTES + 16;
+        }
+        
+        ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[cardinality];
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    array.values[array.cardinality++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return array;
+        }
+    }
+}
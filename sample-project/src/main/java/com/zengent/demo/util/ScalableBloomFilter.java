@@ -0,0 +1,193 @@
+package com.zengent.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Bloom filter for strings that grows as elements are added.
+ * <p>
+ * Elements go into the newest of a series of plain Bloom filters. When it holds its
+ * capacity, a new one is added with twice the capacity and half the false-positive rate,
+ * so the compound rate stays below twice the initial rate however many elements are
+ * added. A filter may report an element it never saw, but never misses one it did.
+ * Bits are stored in {@code long} arrays and probed by double hashing of a 128-bit
+ * MurmurHash3 of the UTF-8 bytes. Adds are synchronized; lookups are lock-free and may
+ * miss an element whose add is still in progress.
+ */
+public class ScalableBloomFilter {
+    
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+    
+    private volatile Layer[] layers;
+    private volatile long count;
+    
+    /**
+     * @param initialCapacity Elements the first layer holds at the target rate
+     * @param falsePositiveRate Target false-positive rate of the first layer
+     */
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Capacity must be positive and the rate between 0 and 1");
+        }
+        this.layers = new Layer[] {new Layer(initialCapacity, falsePositiveRate)};
+    }
+    
+    public synchronized void add(String element) {
+        long[] hash = hash(element);
+        Layer current = layers[layers.length - 1];
+        if (current.count >= current.capacity) {
+            current = new Layer(current.capacity * GROWTH, current.falsePositiveRate * TIGHTENING);
+            Layer[] grown = Arrays.copyOf(layers, layers.length + 1);
+            grown[grown.length - 1] = current;
+            layers = grown;
+        }
+        current.add(hash[0], hash[1]);
+        count++;
+    }
+    
+    /**
+     * @return False if the element was definitely never added
+     */
+    public boolean mightContain(String element) {
+        long[] hash = hash(element);
+        for (Layer layer : layers) {
+            if (layer.mightContain(hash[0], hash[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /** Number of adds, including repeated elements. */
+    public long count() {
+        return count;
+    }
+    
+    /** Size of the bit arrays in bytes. */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Layer layer : layers) {
+            bytes += (long) layer.bits.length * Long.BYTES;
+        }
+        return bytes;
+    }
+    
+    /**
+     * Estimated false-positive rate from the current fill of every layer.
+     */
+    public double expectedFalsePositiveRate() {
+        double allNegative = 1;
+        for (Layer layer : layers) {
+            allNegative *= 1 - layer.expectedFalsePositiveRate();
+        }
+        return 1 - allNegative;
+    }
+    
+    // Private helper methods
+    
+    private static long[] hash(String element) {
+        return murmur3x64(element.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /** MurmurHash3 x64 128-bit, seed 0. */
+    private static long[] murmur3x64(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16);
+            long k2 = getLong(data, i * 16 + 8);
+            h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+            h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52dce729;
+            h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+            h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495ab5;
+        }
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        for (int i = data.length - 1; i >= tail; i--) {
+            int shift = ((i - tail) % 8) * 8;
+            if (i - tail >= 8) {
+                k2 |= (data[i] & 0xffL) << shift;
+            } else {
+                k1 |= (data[i] & 0xffL) << shift;
+            }
+        }
+        if (k2 != 0) {
+            h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+        }
+        if (k1 != 0) {
+            h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+        }
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[] {h1, h2};
+    }
+    
+    private static long getLong(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xffL);
+        }
+        return value;
+    }
+    
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+    
+    private static final class Layer {
+        final long capacity;
+        final double falsePositiveRate;
+        final long[] bits;
+        final long bitCount;
+        final int hashCount;
+        long count;
+        
+        Layer(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            // Optimal size and hash count for the capacity and rate
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new long[Math.toIntExact(Math.max(1, (optimalBits + 63) / 64))];
+            this.bitCount = (long) bits.length * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+        
+        void add(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                bits[(int) (index >>> 6)] |= 1L << index;
+            }
+            count++;
+        }
+        
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashCount * count / bitCount), hashCount);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.zengent.demo.util;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index of {@code long} IDs ordered by a {@code long} key, for range queries.
+ * <p>
+ * Entries are kept as (key, id) pairs in two parallel arrays sorted by key, then ID, with
+ * a {@link LongLongHashMap} from ID to current key. A range query is a binary search
+ * followed by a scan of the matching entries, O(log n + k); an update shifts the arrays
+ * with {@link System#arraycopy}, O(n) but allocation-free. Reads share a read lock and
+ * updates take the write lock. Thread-safe.
+ */
+public class SortedLongIndex {
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongHashMap keyById = new LongLongHashMap();
+    private long[] keys = new long[16];
+    private long[] ids = new long[16];
+    private int size;
+    
+    /**
+     * Set the key of an ID, adding it if absent.
+     */
+    public void put(long id, long key) {
+        lock.writeLock().lock();
+        try {
+            if (keyById.containsKey(id)) {
+                long oldKey = keyById.get(id, 0);
+                if (oldKey == key) {
+                    return;
+                }
+                removeAt(position(oldKey, id));
+            }
+            insertAt(-position(key, id) - 1, key, id);
+            keyById.put(id, key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove an ID.
+     * @return True if the ID was present
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            if (!keyById.containsKey(id)) {
+                return false;
+            }
+            removeAt(position(keyById.get(id, 0), id));
+            keyById.remove(id);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Replace the whole index with the given entries.
+     * @param entryIds IDs; must be distinct
+     * @param entryKeys Key of each ID
+     */
+    public void replaceAll(long[] entryIds, long[] entryKeys) {
+        if (entryIds.length != entryKeys.length) {
+            throw new IllegalArgumentException("IDs and keys must have the same length");
+        }
+        int n = entryIds.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> entryKeys[a] != entryKeys[b]
+                ? Long.compare(entryKeys[a], entryKeys[b])
+                : Long.compare(entryIds[a], entryIds[b]));
+        
+        long[] sortedKeys = new long[Math.max(16, n)];
+        long[] sortedIds = new long[Math.max(16, n)];
+        for (int i = 0; i < n; i++) {
+            sortedKeys[i] = entryKeys[order[i]];
+            sortedIds[i] = entryIds[order[i]];
+        }
+        
+        lock.writeLock().lock();
+        try {
+            keys = sortedKeys;
+            ids = sortedIds;
+            size = n;
+            keyById.clear();
+            for (int i = 0; i < n; i++) {
+                keyById.put(sortedIds[i], sortedKeys[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * IDs whose key is in [fromKey, toKey), ordered by key then ID.
+     * @param limit Maximum number of IDs to return
+     */
+    public long[] idsInRange(long fromKey, long toKey, int limit) {
+        lock.readLock().lock();
+        try {
+            int start = lowerBound(fromKey);
+            int end = lowerBound(toKey);
+            int count = Math.max(0, Math.min(end - start, limit));
+            return Arrays.copyOfRange(ids, start, start + count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * IDs whose key is in [fromKey, toKey), ordered by key then ID, both descending.
+     * @param limit Maximum number of IDs to return
+     */
+    public long[] idsInRangeDescending(long fromKey, long toKey, int limit) {
+        lock.readLock().lock();
+        try {
+            int start = lowerBound(fromKey);
+            int end = lowerBound(toKey);
+            int count = Math.max(0, Math.min(end - start, limit));
+            long[] result = new long[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = ids[end - 1 - i];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Key of an ID, or {@code defaultKey} if absent.
+     */
+    public long getKey(long id, long defaultKey) {
+        lock.readLock().lock();
+        try {
+            return keyById.get(id, defaultKey);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Private helper methods
+    
+    /** Binary search for (key, id); returns -(insertion point) - 1 if absent. */
+    private int position(long key, long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = keys[mid] != key ? Long.compare(keys[mid], key) : Long.compare(ids[mid], id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+    
+    /** First position whose key is not less than the given key. */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private void insertAt(int index, long key, long id) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        keys[index] = key;
+        ids[index] = id;
+        size++;
+    }
+    
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+    }
+}
@@ -0,0 +1,42 @@
+package com.zengent.demo;
+
+import com.zengent.demo.mapper.CategoryMapper;
+import com.zengent.demo.mapper.ProductMapper;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Base class for tests running against the full application context on an in-memory
+ * H2 database in MySQL mode (see application-test.properties).
+ * <p>
+ * The MapStruct mappers are mocked since their implementations are not generated in
+ * this build, and a plain password encoder stands in for the security configuration.
+ * Tests share one context and database, so each should create its own rows (e.g. with
+ * unique SKUs) rather than rely on an empty table.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@Import(AbstractIntegrationTest.TestConfig.class)
+public abstract class AbstractIntegrationTest {
+    
+    @MockBean
+    protected ProductMapper productMapper;
+    
+    @MockBean
+    protected CategoryMapper categoryMapper;
+    
+    @TestConfiguration
+    static class TestConfig {
+        
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return NoOpPasswordEncoder.getInstance();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.AbstractIntegrationTest;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent stock changes must never oversell, lose an update or reserve part of an order.
+ * Every worker waits on a shared start latch so the calls overlap as much as possible.
+ * <p>
+ * These are quick correctness checks. Throughput under contention is measured by the JMH
+ * benchmarks in the benchmarks module, which also stresses the same invariants with jcstress.
+ */
+class InventoryServiceConcurrencyTest extends AbstractIntegrationTest {
+    
+    private static final int THREADS = 64;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    private ExecutorService executor;
+    
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        int initialStock = 50;
+        int attempts = THREADS * 2;
+        Product product = createProduct(initialStock);
+        AtomicInteger reserved = new AtomicInteger();
+        
+        runConcurrently(attempts, () -> {
+            if (inventoryService.reserveStock(copyOf(product), 1)) {
+                reserved.incrementAndGet();
+            }
+            return null;
+        });
+        
+        assertEquals(initialStock, reserved.get());
+        assertEquals(0, stockOf(product));
+    }
+    
+    @Test
+    void concurrentReservationsOfSeveralUnitsKeepStockConsistent() throws Exception {
+        int initialStock = 100;
+        int quantity = 3;
+        Product product = createProduct(initialStock);
+        AtomicInteger reserved = new AtomicInteger();
+        
+        runConcurrently(THREADS, () -> {
+            if (inventoryService.reserveStock(copyOf(product), quantity)) {
+                reserved.incrementAndGet();
+            }
+            return null;
+        });
+        
+        assertEquals(initialStock / quantity, reserved.get());
+        assertEquals(initialStock - reserved.get() * quantity, stockOf(product));
+    }
+    
+    @Test
+    void concurrentStockUpdatesAreNeverLost() throws Exception {
+        int initialStock = 64;
+        Product product = createProduct(initialStock);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger next = new AtomicInteger();
+        
+        // Alternate restocks of 2 and removals of 3; removals may be refused when stock runs low
+        runConcurrently(THREADS * 2, () -> {
+            int quantity = next.getAndIncrement() % 2 == 0 ? 2 : -3;
+            try {
+                inventoryService.updateProductStock(copyOf(product), quantity);
+                applied.addAndGet(quantity);
+            } catch (IllegalStateException e) {
+                // Refused removal
+            }
+            return null;
+        });
+        
+        assertEquals(initialStock + applied.get(), stockOf(product));
+    }
+    
+    @Test
+    void concurrentOrdersReserveEveryLineOrNone() throws Exception {
+        int initialStock = THREADS / 2;
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            products.add(createProduct(initialStock));
+        }
+        AtomicIntegerArray reserved = new AtomicIntegerArray(products.size());
+        
+        // Two-line orders in random line order, so lock order is up to the service
+        runConcurrently(THREADS * 2, () -> {
+            List<Integer> lines = new ArrayList<>(List.of(0, 1, 2));
+            Collections.shuffle(lines, ThreadLocalRandom.current());
+            Map<String, Integer> order = new LinkedHashMap<>();
+            lines.subList(0, 2).forEach(line -> order.put(products.get(line).getSku(), 1));
+            try {
+                inventoryService.reserveStockBySku(order);
+                lines.subList(0, 2).forEach(reserved::incrementAndGet);
+            } catch (IllegalStateException e) {
+                // Some line ran out
+            }
+            return null;
+        });
+        
+        for (int i = 0; i < products.size(); i++) {
+            assertEquals(initialStock - reserved.get(i), stockOf(products.get(i)));
+        }
+    }
+    
+    // Private helper methods
+    
+    private void runConcurrently(int tasks, Callable<Void> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(tasks);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    task.call();
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS), "Workers did not finish in time");
+        assertEquals(0, failures.get(), "Workers failed unexpectedly");
+    }
+    
+    private Product createProduct(int stock) {
+        Product product = new Product("Contended product", new BigDecimal("9.99"),
+                "CONC-" + UUID.randomUUID());
+        product.setStockQuantity(stock);
+        return productRepository.save(product);
+    }
+    
+    private static Product copyOf(Product product) {
+        // Each worker passes its own detached instance, as separate requests would
+        Product copy = new Product(product.getName(), product.getPrice(), product.getSku());
+        copy.setId(product.getId());
+        return copy;
+    }
+    
+    private int stockOf(Product product) {
+        return productRepository.findStockQuantityById(product.getId());
+    }
+}
@@ -0,0 +1,78 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.AbstractIntegrationTest;
+import com.zengent.demo.dto.StockAdjustment;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InventoryServiceTest extends AbstractIntegrationTest {
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void applyStockDeltasReportsExactlyTheUpdatedProducts() {
+        Product restocked = createProduct(5);
+        Product oversold = createProduct(2);
+        Product overflowing = createProduct(Integer.MAX_VALUE - 1);
+        long missingId = Long.MAX_VALUE;
+        
+        Map<Long, Integer> deltas = new TreeMap<>();
+        deltas.put(restocked.getId(), 10);
+        deltas.put(oversold.getId(), -3);
+        deltas.put(overflowing.getId(), 2);
+        deltas.put(missingId, 1);
+        List<Long> applied = new TransactionTemplate(transactionManager)
+                .execute(status -> inventoryService.applyStockDeltas(deltas));
+        
+        assertEquals(List.of(restocked.getId()), applied);
+        assertEquals(15, stockOf(restocked));
+        assertEquals(2, stockOf(oversold));
+        assertEquals(Integer.MAX_VALUE - 1, stockOf(overflowing));
+    }
+    
+    @Test
+    void adjustStockRejectsOverflowingNetDeltas() {
+        Product product = createProduct(0);
+        List<StockAdjustment> adjustments = List.of(
+                new StockAdjustment(product.getId(), Integer.MAX_VALUE),
+                new StockAdjustment(product.getId(), 1));
+        
+        assertThrows(IllegalArgumentException.class, () -> productService.adjustStock(adjustments));
+        assertEquals(0, stockOf(product));
+    }
+    
+    // Private helper methods
+    
+    private Product createProduct(int stock) {
+        Product product = new Product("Stocked product", new BigDecimal("1.00"), "STK-" + UUID.randomUUID());
+        product.setStockQuantity(stock);
+        return productRepository.save(product);
+    }
+    
+    private int stockOf(Product product) {
+        return productRepository.findStockQuantityById(product.getId());
+    }
+}
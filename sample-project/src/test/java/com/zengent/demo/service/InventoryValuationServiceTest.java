@@ -0,0 +1,89 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.model.Category;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductDeactivatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductUpdatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.StockUpdatedEvent;
+import com.zengent.demo.service.events.StockChangeReason;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InventoryValuationServiceTest {
+    
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final StockShardService stockShardService = mock(StockShardService.class);
+    private final InventoryValuationService service =
+            new InventoryValuationService(productRepository, stockShardService, new SimpleMeterRegistry());
+    
+    @Test
+    void updateAndDeactivationCountStockPendingInShards() {
+        // 10 units in the row and 5 in shards, at 2.00
+        when(productRepository.sumInventoryValueByCategory()).thenReturn(categoryValues(1L, "30.00"));
+        when(stockShardService.getPendingStock(7L)).thenReturn(5L);
+        service.load();
+        
+        Product repriced = product(7L, 1L, "3.00", 10);
+        service.onProductUpdated(new ProductUpdatedEvent(repriced, new BigDecimal("2.00"), 10, 1L, true));
+        assertEquals(new BigDecimal("45.00"), service.getTotalValue());
+        
+        service.onProductDeactivated(new ProductDeactivatedEvent(repriced));
+        assertEquals(new BigDecimal("0.00"), service.getTotalValue());
+    }
+    
+    @Test
+    void reconcileReplaysDeltasAppliedDuringTheScan() {
+        when(productRepository.sumInventoryValueByCategory()).thenReturn(categoryValues(1L, "10.00"));
+        service.load();
+        
+        when(productRepository.sumInventoryValueByCategory()).thenAnswer(invocation -> {
+            // Committed after the scan read the product
+            service.onStockUpdated(new StockUpdatedEvent(product(7L, 1L, "1.00", 15), 5, StockChangeReason.ADJUSTMENT));
+            return categoryValues(1L, "10.00");
+        });
+        
+        assertEquals(0, service.reconcile());
+        assertEquals(new BigDecimal("15.00"), service.getTotalValue());
+        assertEquals(new BigDecimal("15.00"), service.getCategoryValue(1L));
+    }
+    
+    @Test
+    void reconcileReportsAndCorrectsDrift() {
+        when(productRepository.sumInventoryValueByCategory()).thenReturn(categoryValues(1L, "10.00"));
+        service.load();
+        service.onStockUpdated(new StockUpdatedEvent(product(7L, 1L, "1.00", 12), 2, StockChangeReason.ADJUSTMENT));
+        
+        // The change never committed to the database, so the scan does not have it
+        assertEquals(200, service.reconcile());
+        assertEquals(new BigDecimal("10.00"), service.getTotalValue());
+    }
+    
+    // Private helper methods
+    
+    /** Rows of [categoryId, value]. */
+    private static List<Object[]> categoryValues(Long categoryId, String value) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {categoryId, new BigDecimal(value)});
+        return rows;
+    }
+    
+    private static Product product(Long id, Long categoryId, String price, int stock) {
+        Product product = new Product("Product " + id, new BigDecimal(price), "SKU-" + id);
+        product.setId(id);
+        product.setStockQuantity(stock);
+        product.setIsActive(true);
+        Category category = new Category();
+        category.setId(categoryId);
+        product.setCategory(category);
+        return product;
+    }
+}
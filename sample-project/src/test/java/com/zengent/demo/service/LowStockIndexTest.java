@@ -0,0 +1,67 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher.StockUpdatedEvent;
+import com.zengent.demo.service.events.StockChangeReason;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LowStockIndexTest {
+    
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final StockShardService stockShardService = mock(StockShardService.class);
+    private final LowStockIndex index = new LowStockIndex(productRepository, stockShardService, 100);
+    
+    @Test
+    void eventsCountStockPendingInShards() {
+        when(productRepository.findActiveStockLevelsUpTo(100)).thenReturn(stockLevels());
+        index.load();
+        when(stockShardService.getPendingStock(1L)).thenReturn(30L);
+        
+        index.onStockUpdated(new StockUpdatedEvent(product(1L, 2), -1, StockChangeReason.RESERVATION));
+        
+        assertArrayEquals(new long[0], index.findProductIdsBelow(10).orElseThrow());
+        assertArrayEquals(new long[] {1L}, index.findProductIdsBelow(40).orElseThrow());
+    }
+    
+    @Test
+    void rebuildReplaysChangesCommittedDuringTheScan() {
+        when(productRepository.findActiveStockLevelsUpTo(100)).thenAnswer(invocation -> {
+            // Product 1 is restocked after the scan read it at 3
+            index.onStockUpdated(new StockUpdatedEvent(product(1L, 50), 47, StockChangeReason.ADJUSTMENT));
+            return stockLevels(1L, 3L, 2L, 4L);
+        });
+        
+        index.rebuild();
+        
+        assertArrayEquals(new long[] {2L}, index.findProductIdsBelow(10).orElseThrow());
+        assertArrayEquals(new long[] {2L, 1L}, index.findProductIdsBelow(60).orElseThrow());
+    }
+    
+    // Private helper methods
+    
+    /** Rows of [productId, stock], from alternating arguments. */
+    private static List<Object[]> stockLevels(long... idsAndStocks) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < idsAndStocks.length; i += 2) {
+            rows.add(new Object[] {idsAndStocks[i], idsAndStocks[i + 1]});
+        }
+        return rows;
+    }
+    
+    private static Product product(Long id, int stock) {
+        Product product = new Product("Product " + id, new BigDecimal("9.99"), "SKU-" + id);
+        product.setId(id);
+        product.setStockQuantity(stock);
+        product.setIsActive(true);
+        return product;
+    }
+}
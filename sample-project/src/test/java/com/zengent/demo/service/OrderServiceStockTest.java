@@ -0,0 +1,110 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.AbstractIntegrationTest;
+import com.zengent.demo.dto.OrderIngestResult;
+import com.zengent.demo.model.Order;
+import com.zengent.demo.model.OrderItem;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.model.User;
+import com.zengent.demo.repository.OrderRepository;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cancelling an order returns its stock only if the order reserved it, and only once.
+ */
+class OrderServiceStockTest extends AbstractIntegrationTest {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private User user;
+    private Product product;
+    
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        user = userRepository.save(new User("user-" + suffix, suffix + "@example.com", "secret"));
+        product = new Product("Ordered product", new BigDecimal("3.00"), "ORD-" + suffix);
+        product.setStockQuantity(10);
+        product = productRepository.save(product);
+    }
+    
+    @Test
+    void cancellingAReservedOrderReturnsItsStockOnce() {
+        Long orderId = createReservedOrder(4);
+        assertEquals(6, stock());
+        
+        assertTrue(orderService.cancelOrder(orderId));
+        assertEquals(10, stock());
+        assertFalse(orderRepository.findById(orderId).orElseThrow().isStockReserved());
+        
+        assertFalse(orderService.cancelOrder(orderId));
+        assertEquals(10, stock());
+    }
+    
+    @Test
+    void cancellingAnOrderThatReservedNothingLeavesStockAlone() {
+        Order order = new Order("UNRESERVED-" + UUID.randomUUID(), user, new BigDecimal("12.00"));
+        order.setOrderItems(new ArrayList<>(List.of(item(order, 4))));
+        Long orderId = orderRepository.save(order).getId();
+        
+        assertTrue(orderService.expirePendingOrder(orderId));
+        assertEquals(10, stock());
+    }
+    
+    @Test
+    void bulkCancellationReturnsOnlyReservedStock() {
+        Long reserved = createReservedOrder(3);
+        Order unreserved = new Order("UNRESERVED-" + UUID.randomUUID(), user, new BigDecimal("6.00"));
+        unreserved.setOrderItems(new ArrayList<>(List.of(item(unreserved, 2))));
+        Long unreservedId = orderRepository.save(unreserved).getId();
+        assertEquals(7, stock());
+        
+        orderService.transitionOrders(List.of(reserved, unreservedId),
+                Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED);
+        assertEquals(10, stock());
+    }
+    
+    // Private helper methods
+    
+    private Long createReservedOrder(int quantity) {
+        Order draft = new Order();
+        draft.setUser(user);
+        draft.setOrderItems(new ArrayList<>(List.of(item(draft, quantity))));
+        OrderIngestResult result = orderService.createOrders(List.of(draft)).get(0);
+        assertTrue(result.isSuccess(), result.getError());
+        return result.getOrderId();
+    }
+    
+    private OrderItem item(Order order, int quantity) {
+        OrderItem item = new OrderItem(order, product.getName(), quantity, product.getPrice());
+        item.setProductCode(product.getSku());
+        return item;
+    }
+    
+    private int stock() {
+        return productRepository.findStockQuantityById(product.getId());
+    }
+}
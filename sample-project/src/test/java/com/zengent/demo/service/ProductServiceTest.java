@@ -0,0 +1,33 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.AbstractIntegrationTest;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductServiceTest extends AbstractIntegrationTest {
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void createProductReportsDuplicateSkuMissedByTheFilter() {
+        // Saved directly, so the SKU filter never sees it and only the unique constraint catches it
+        String sku = "DUP-" + UUID.randomUUID();
+        productRepository.save(new Product("Existing product", new BigDecimal("1.00"), sku));
+        
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> productService.createProduct(new Product("Duplicate product", new BigDecimal("2.00"), sku)));
+        assertEquals("Product with SKU already exists: " + sku, e.getMessage());
+    }
+}
@@ -0,0 +1,154 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.AbstractIntegrationTest;
+import com.zengent.demo.dto.SalesReport;
+import com.zengent.demo.model.Order;
+import com.zengent.demo.model.User;
+import com.zengent.demo.repository.OrderRepository;
+import com.zengent.demo.repository.UserRepository;
+import com.zengent.demo.service.archive.OrderArchiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sales totals and status breakdowns built from the rollup match a plain aggregate of
+ * the orders, for ranges with partial edge days and ranges reaching into the archive.
+ * <p>
+ * Each test places its orders in a year no other test uses, so the shared database
+ * does not leak into the ranges checked.
+ */
+class SalesRollupServiceTest extends AbstractIntegrationTest {
+    
+    private static final LocalTime[] ORDER_TIMES = {
+            LocalTime.MIDNIGHT, LocalTime.of(9, 30), LocalTime.NOON, LocalTime.of(18, 45), LocalTime.of(23, 59, 59)};
+    private static final Order.OrderStatus[] STATUSES = {
+            Order.OrderStatus.DELIVERED, Order.OrderStatus.CANCELLED, Order.OrderStatus.PENDING};
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private User user;
+    private final List<Order> orders = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        user = userRepository.save(new User("sales-" + suffix, suffix + "@example.com", "secret"));
+    }
+    
+    @Test
+    void partialEdgeDaysMatchRawAggregate() {
+        LocalDate first = LocalDate.of(2001, 3, 10);
+        createOrders(first, 5);
+        
+        // Whole days only, then each edge cut mid-day, then a range inside one day
+        assertMatchesRawAggregate(first.atStartOfDay(), first.plusDays(2).atTime(LocalTime.MAX));
+        assertMatchesRawAggregate(first.atTime(10, 0), first.plusDays(3).atTime(12, 0));
+        assertMatchesRawAggregate(first.plusDays(1).atTime(12, 0), first.plusDays(4).atTime(LocalTime.MAX));
+        assertMatchesRawAggregate(first.atStartOfDay(), first.plusDays(1).atTime(18, 45));
+        assertMatchesRawAggregate(first.plusDays(2).atTime(9, 0), first.plusDays(2).atTime(19, 0));
+        // Starting mid-day before the first order and ending mid-day after the last
+        assertMatchesRawAggregate(first.minusDays(1).atTime(6, 0), first.plusDays(5).atTime(6, 0));
+    }
+    
+    @Test
+    void rangesSpanningArchivedDaysMatchRawAggregate() {
+        LocalDate first = LocalDate.of(2002, 6, 3);
+        createOrders(first, 5);
+        
+        // Delivered and cancelled orders move to the archive; pending ones stay active
+        assertTrue(orderArchiveService.archiveOrders() > 0);
+        assertTrue(orders.stream()
+                .filter(order -> order.getStatus() != Order.OrderStatus.PENDING)
+                .noneMatch(order -> orderRepository.existsById(order.getId())));
+        
+        assertMatchesRawAggregate(first.atStartOfDay(), first.plusDays(4).atTime(LocalTime.MAX));
+        assertMatchesRawAggregate(first.atTime(9, 30), first.plusDays(2).atTime(12, 0));
+        assertMatchesRawAggregate(first.plusDays(1).atTime(0, 0, 1), first.plusDays(3).atTime(23, 0));
+        assertMatchesRawAggregate(first.plusDays(3).atTime(12, 0), first.plusDays(3).atTime(23, 59, 59));
+    }
+    
+    // Private helper methods
+    
+    /**
+     * Create orders at fixed times of day over consecutive days, cycling through the
+     * statuses and amounts, and add them to the rollup as order creation does.
+     */
+    private void createOrders(LocalDate first, int days) {
+        int n = 0;
+        for (int day = 0; day < days; day++) {
+            for (LocalTime time : ORDER_TIMES) {
+                Order order = new Order("SALES-" + UUID.randomUUID(), user,
+                        BigDecimal.valueOf(1000 + 137L * n, 2));
+                order.setOrderDate(first.plusDays(day).atTime(time));
+                order.setStatus(STATUSES[n % STATUSES.length]);
+                orders.add(orderRepository.save(order));
+                n++;
+            }
+        }
+        salesRollupService.recordOrdersCreated(orders);
+    }
+    
+    private void assertMatchesRawAggregate(LocalDateTime startDate, LocalDateTime endDate) {
+        BigDecimal expectedTotal = BigDecimal.ZERO;
+        long expectedCount = 0;
+        Map<Order.OrderStatus, BigDecimal> expectedByStatus = new EnumMap<>(Order.OrderStatus.class);
+        Map<Order.OrderStatus, Long> expectedCountByStatus = new EnumMap<>(Order.OrderStatus.class);
+        for (Order order : orders) {
+            if (order.getOrderDate().isBefore(startDate) || order.getOrderDate().isAfter(endDate)) {
+                continue;
+            }
+            expectedTotal = expectedTotal.add(order.getTotalAmount());
+            expectedCount++;
+            expectedByStatus.merge(order.getStatus(), order.getTotalAmount(), BigDecimal::add);
+            expectedCountByStatus.merge(order.getStatus(), 1L, Long::sum);
+        }
+        String range = startDate + " to " + endDate;
+        
+        assertEquals(money(expectedTotal), money(salesRollupService.calculateTotalSales(startDate, endDate)), range);
+        
+        SalesReport report = salesRollupService.getSalesReport(startDate, endDate);
+        assertEquals(money(expectedTotal), money(report.getTotalSales()), range);
+        assertEquals(expectedCount, report.getOrderCount(), range);
+        Map<Order.OrderStatus, BigDecimal> actualByStatus = new EnumMap<>(Order.OrderStatus.class);
+        Map<Order.OrderStatus, Long> actualCountByStatus = new EnumMap<>(Order.OrderStatus.class);
+        report.getStatusBreakdown().forEach((status, sales) -> {
+            // The rollup may keep empty buckets for a status
+            if (sales.getOrderCount() != 0) {
+                actualByStatus.put(status, money(sales.getTotalSales()));
+                actualCountByStatus.put(status, sales.getOrderCount());
+            }
+        });
+        expectedByStatus.replaceAll((status, total) -> money(total));
+        assertEquals(expectedByStatus, actualByStatus, range);
+        assertEquals(expectedCountByStatus, actualCountByStatus, range);
+    }
+    
+    private static BigDecimal money(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
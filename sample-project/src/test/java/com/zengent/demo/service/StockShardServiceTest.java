@@ -0,0 +1,181 @@
+package com.zengent.demo.service;
+
+import com.zengent.demo.AbstractIntegrationTest;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stock of hot products, split between the product row and its counter shards, must add up
+ * under concurrent additions, removals and flushes, and must survive a fold that never commits.
+ */
+class StockShardServiceTest extends AbstractIntegrationTest {
+    
+    private static final int THREADS = 64;
+    private static final int SHARDS = 4;
+    
+    @Autowired
+    private StockShardService stockShardService;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private ExecutorService executor;
+    
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS + 1);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void concurrentAddsRemovalsAndFlushesKeepTotalStock() throws Exception {
+        int initialStock = 20;
+        Product product = createHotProduct(initialStock);
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger taken = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        
+        for (int i = 0; i < THREADS; i++) {
+            boolean adder = i % 2 == 0;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int round = 0; round < 5; round++) {
+                        if (adder) {
+                            inventoryService.updateProductStock(copyOf(product), 1);
+                            added.incrementAndGet();
+                        } else if (inventoryService.reserveStock(copyOf(product), 1)) {
+                            taken.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        // Fold the shards while the workers run, taking locks in the opposite direction to a naive removal
+        executor.execute(() -> {
+            try {
+                start.await();
+                while (done.getCount() > 0) {
+                    stockShardService.flush();
+                }
+            } catch (Exception e) {
+                failures.incrementAndGet();
+            }
+        });
+        start.countDown();
+        
+        assertTrue(done.await(120, TimeUnit.SECONDS), "Workers did not finish in time");
+        assertEquals(0, failures.get(), "Workers failed, e.g. on a deadlock or lock timeout");
+        assertEquals(initialStock + added.get() - taken.get(), totalStock(product));
+    }
+    
+    @Test
+    void concurrentRemovalsDoNotFailWhileShardsHoldEnough() throws Exception {
+        Product product = createHotProduct(0);
+        inventoryService.updateProductStock(copyOf(product), THREADS);
+        assertEquals(0, productRepository.findStockQuantityById(product.getId()));
+        AtomicInteger refused = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        
+        // Every removal races the others for the few shards holding stock
+        for (int i = 0; i < THREADS; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    if (!inventoryService.reserveStock(copyOf(product), 1)) {
+                        refused.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        
+        assertTrue(done.await(120, TimeUnit.SECONDS), "Workers did not finish in time");
+        assertEquals(0, failures.get(), "Workers failed, e.g. on a deadlock or lock timeout");
+        assertEquals(0, refused.get(), "Removals were refused although stock was left");
+        assertEquals(0, totalStock(product));
+    }
+    
+    @Test
+    void foldRolledBackMidwayLeavesStockUnchanged() {
+        Product product = createHotProduct(5);
+        inventoryService.updateProductStock(copyOf(product), 10);
+        assertEquals(15, totalStock(product));
+        
+        // The process stopping after the shards were moved but before the commit
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertThrows(IllegalStateException.class, () -> transaction.executeWithoutResult(status -> {
+            stockShardService.fold(product.getId());
+            throw new IllegalStateException("Simulated crash before commit");
+        }));
+        assertEquals(15, totalStock(product));
+        
+        transaction.executeWithoutResult(status -> stockShardService.fold(product.getId()));
+        assertEquals(0, stockShardService.getPendingStock(product.getId()));
+        assertEquals(15, productRepository.findStockQuantityById(product.getId()));
+    }
+    
+    // Private helper methods
+    
+    private Product createHotProduct(int stock) {
+        Product product = new Product("Hot product", new BigDecimal("4.50"), "HOT-" + UUID.randomUUID());
+        product.setStockQuantity(stock);
+        product = productRepository.save(product);
+        stockShardService.enable(product.getId(), SHARDS);
+        return product;
+    }
+    
+    private static Product copyOf(Product product) {
+        Product copy = new Product(product.getName(), product.getPrice(), product.getSku());
+        copy.setId(product.getId());
+        return copy;
+    }
+    
+    private long totalStock(Product product) {
+        // Read both parts in one transaction so a concurrent flush cannot be seen half-done
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long total = transaction.execute(status -> productRepository.findStockQuantityById(product.getId())
+                + stockShardService.getPendingStock(product.getId()));
+        return total != null ? total : 0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.zengent.demo.service.alert;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.service.InventoryService;
+import com.zengent.demo.service.events.ProductEventPublisher.StockUpdatedEvent;
+import com.zengent.demo.service.events.StockChangeReason;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LowStockAlertServiceTest {
+    
+    private final InventoryService inventoryService = mock(InventoryService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // The worker is not started, so queued alerts stay in the queue
+    private final LowStockAlertService service = new LowStockAlertService(
+            List.of(), inventoryService, meterRegistry, 5, Duration.ofMinutes(1), 16);
+    
+    @Test
+    void lowRowWithStockInShardsRaisesNoAlert() {
+        Product product = product(1L, 2);
+        when(inventoryService.getAvailableStock(product)).thenReturn(40L);
+        
+        service.onStockUpdated(new StockUpdatedEvent(product, -1, StockChangeReason.RESERVATION));
+        
+        assertEquals(0, enqueued());
+    }
+    
+    @Test
+    void lowAvailableStockRaisesAlert() {
+        Product product = product(1L, 2);
+        when(inventoryService.getAvailableStock(product)).thenReturn(4L);
+        
+        service.onStockUpdated(new StockUpdatedEvent(product, -1, StockChangeReason.RESERVATION));
+        
+        assertEquals(1, enqueued());
+    }
+    
+    @Test
+    void rowAboveThresholdSkipsShardRead() {
+        Product product = product(1L, 6);
+        
+        service.onStockUpdated(new StockUpdatedEvent(product, -1, StockChangeReason.RESERVATION));
+        
+        assertEquals(0, enqueued());
+        verify(inventoryService, never()).getAvailableStock(product);
+    }
+    
+    // Private helper methods
+    
+    private double enqueued() {
+        return meterRegistry.counter("inventory.low_stock.alerts.enqueued").count();
+    }
+    
+    private static Product product(Long id, int stock) {
+        Product product = new Product("Product " + id, new BigDecimal("9.99"), "SKU-" + id);
+        product.setId(id);
+        product.setStockQuantity(stock);
+        return product;
+    }
+}
@@ -0,0 +1,60 @@
+package com.zengent.demo.service.journal;
+
+import com.zengent.demo.service.events.StockChangeReason;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockJournalRecordTest {
+    
+    private final CRC32 crc = new CRC32();
+    
+    @Test
+    void writtenRecordReadsBackAtItsOffset() {
+        ByteBuffer buffer = ByteBuffer.allocate(StockJournalRecord.SIZE * 3);
+        int offset = StockJournalRecord.SIZE;
+        StockJournalRecord.write(buffer, offset, 42L, 1_700_000_000_000L, -7, StockChangeReason.RESERVATION, crc);
+        
+        assertTrue(StockJournalRecord.isValid(buffer, offset, crc));
+        StockJournalRecord record = StockJournalRecord.read(buffer, offset);
+        assertEquals(42L, record.getProductId());
+        assertEquals(1_700_000_000_000L, record.getTimestamp());
+        assertEquals(-7, record.getDelta());
+        assertEquals(StockChangeReason.RESERVATION, record.getReason());
+        assertEquals(0, buffer.position());
+    }
+    
+    @Test
+    void zeroFilledSpaceIsNotValid() {
+        ByteBuffer buffer = ByteBuffer.allocate(StockJournalRecord.SIZE);
+        
+        assertFalse(StockJournalRecord.isValid(buffer, 0, crc));
+    }
+    
+    @Test
+    void corruptedRecordFailsItsChecksum() {
+        ByteBuffer buffer = ByteBuffer.allocate(StockJournalRecord.SIZE);
+        StockJournalRecord.write(buffer, 0, 42L, 1L, 5, StockChangeReason.RELEASE, crc);
+        buffer.put(17, (byte) (buffer.get(17) ^ 1));
+        
+        assertFalse(StockJournalRecord.isValid(buffer, 0, crc));
+    }
+    
+    @Test
+    void unknownReasonCodeIsNotValid() {
+        ByteBuffer buffer = ByteBuffer.allocate(StockJournalRecord.SIZE);
+        StockJournalRecord.write(buffer, 0, 42L, 1L, 5, StockChangeReason.RELEASE, crc);
+        // Rewrite the reason with an unknown code and a matching checksum
+        buffer.put(20, (byte) 99);
+        crc.reset();
+        crc.update(buffer.array(), 0, 28);
+        buffer.putInt(28, (int) crc.getValue());
+        
+        assertFalse(StockJournalRecord.isValid(buffer, 0, crc));
+    }
+}
@@ -0,0 +1,89 @@
+package com.zengent.demo.service.journal;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductCreatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductUpdatedEvent;
+import com.zengent.demo.service.events.ProductEventPublisher.StockUpdatedEvent;
+import com.zengent.demo.service.events.StockChangeReason;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StockJournalTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void replayRebuildsBaselineCreatedAndUpdatedStock() throws Exception {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        // Product 1 has 10 units in its row and 5 in shards
+        when(productRepository.findAllStockLevels()).thenReturn(stockLevel(1L, 15));
+        
+        StockJournal journal = newJournal(productRepository);
+        journal.start();
+        journal.onStockUpdated(new StockUpdatedEvent(product(1L, 12), -3, StockChangeReason.RESERVATION));
+        journal.onProductCreated(new ProductCreatedEvent(product(2L, 20)));
+        journal.onProductUpdated(new ProductUpdatedEvent(product(2L, 26), BigDecimal.ONE, 20, null, true));
+        journal.onProductUpdated(new ProductUpdatedEvent(product(1L, 12), BigDecimal.ONE, 12, null, true));
+        journal.stop();
+        
+        StockJournalReplay.Result result = StockJournalReplay.replay(directory);
+        assertEquals(4, result.getRecords());
+        assertEquals(12, result.getStock().get(1L, -1));
+        assertEquals(26, result.getStock().get(2L, -1));
+    }
+    
+    @Test
+    void restartResumesWithoutAnotherBaseline() throws Exception {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findAllStockLevels()).thenReturn(stockLevel(1L, 15));
+        
+        StockJournal first = newJournal(productRepository);
+        first.start();
+        first.onStockUpdated(new StockUpdatedEvent(product(1L, 14), -1, StockChangeReason.RESERVATION));
+        first.stop();
+        
+        // A second baseline would reset product 1 to this stale level
+        when(productRepository.findAllStockLevels()).thenReturn(stockLevel(1L, 99));
+        StockJournal second = newJournal(productRepository);
+        second.start();
+        second.onStockUpdated(new StockUpdatedEvent(product(1L, 13), -1, StockChangeReason.RESERVATION));
+        second.stop();
+        
+        StockJournalReplay.Result result = StockJournalReplay.replay(directory);
+        assertEquals(3, result.getRecords());
+        assertEquals(13, result.getStock().get(1L, -1));
+    }
+    
+    // Private helper methods
+    
+    private StockJournal newJournal(ProductRepository productRepository) {
+        return new StockJournal(productRepository, new SimpleMeterRegistry(), directory.toString(),
+                1024, Duration.ofMillis(50), 64);
+    }
+    
+    private static List<Object[]> stockLevel(long productId, int stock) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {productId, stock});
+        return rows;
+    }
+    
+    private static Product product(long id, int stock) {
+        Product product = new Product("Journaled product", BigDecimal.ONE, "JRN-" + id);
+        product.setId(id);
+        product.setStockQuantity(stock);
+        return product;
+    }
+}
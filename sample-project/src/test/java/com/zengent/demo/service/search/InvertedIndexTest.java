@@ -0,0 +1,129 @@
+package com.zengent.demo.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+    
+    @Test
+    void scoresWithBm25() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("phone", 1f));
+        index.put(2, Map.of("phone", 1f, "case", 1f));
+        index.put(3, Map.of("case", 1f));
+        
+        InvertedIndex.SearchHits hits = index.search(List.of("phone"), 0, 10);
+        
+        // Two of three documents match; average length 4/3
+        double idf = Math.log(1 + (3 - 2 + 0.5) / (2 + 0.5));
+        assertArrayEquals(new long[] {1, 2}, hits.getIds());
+        assertEquals(2, hits.getTotalHits());
+        assertEquals(bm25(idf, 1, 1, 4.0 / 3), hits.getScores()[0], 1e-9);
+        assertEquals(bm25(idf, 1, 2, 4.0 / 3), hits.getScores()[1], 1e-9);
+    }
+    
+    @Test
+    void rankHigherTermFrequencyAndSumOverTerms() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("phone", 1f, "filler", 2f));
+        index.put(2, Map.of("phone", 3f));
+        index.put(3, Map.of("phone", 1f, "case", 1f, "filler", 1f));
+        
+        assertArrayEquals(new long[] {2, 1, 3}, index.search(List.of("phone"), 0, 10).getIds());
+        assertEquals(3, index.search(List.of("phone", "case"), 0, 10).getIds()[0]);
+    }
+    
+    @Test
+    void pagesThroughHitsBestFirst() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, Map.of("phone", (float) id));
+        }
+        
+        InvertedIndex.SearchHits page = index.search(List.of("phone"), 1, 2);
+        
+        assertArrayEquals(new long[] {4, 3}, page.getIds());
+        assertEquals(5, page.getTotalHits());
+        assertEquals(0, index.search(List.of("missing"), 0, 10).getTotalHits());
+    }
+    
+    @Test
+    void fuzzySearchExpandsTermsThroughTrigrams() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("phone", 1f));
+        index.put(2, Map.of("charger", 1f));
+        
+        InvertedIndex.SearchHits exact = index.search(List.of("phone"), 0, 10);
+        InvertedIndex.SearchHits fuzzy = index.searchFuzzy(List.of("phome"), 2, 0, 10);
+        
+        // One edit away: the match scores half of an exact one
+        assertArrayEquals(new long[] {1}, fuzzy.getIds());
+        assertEquals(exact.getScores()[0] / 2, fuzzy.getScores()[0], 1e-9);
+        assertArrayEquals(new long[] {2}, index.searchFuzzy(List.of("chargre"), 2, 0, 10).getIds());
+        assertEquals(0, index.search(List.of("phome"), 0, 10).getTotalHits());
+    }
+    
+    @Test
+    void fuzzySearchAllowsNoEditsForShortTerms() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("usb", 1f));
+        
+        assertEquals(0, index.searchFuzzy(List.of("usc"), 2, 0, 10).getTotalHits());
+        assertArrayEquals(new long[] {1}, index.matchingIds(List.of("usb"), 2));
+    }
+    
+    @Test
+    void replacingADocumentDropsItsOldTerms() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("phone", 1f));
+        index.put(1, Map.of("case", 1f));
+        
+        assertEquals(1, index.size());
+        assertEquals(0, index.search(List.of("phone"), 0, 10).getTotalHits());
+        assertEquals(0, index.searchFuzzy(List.of("phome"), 2, 0, 10).getTotalHits());
+        assertArrayEquals(new long[] {1}, index.search(List.of("case"), 0, 10).getIds());
+    }
+    
+    @Test
+    void removesFromLongPostingsLists() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 0; id < 200; id++) {
+            index.put(id, Map.of("common", 1f, "doc" + id, 1f));
+        }
+        for (long id = 1; id < 200; id += 2) {
+            assertTrue(index.remove(id));
+        }
+        assertFalse(index.remove(1));
+        // Re-adding moves documents around in the list
+        index.put(7, Map.of("common", 1f));
+        index.remove(0);
+        
+        long[] expected = LongStream.concat(LongStream.range(1, 100).map(i -> i * 2), LongStream.of(7))
+                .sorted().toArray();
+        long[] matching = index.matchingIds(List.of("common"), 0);
+        Arrays.sort(matching);
+        assertArrayEquals(expected, matching);
+        
+        for (long id : expected) {
+            assertTrue(index.remove(id));
+        }
+        assertEquals(0, index.size());
+        assertEquals(0, index.search(List.of("common"), 0, 10).getTotalHits());
+    }
+    
+    // Private helper methods
+    
+    private static double bm25(double idf, double tf, double length, double averageLength) {
+        double norm = 1 - InvertedIndex.B + InvertedIndex.B * length / averageLength;
+        return idf * tf * (InvertedIndex.K1 + 1) / (tf + InvertedIndex.K1 * norm);
+    }
+}
@@ -0,0 +1,50 @@
+package com.zengent.demo.service.search;
+
+import com.zengent.demo.AbstractIntegrationTest;
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductFacetServiceTest extends AbstractIntegrationTest {
+    
+    @Autowired
+    private ProductFacetService productFacetService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void followsEventsAndPicksUpSilentChangesOnRebuild() {
+        Product created = productService.createProduct(newProduct(new BigDecimal("5.00"), 3));
+        // Saved without an event, like a rating change; only a rebuild sees it
+        Product silent = productRepository.save(newProduct(new BigDecimal("30.00"), 0));
+        long[] ids = {created.getId(), silent.getId()};
+        
+        assertEquals(Map.of("0-10", 1L), productFacetService.count(ids).orElseThrow().get(ProductFacetService.PRICE));
+        
+        productFacetService.rebuild();
+        
+        Map<String, Map<String, Long>> facets = productFacetService.count(ids).orElseThrow();
+        assertEquals(Map.of("0-10", 1L, "25-50", 1L), facets.get(ProductFacetService.PRICE));
+        assertEquals(Map.of("true", 1L, "false", 1L), facets.get(ProductFacetService.IN_STOCK));
+    }
+    
+    // Private helper methods
+    
+    private static Product newProduct(BigDecimal price, int stock) {
+        Product product = new Product("Faceted product", price, "FACET-" + UUID.randomUUID());
+        product.setStockQuantity(stock);
+        return product;
+    }
+}
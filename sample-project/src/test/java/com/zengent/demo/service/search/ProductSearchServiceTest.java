@@ -0,0 +1,53 @@
+package com.zengent.demo.service.search;
+
+import com.zengent.demo.model.Product;
+import com.zengent.demo.repository.ProductRepository;
+import com.zengent.demo.service.events.ProductEventPublisher.ProductUpdatedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchServiceTest {
+    
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductSearchService service = new ProductSearchService(productRepository, 100, 2);
+    
+    @Test
+    void loadReplaysChangesCommittedWhileItRuns() {
+        when(productRepository.findSearchFieldsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            if ((long) invocation.getArgument(0) > 0) {
+                return new ArrayList<>();
+            }
+            // Renamed after the batch below was read
+            service.onProductUpdated(new ProductUpdatedEvent(product(1L, "Walnut desk"),
+                    new BigDecimal("9.99"), 5, null, true));
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[] {1L, "Oak desk", null, "SKU-1"});
+            rows.add(new Object[] {2L, "Oak chair", null, "SKU-2"});
+            return rows;
+        });
+        
+        service.load();
+        
+        assertArrayEquals(new long[] {1L}, service.findMatchingIds("walnut", false).orElseThrow());
+        assertArrayEquals(new long[] {2L}, service.findMatchingIds("oak", false).orElseThrow());
+    }
+    
+    // Private helper methods
+    
+    private static Product product(Long id, String name) {
+        Product product = new Product(name, new BigDecimal("9.99"), "SKU-" + id);
+        product.setId(id);
+        product.setIsActive(true);
+        return product;
+    }
+}
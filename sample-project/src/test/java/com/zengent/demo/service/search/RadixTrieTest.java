@@ -0,0 +1,102 @@
+package com.zengent.demo.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RadixTrieTest {
+    
+    @Test
+    void completesBestWeightedFirstUpToTheLimit() {
+        RadixTrie trie = new RadixTrie(3);
+        trie.add("phone", 1, "Phone", 5);
+        trie.add("phone case", 2, "Phone Case", 20);
+        trie.add("photo frame", 3, "Photo Frame", 10);
+        trie.add("phonograph", 4, "Phonograph", 1);
+        
+        assertEquals(List.of(2L, 3L, 1L), ids(trie.complete("ph", 10)));
+        assertEquals(List.of(2L, 1L), ids(trie.complete("phone", 10)));
+        assertEquals(List.of(2L), ids(trie.complete("pho", 1)));
+        assertEquals(List.of(), ids(trie.complete("tablet", 10)));
+    }
+    
+    @Test
+    void splitsEdgesWhereKeysDiverge() {
+        RadixTrie trie = new RadixTrie(10);
+        trie.add("carpet", 1, "Carpet", 1);
+        // Splits "carpet" inside the edge, then "car" again for "cat"
+        trie.add("car", 2, "Car", 2);
+        trie.add("cat", 3, "Cat", 3);
+        
+        assertEquals(List.of(3L, 2L, 1L), ids(trie.complete("c", 10)));
+        assertEquals(List.of(2L, 1L), ids(trie.complete("car", 10)));
+        assertEquals(List.of(1L), ids(trie.complete("carp", 10)));
+        assertEquals(List.of(3L), ids(trie.complete("cat", 10)));
+        assertEquals(List.of(), ids(trie.complete("carx", 10)));
+        assertEquals(List.of(), ids(trie.complete("carpets", 10)));
+    }
+    
+    @Test
+    void collapsesNodesLeftWithOneChildOnRemove() {
+        RadixTrie trie = new RadixTrie(10);
+        trie.add("car", 1, "Car", 1);
+        trie.add("cart", 2, "Cart", 2);
+        trie.add("cat", 3, "Cat", 3);
+        
+        trie.remove("car", 1);
+        assertEquals(List.of(2L), ids(trie.complete("car", 10)));
+        trie.remove("cat", 3);
+        assertEquals(List.of(2L), ids(trie.complete("ca", 10)));
+        assertEquals(List.of(2L), ids(trie.complete("cart", 10)));
+        
+        // The collapsed edge splits again cleanly
+        trie.add("cab", 4, "Cab", 4);
+        assertEquals(List.of(4L, 2L), ids(trie.complete("ca", 10)));
+        assertEquals(List.of(2L), ids(trie.complete("car", 10)));
+        
+        trie.remove("cart", 2);
+        trie.remove("cab", 4);
+        assertTrue(trie.complete("c", 10).isEmpty());
+    }
+    
+    @Test
+    void removeOnlyTouchesTheGivenIdAndKey() {
+        RadixTrie trie = new RadixTrie(10);
+        trie.add("lamp", 1, "Lamp", 1);
+        trie.add("lamp", 2, "Lamp", 2);
+        
+        trie.remove("lamp", 3);
+        trie.remove("lam", 1);
+        trie.remove("lamps", 1);
+        assertEquals(List.of(2L, 1L), ids(trie.complete("la", 10)));
+        
+        trie.remove("lamp", 2);
+        assertEquals(List.of(1L), ids(trie.complete("la", 10)));
+    }
+    
+    @Test
+    void keepsOneCompletionPerIdAndRefillsAfterRemove() {
+        RadixTrie trie = new RadixTrie(2);
+        trie.add("smart phone", 1, "Smart Phone", 9);
+        trie.add("smartwatch", 2, "Smartwatch", 5);
+        trie.add("smart speaker", 3, "Smart Speaker", 3);
+        // The same product under a second key must not take a second slot
+        trie.add("smart phone case", 1, "Smart Phone", 9);
+        
+        assertEquals(List.of(1L, 2L), ids(trie.complete("smart", 10)));
+        
+        trie.remove("smart phone", 1);
+        trie.remove("smart phone case", 1);
+        assertEquals(List.of(2L, 3L), ids(trie.complete("smart", 10)));
+    }
+    
+    // Private helper methods
+    
+    private static List<Long> ids(List<RadixTrie.Entry> entries) {
+        return entries.stream().map(RadixTrie.Entry::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,115 @@
+package com.zengent.demo.service.watchdog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimerWheelTest {
+    
+    private static final long TICK_MILLIS = 10;
+    private static final int WHEEL_SIZE = 4;
+    
+    private HashedTimerWheel<String> wheel;
+    
+    @AfterEach
+    void tearDown() {
+        if (wheel != null) {
+            wheel.close();
+        }
+    }
+    
+    @Test
+    void expiresAcrossSeveralRotations() throws Exception {
+        Map<String, Long> expiredAt = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(3);
+        start(item -> {
+            expiredAt.put(item, System.nanoTime());
+            done.countDown();
+        });
+        
+        // One wheel rotation is 40ms; these need 2, 5 and 10 rotations
+        long scheduledAt = System.nanoTime();
+        wheel.schedule("two", 80, TimeUnit.MILLISECONDS);
+        wheel.schedule("ten", 400, TimeUnit.MILLISECONDS);
+        wheel.schedule("five", 200, TimeUnit.MILLISECONDS);
+        
+        assertTrue(done.await(5, TimeUnit.SECONDS), "Timeouts did not expire");
+        assertNotBefore(80, scheduledAt, expiredAt.get("two"));
+        assertNotBefore(200, scheduledAt, expiredAt.get("five"));
+        assertNotBefore(400, scheduledAt, expiredAt.get("ten"));
+        assertTrue(expiredAt.get("two") < expiredAt.get("five"));
+        assertTrue(expiredAt.get("five") < expiredAt.get("ten"));
+        assertEquals(0, wheel.pendingCount());
+    }
+    
+    @Test
+    void cancelledTimeoutNeverExpires() throws Exception {
+        List<String> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch kept = new CountDownLatch(1);
+        start(item -> {
+            expired.add(item);
+            kept.countDown();
+        });
+        
+        HashedTimerWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 50, TimeUnit.MILLISECONDS);
+        wheel.schedule("kept", 100, TimeUnit.MILLISECONDS);
+        assertTrue(cancelled.cancel());
+        assertEquals(1, wheel.pendingCount());
+        
+        assertTrue(kept.await(5, TimeUnit.SECONDS), "Remaining timeout did not expire");
+        assertEquals(List.of("kept"), expired);
+        assertTrue(cancelled.isCancelled());
+        assertFalse(cancelled.isExpired());
+        assertFalse(cancelled.cancel());
+    }
+    
+    @Test
+    void throwingCallbackDoesNotStopTheWheel() throws Exception {
+        List<String> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        start(item -> {
+            try {
+                if (item.startsWith("bad")) {
+                    throw new IllegalStateException("Callback failure");
+                }
+                expired.add(item);
+            } finally {
+                done.countDown();
+            }
+        });
+        
+        // The later timeout lands in the failing one's bucket, one rotation on
+        wheel.schedule("bad", 20, TimeUnit.MILLISECONDS);
+        HashedTimerWheel.Timeout<String> later = wheel.schedule("later", 20 + WHEEL_SIZE * TICK_MILLIS,
+                TimeUnit.MILLISECONDS);
+        
+        assertTrue(done.await(5, TimeUnit.SECONDS), "Wheel stopped after a failing callback");
+        assertEquals(List.of("later"), expired);
+        assertTrue(later.isExpired());
+        assertEquals(1, wheel.failedCallbackCount());
+    }
+    
+    // Private helper methods
+    
+    private void start(Consumer<String> onExpiry) {
+        wheel = new HashedTimerWheel<>("test-timer", TICK_MILLIS, TimeUnit.MILLISECONDS, WHEEL_SIZE, onExpiry);
+        wheel.start();
+    }
+    
+    private static void assertNotBefore(long delayMillis, long scheduledAt, long expiredAt) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(expiredAt - scheduledAt);
+        assertTrue(elapsedMillis >= delayMillis,
+                "Expired after " + elapsedMillis + "ms, before its " + delayMillis + "ms delay");
+    }
+}
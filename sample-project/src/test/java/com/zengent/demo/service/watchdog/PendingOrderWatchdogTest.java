@@ -0,0 +1,67 @@
+package com.zengent.demo.service.watchdog;
+
+import com.zengent.demo.model.Order;
+import com.zengent.demo.repository.OrderRepository;
+import com.zengent.demo.service.OrderService;
+import com.zengent.demo.service.events.OrderEventPublisher.OrderCreatedEvent;
+import com.zengent.demo.service.events.OrderEventPublisher.OrderStatusChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PendingOrderWatchdogTest {
+    
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final PendingOrderWatchdog watchdog = new PendingOrderWatchdog(orderService, orderRepository,
+            Duration.ofMillis(100), PendingOrderWatchdog.Action.CANCEL, Duration.ofMillis(10), 4);
+    
+    @AfterEach
+    void tearDown() {
+        watchdog.shutdown();
+    }
+    
+    @Test
+    void cancelsOrderStillPendingAfterTimeout() {
+        when(orderRepository.findTimestampsByStatus(Order.OrderStatus.PENDING)).thenReturn(List.of());
+        when(orderService.expirePendingOrder(1L)).thenReturn(true);
+        watchdog.start();
+        
+        watchdog.onOrderCreated(new OrderCreatedEvent(order(1L, LocalDateTime.now())));
+        
+        verify(orderService, timeout(5000)).expirePendingOrder(1L);
+        assertEquals(0, watchdog.getWatchedCount());
+    }
+    
+    @Test
+    void stopsWatchingOrderThatLeftPending() {
+        when(orderRepository.findTimestampsByStatus(Order.OrderStatus.PENDING)).thenReturn(List.of());
+        watchdog.start();
+        
+        watchdog.onOrderCreated(new OrderCreatedEvent(order(1L, LocalDateTime.now())));
+        watchdog.onOrderStatusChanged(new OrderStatusChangedEvent(List.of(1L),
+                Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        
+        assertEquals(0, watchdog.getWatchedCount());
+        verify(orderService, after(300).never()).expirePendingOrder(1L);
+    }
+    
+    // Private helper methods
+    
+    private static Order order(Long id, LocalDateTime orderDate) {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderDate(orderDate);
+        return order;
+    }
+}
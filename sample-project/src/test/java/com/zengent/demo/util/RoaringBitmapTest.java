@@ -0,0 +1,108 @@
+package com.zengent.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoaringBitmapTest {
+    
+    @Test
+    void addsRemovesAndContainsAcrossChunks() {
+        RoaringBitmap bitmap = RoaringBitmap.of(new int[] {70_000, 3, 3, 65_535, 65_536, Integer.MAX_VALUE});
+        
+        assertEquals(5, bitmap.cardinality());
+        assertTrue(bitmap.contains(3));
+        assertTrue(bitmap.contains(65_535));
+        assertTrue(bitmap.contains(65_536));
+        assertTrue(bitmap.contains(Integer.MAX_VALUE));
+        assertFalse(bitmap.contains(4));
+        assertFalse(bitmap.contains(-1));
+        
+        bitmap.remove(65_536);
+        bitmap.remove(65_536);
+        bitmap.remove(1_000_000);
+        assertFalse(bitmap.contains(65_536));
+        assertTrue(bitmap.contains(70_000));
+        assertEquals(4, bitmap.cardinality());
+        
+        for (int value : new int[] {3, 65_535, 70_000, Integer.MAX_VALUE}) {
+            bitmap.remove(value);
+        }
+        assertTrue(bitmap.isEmpty());
+    }
+    
+    @Test
+    void keepsValuesWhenChunksSwitchForm() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < RoaringBitmap.ARRAY_MAX; i++) {
+            bitmap.add(i * 2);
+        }
+        RoaringBitmap odd = RoaringBitmap.of(new int[] {1, 3, 8191});
+        
+        // One past the array limit turns the chunk into a bitmap
+        bitmap.add(1);
+        assertEquals(RoaringBitmap.ARRAY_MAX + 1, bitmap.cardinality());
+        assertEquals(1, bitmap.andCardinality(odd));
+        
+        // And back into an array
+        bitmap.remove(1);
+        bitmap.remove(0);
+        assertEquals(RoaringBitmap.ARRAY_MAX - 1, bitmap.cardinality());
+        assertEquals(0, bitmap.andCardinality(odd));
+        assertFalse(bitmap.contains(0));
+        assertFalse(bitmap.contains(1));
+        for (int i = 1; i < RoaringBitmap.ARRAY_MAX; i++) {
+            assertTrue(bitmap.contains(i * 2), "Lost " + i * 2);
+        }
+        bitmap.add(5);
+        assertTrue(bitmap.contains(5));
+        assertEquals(RoaringBitmap.ARRAY_MAX, bitmap.cardinality());
+    }
+    
+    @Test
+    void andCardinalityMatchesAModelForEveryChunkForm() {
+        Random random = new Random(7);
+        // Chunk 0 sparse in both, chunk 1 dense in both, chunk 2 sparse against dense
+        BitSet left = new BitSet();
+        BitSet right = new BitSet();
+        fill(left, random, 0, 100);
+        fill(right, random, 0, 100);
+        fill(left, random, 65_536, 20_000);
+        fill(right, random, 65_536, 20_000);
+        fill(left, random, 131_072, 300);
+        fill(right, random, 131_072, 30_000);
+        fill(left, random, 196_608, 50);
+        
+        RoaringBitmap a = RoaringBitmap.of(left.stream().toArray());
+        RoaringBitmap b = RoaringBitmap.of(right.stream().toArray());
+        BitSet both = (BitSet) left.clone();
+        both.and(right);
+        
+        assertEquals(left.cardinality(), a.cardinality());
+        assertEquals(both.cardinality(), a.andCardinality(b));
+        assertEquals(both.cardinality(), b.andCardinality(a));
+        assertEquals(0, a.andCardinality(new RoaringBitmap()));
+    }
+    
+    @Test
+    void rejectsNegativeValues() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+        assertThrows(IllegalArgumentException.class, () -> bitmap.remove(-1));
+    }
+    
+    // Private helper methods
+    
+    private static void fill(BitSet bits, Random random, int chunkStart, int count) {
+        for (int i = 0; i < count; i++) {
+            bits.set(chunkStart + random.nextInt(65_536));
+        }
+    }
+}
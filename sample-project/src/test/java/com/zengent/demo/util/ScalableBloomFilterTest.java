@@ -0,0 +1,74 @@
+package com.zengent.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScalableBloomFilterTest {
+    
+    @Test
+    void neverMissesAnAddedElementAcrossLayers() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        // Far beyond the first layer, so several layers are added
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("SKU-" + i);
+        }
+        
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("SKU-" + i), "Missed SKU-" + i);
+        }
+        assertEquals(10_000, filter.count());
+    }
+    
+    @Test
+    void keepsTheFalsePositiveRateBelowTwiceTheTarget() {
+        double target = 0.01;
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, target);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("SKU-" + i);
+        }
+        
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("OTHER-" + i)) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed < 2 * target, "Observed rate " + observed);
+        assertTrue(filter.expectedFalsePositiveRate() < 2 * target);
+    }
+    
+    @Test
+    void growsItsMemoryWithNewLayers() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        long initial = filter.memoryBytes();
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("SKU-" + i);
+        }
+        assertEquals(initial, filter.memoryBytes());
+        
+        filter.add("SKU-overflow");
+        assertTrue(filter.memoryBytes() > 2 * initial);
+    }
+    
+    @Test
+    void emptyFilterContainsNothing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(10, 0.01);
+        
+        assertFalse(filter.mightContain("SKU-1"));
+        assertFalse(filter.mightContain(""));
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+    }
+    
+    @Test
+    void rejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1));
+    }
+}
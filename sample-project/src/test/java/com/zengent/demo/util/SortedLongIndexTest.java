@@ -0,0 +1,100 @@
+package com.zengent.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedLongIndexTest {
+    
+    @Test
+    void returnsRangesOrderedByKeyThenId() {
+        SortedLongIndex index = new SortedLongIndex();
+        index.put(3, 500);
+        index.put(1, 500);
+        index.put(2, 100);
+        index.put(4, 900);
+        
+        assertArrayEquals(new long[] {2, 1, 3, 4}, index.idsInRange(Long.MIN_VALUE, Long.MAX_VALUE, 10));
+        assertArrayEquals(new long[] {1, 3}, index.idsInRange(500, 501, 10));
+        assertArrayEquals(new long[] {2, 1}, index.idsInRange(0, 1000, 2));
+        assertArrayEquals(new long[] {4, 3, 1}, index.idsInRangeDescending(101, 1000, 10));
+        assertArrayEquals(new long[] {4}, index.idsInRangeDescending(Long.MIN_VALUE, Long.MAX_VALUE, 1));
+        assertArrayEquals(new long[0], index.idsInRange(501, 900, 10));
+        assertArrayEquals(new long[0], index.idsInRange(900, 100, 10));
+    }
+    
+    @Test
+    void movesAndRemovesEntries() {
+        SortedLongIndex index = new SortedLongIndex();
+        index.put(1, 100);
+        index.put(2, 200);
+        index.put(1, 300);
+        index.put(2, 200);
+        
+        assertEquals(2, index.size());
+        assertEquals(300, index.getKey(1, -1));
+        assertArrayEquals(new long[] {2, 1}, index.idsInRange(0, 1000, 10));
+        
+        assertTrue(index.remove(2));
+        assertFalse(index.remove(2));
+        assertEquals(-1, index.getKey(2, -1));
+        assertArrayEquals(new long[] {1}, index.idsInRange(0, 1000, 10));
+    }
+    
+    @Test
+    void replaceAllSortsTheGivenEntries() {
+        SortedLongIndex index = new SortedLongIndex();
+        index.put(99, 1);
+        
+        index.replaceAll(new long[] {5, 6, 7}, new long[] {30, 10, 30});
+        
+        assertEquals(3, index.size());
+        assertEquals(-1, index.getKey(99, -1));
+        assertArrayEquals(new long[] {6, 5, 7}, index.idsInRange(Long.MIN_VALUE, Long.MAX_VALUE, 10));
+        index.put(8, 20);
+        assertArrayEquals(new long[] {6, 8, 5, 7}, index.idsInRange(Long.MIN_VALUE, Long.MAX_VALUE, 10));
+        assertThrows(IllegalArgumentException.class, () -> index.replaceAll(new long[] {1}, new long[0]));
+    }
+    
+    @Test
+    void matchesASimpleModelUnderRandomUpdates() {
+        SortedLongIndex index = new SortedLongIndex();
+        Map<Long, Long> model = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                assertEquals(model.remove(id) != null, index.remove(id));
+            } else {
+                long key = random.nextInt(50);
+                index.put(id, key);
+                model.put(id, key);
+            }
+        }
+        
+        assertEquals(model.size(), index.size());
+        long from = 10;
+        long to = 40;
+        List<Long> expected = model.entrySet().stream()
+                .filter(entry -> entry.getValue() >= from && entry.getValue() < to)
+                .sorted(Map.Entry.<Long, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(),
+                index.idsInRange(from, to, Integer.MAX_VALUE));
+        Collections.reverse(expected);
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(),
+                index.idsInRangeDescending(from, to, Integer.MAX_VALUE));
+    }
+}